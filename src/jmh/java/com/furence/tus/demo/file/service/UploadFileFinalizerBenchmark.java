@@ -0,0 +1,118 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.disk.DiskStorageService;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 완료 처리 방식 비교 (기존 스트림 복사 vs 하드 링크 vs 이동 vs 채널 복사)
+ * 매 호출 전에 TUS data 파일을 새로 만들고, 배치 + TUS 데이터 삭제까지를 한 번으로 잰다.
+ * 실행: ./gradlew jmh -Pjmh.includes=UploadFileFinalizerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class UploadFileFinalizerBenchmark {
+
+    @Param({"legacy", "LINK", "MOVE", "CHANNEL_COPY"})
+    String strategy;
+
+    @Param({"64"})
+    int fileSizeMb;
+
+    private Path tempDir;
+    private Path tusDir;
+    private UploadFileFinalizer finalizer;
+    private UploadInfo upload;
+    private File target;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        tempDir = Files.createTempDirectory("finalizer-benchmark");
+        tusDir = tempDir.resolve("tus");
+        Files.createDirectories(tempDir.resolve("files"));
+
+        FileUploadProperties properties = new FileUploadProperties();
+        if (!"legacy".equals(strategy)) {
+            properties.setFinalizeStrategy(UploadFileFinalizer.Strategy.valueOf(strategy));
+        }
+        finalizer = new UploadFileFinalizer(new TusFileUploadService(), new DiskStorageService(tusDir.toString()), properties);
+        finalizer.tusStoragePath = tusDir.toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void createUpload() throws IOException {
+        upload = new UploadInfo();
+        upload.setId(new UploadId(UUID.randomUUID()));
+        upload.setLength(fileSizeMb * 1024L * 1024L);
+        upload.setOffset(upload.getLength());
+
+        Path data = dataPath(upload);
+        Files.createDirectories(data.getParent());
+        byte[] block = new byte[1024 * 1024];
+        ThreadLocalRandom.current().nextBytes(block);
+        try (RandomAccessFile raf = new RandomAccessFile(data.toFile(), "rw")) {
+            for (int i = 0; i < fileSizeMb; i++) {
+                raf.write(block);
+            }
+        }
+        target = tempDir.resolve("files").resolve(upload.getId() + ".bin").toFile();
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTarget() throws IOException {
+        if (target.length() != upload.getLength()) {
+            throw new IllegalStateException("Finalized file size mismatch. strategy=" + strategy);
+        }
+        Files.deleteIfExists(target.toPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Benchmark
+    public void finalizeUpload() throws Exception {
+        Path data = dataPath(upload);
+        if ("legacy".equals(strategy)) {
+            try (InputStream is = Files.newInputStream(data)) {
+                FileUtils.copyInputStreamToFile(is, target);
+            }
+        } else {
+            finalizer.finalizeUpload(null, upload, target);
+        }
+        FileUtils.deleteDirectory(data.getParent().toFile());
+    }
+
+    private Path dataPath(UploadInfo info) {
+        return tusDir.resolve("uploads").resolve(info.getId().toString()).resolve("data");
+    }
+}
@@ -0,0 +1,72 @@
+package com.furence.tus.demo.file.service;
+
+import me.desair.tus.server.upload.UploadInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload-Metadata 헤더에서 filetype 추출 비용 비교
+ * - legacy: split(",") + split(" ") 후 디코딩 (기존 extractContentTypeFromMetadata)
+ * - library: tus UploadInfo 의 전체 메타데이터 맵 디코딩
+ * - header: UploadMetadataHeader (한 번 훑으며 찾는 키만 디코딩)
+ * 실행: ./gradlew jmh -Pjmh.includes=UploadMetadataBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UploadMetadataBenchmark {
+
+    // filetype 앞에 붙는 메타데이터 항목 수 (tus-js-client 는 filename, filetype 외에 임의 항목을 붙인다)
+    @Param({"2", "8"})
+    int pairs;
+
+    private String header;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("filename ").append(encode("20240101_120000_1001_상담녹취.wav"));
+        for (int i = 2; i < pairs; i++) {
+            builder.append(",key").append(i).append(' ').append(encode("value-" + i));
+        }
+        builder.append(",filetype ").append(encode("audio/wav"));
+        header = builder.toString();
+    }
+
+    @Benchmark
+    public String legacy() {
+        for (String pair : header.split(",")) {
+            String[] keyValue = pair.trim().split(" ", 2);
+            if (keyValue.length == 2 && "filetype".equalsIgnoreCase(keyValue[0])) {
+                return new String(Base64.getDecoder().decode(keyValue[1]));
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String library() {
+        UploadInfo info = new UploadInfo();
+        info.setEncodedMetadata(header);
+        return info.getMetadata().get("filetype");
+    }
+
+    @Benchmark
+    public String header() {
+        return UploadMetadataHeader.value(header, "filetype");
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
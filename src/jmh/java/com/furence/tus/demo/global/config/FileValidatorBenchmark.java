@@ -0,0 +1,88 @@
+package com.furence.tus.demo.global.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST 검증 비용 비교 (기존 List.contains + toLowerCase/substring vs 미리 만든 대소문자 무시 집합)
+ * 실행: ./gradlew jmh -Pjmh.includes=FileValidatorBenchmark (할당량은 gc 프로파일러의 gc.alloc.rate.norm)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FileValidatorBenchmark {
+
+    private static final String[] FILE_NAMES = {"20240101_1200_1001.wav", "call-record.MP3", "voice.m4a", "memo.Flac"};
+    private static final String[] CONTENT_TYPES = {"audio/wav", "audio/mpeg", "audio/mp4", "audio/flac"};
+
+    private FileUploadProperties properties;
+    private FileValidator validator;
+    private int index;
+
+    @Setup
+    public void setup() {
+        properties = properties();
+        validator = new FileValidator(properties);
+        validator.reload();
+    }
+
+    @Benchmark
+    public void compiled() {
+        int i = index++ & 3;
+        String fileName = FILE_NAMES[i];
+        String contentType = CONTENT_TYPES[i];
+        validator.validateRestrictedExtension(fileName);
+        validator.validateVoiceFileExtension(fileName);
+        validator.validateFileSize(i);
+        validator.validateRestrictedContentType(contentType);
+        validator.validateVoiceContentType(contentType);
+    }
+
+    /**
+     * 기존 FileValidator 와 같은 방식 (매 검사마다 substring, toLowerCase, 목록 선형 탐색)
+     */
+    @Benchmark
+    public void legacy() {
+        int i = index++ & 3;
+        String fileName = FILE_NAMES[i];
+        String contentType = CONTENT_TYPES[i];
+        if (properties.getRestrictedFileExtensions().contains(legacyExtension(fileName).toLowerCase())) {
+            throw new IllegalStateException(fileName);
+        }
+        if (!properties.getVoiceAllowedExtensions().contains(legacyExtension(fileName).toLowerCase())) {
+            throw new IllegalStateException(fileName);
+        }
+        if (i > properties.getMaxSize()) {
+            throw new IllegalStateException();
+        }
+        if (properties.getRestrictedFileContentType().contains(contentType.toLowerCase())
+                || !properties.getVoiceAllowedContentTypes().contains(contentType.toLowerCase())) {
+            throw new IllegalStateException(contentType);
+        }
+    }
+
+    private static String legacyExtension(String fileName) {
+        return fileName.substring(fileName.lastIndexOf('.') + 1);
+    }
+
+    private FileUploadProperties properties() {
+        FileUploadProperties properties = new FileUploadProperties();
+        properties.setMaxSize(1048576000L);
+        properties.setSmsAllowedExtensions(List.of("jpg", "png", "gif"));
+        properties.setRestrictedFileExtensions(List.of("exe", "bat", "sh", "js", "php", "html", "msi"));
+        properties.setRestrictedFileContentType(List.of("application/x-msdownload", "text/html",
+                "application/javascript", "text/javascript", "application/x-bat", "application/x-msi", "application/x-php"));
+        properties.setVoiceAllowedExtensions(List.of("wav", "mp3", "mp4", "m4a", "aac", "ogg", "flac", "tmp"));
+        properties.setVoiceAllowedContentTypes(List.of("audio/wav", "audio/mpeg", "audio/mp4", "audio/x-m4a",
+                "audio/aac", "audio/ogg", "audio/flac", "video/mp4"));
+        return properties;
+    }
+}
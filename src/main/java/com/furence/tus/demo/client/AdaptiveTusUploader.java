@@ -0,0 +1,206 @@
+package com.furence.tus.demo.client;
+
+import com.furence.tus.demo.file.service.UploadChunkAdvisor;
+import io.tus.java.client.ProtocolException;
+import io.tus.java.client.TusClient;
+import io.tus.java.client.TusUpload;
+import io.tus.java.client.TusUploader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * 서버 권장 PATCH 크기를 따라가는 tus-java-client 업로더 (배치 업로드용)
+ * - 업로드 응답의 X-Upload-Chunk-Size / X-Upload-Max-Chunk-Size 를 읽어 다음 PATCH 크기로 쓴다.
+ *   TusUploader 는 응답 헤더를 노출하지 않으므로 TusClient.prepareConnection 에서 연결을 잡아 두고 응답 후 읽는다.
+ * - PATCH 가 실패하면 크기를 절반으로 줄여 서버 offset 부터 다시 보내고, 성공할 때마다 두 배씩 회복한다. (서버 권장값 이하)
+ * - 한 인스턴스를 여러 스레드가 함께 써도 된다. (연결은 스레드별로 기억)
+ */
+@Slf4j
+public class AdaptiveTusUploader {
+
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int INITIAL_CHUNK_SIZE = 8 * 1024 * 1024;   // 첫 응답을 받기 전 값
+    // 파일에서 한 번에 읽어 보내는 크기 (PATCH 크기와 별개)
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final ConnectionCapturingClient client = new ConnectionCapturingClient();
+    private int[] retryDelays = {0, 1000, 3000, 5000};
+
+    public AdaptiveTusUploader(URL uploadCreationUrl, Map<String, String> headers) {
+        client.setUploadCreationURL(uploadCreationUrl);
+        client.setHeaders(headers);
+    }
+
+    /**
+     * 재시도 간격 (ms), 길이가 최대 재시도 횟수
+     */
+    public void setRetryDelays(int... retryDelays) {
+        this.retryDelays = retryDelays.clone();
+    }
+
+    /**
+     * 업로드 생성부터 마지막 PATCH 까지 수행
+     *
+     * @return 업로드 URL
+     */
+    public URL upload(TusUpload upload) throws IOException, ProtocolException {
+        Sizing sizing = new Sizing();
+        TusUploader uploader = client.createUpload(upload);
+        URL uploadUrl = uploader.getUploadURL();
+        sizing.update(client.lastConnection());
+
+        int attempt = 0;
+        while (true) {
+            try {
+                if (uploader == null) {
+                    // HEAD 로 서버 offset 을 다시 받아 그 위치부터 이어서 보낸다.
+                    uploader = client.beginOrResumeUploadFromURL(upload, uploadUrl);
+                    sizing.update(client.lastConnection());
+                }
+                if (!sendPatch(uploader, sizing)) {
+                    uploader.finish();
+                    break;
+                }
+                attempt = 0;
+            } catch (IOException | ProtocolException e) {
+                if (attempt >= retryDelays.length || !shouldRetry(e)) {
+                    throw e;
+                }
+                if (!isThrottled(e)) {
+                    sizing.failed();
+                }
+                log.warn("PATCH failed, retrying. uploadUrl={}, nextChunkSize={}, message={}",
+                        uploadUrl, sizing.next(), e.getMessage());
+                disconnect(client.lastConnection());
+                sleep(retryDelays[attempt++]);
+                uploader = null;
+            }
+        }
+        return uploadUrl;
+    }
+
+    /**
+     * PATCH 하나 전송
+     *
+     * @return 파일 끝에 도달했으면 false (마지막 PATCH 는 호출한 쪽에서 finish 로 닫는다)
+     */
+    private boolean sendPatch(TusUploader uploader, Sizing sizing) throws IOException, ProtocolException {
+        int size = sizing.next();
+        int bufferSize = Math.min(BUFFER_SIZE, size);
+        if (uploader.getChunkSize() != bufferSize) {
+            uploader.setChunkSize(bufferSize);
+        }
+        uploader.setRequestPayloadSize(size);
+
+        long start = uploader.getOffset();
+        while (uploader.getOffset() - start < size) {
+            if (uploader.uploadChunk() == -1) {
+                return false;
+            }
+        }
+        sizing.update(client.lastConnection());
+        sizing.succeeded();
+        return true;
+    }
+
+    private static boolean shouldRetry(Exception e) throws IOException {
+        if (!(e instanceof ProtocolException protocolException)) {
+            return true;
+        }
+        HttpURLConnection connection = protocolException.getCausingConnection();
+        int status = connection != null ? connection.getResponseCode() : 0;
+        // 409: offset 불일치 (HEAD 로 다시 맞춘다), 429: tenant 업로드 한도 초과
+        return protocolException.shouldRetry() || status == 409 || status == 429;
+    }
+
+    private static boolean isThrottled(Exception e) throws IOException {
+        return e instanceof ProtocolException protocolException
+                && protocolException.getCausingConnection() != null
+                && protocolException.getCausingConnection().getResponseCode() == 429;
+    }
+
+    private static void disconnect(HttpURLConnection connection) {
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    private static void sleep(int millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry upload");
+        }
+    }
+
+    /**
+     * 업로드 하나의 PATCH 크기 (서버 권장값과 재시도로 줄인 상한 중 작은 값)
+     */
+    private static final class Sizing {
+
+        private int recommended = INITIAL_CHUNK_SIZE;
+        private int max = Integer.MAX_VALUE;
+        private int cap = Integer.MAX_VALUE;
+
+        void update(HttpURLConnection connection) {
+            if (connection == null) {
+                return;
+            }
+            long maxHeader = parse(connection.getHeaderField(UploadChunkAdvisor.MAX_HEADER));
+            long recommendedHeader = parse(connection.getHeaderField(UploadChunkAdvisor.RECOMMENDED_HEADER));
+            if (maxHeader > 0) {
+                max = (int) Math.min(maxHeader, Integer.MAX_VALUE);
+            }
+            if (recommendedHeader > 0) {
+                recommended = (int) Math.min(recommendedHeader, max);
+            }
+        }
+
+        int next() {
+            return Math.max(MIN_CHUNK_SIZE, Math.min(Math.min(recommended, max), cap));
+        }
+
+        void succeeded() {
+            cap = (int) Math.min((long) cap * 2, Integer.MAX_VALUE);
+        }
+
+        void failed() {
+            cap = Math.max(MIN_CHUNK_SIZE, next() / 2);
+        }
+
+        private static long parse(String value) {
+            if (value == null) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 마지막으로 연 연결을 스레드별로 기억하는 TusClient
+     */
+    private static final class ConnectionCapturingClient extends TusClient {
+
+        private final ThreadLocal<HttpURLConnection> lastConnection = new ThreadLocal<>();
+
+        @Override
+        public void prepareConnection(HttpURLConnection connection) {
+            super.prepareConnection(connection);
+            lastConnection.set(connection);
+        }
+
+        HttpURLConnection lastConnection() {
+            return lastConnection.get();
+        }
+    }
+}
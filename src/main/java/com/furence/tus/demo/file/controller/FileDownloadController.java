@@ -0,0 +1,28 @@
+package com.furence.tus.demo.file.controller;
+
+import com.furence.tus.demo.file.service.FileDownloadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+public class FileDownloadController {
+
+    private final FileDownloadService fileDownloadService;
+
+    /**
+     * 저장된 파일 다운로드/재생 (upload_file.url), Range 요청 지원
+     */
+    @RequestMapping(value = "/uploads/{fileName:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void download(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        fileDownloadService.download(fileName, request, response);
+    }
+}
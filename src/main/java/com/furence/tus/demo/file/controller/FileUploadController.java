@@ -1,6 +1,8 @@
 package com.furence.tus.demo.file.controller;
 
+import com.furence.tus.demo.file.domain.UploadCompletionStatus;
 import com.furence.tus.demo.file.service.FileUploadService;
+import com.furence.tus.demo.file.service.UploadThrottledException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +11,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
@@ -32,13 +36,38 @@ public class FileUploadController {
         fileUploadService.processUpload(request, response);
 
         // HTTP 응답 상태 코드 결정
-        HttpStatus status = determineHttpStatus(request.getMethod());
+        HttpStatus status = determineHttpStatus(FileUploadService.effectiveMethod(request));
 
         return buildResponse(status);
     }
 
     /**
-     * HTTP 메서드에 따른 상태 코드 결정
+     * 업로드 완료 후처리 상태 조회 (PENDING / COMPLETED / FAILED)
+     */
+    @GetMapping(FileUploadService.STATUS_URL_PREFIX + "{uploadId}")
+    public ResponseEntity<Map<String, Object>> getUploadStatus(@PathVariable String uploadId) {
+        UploadCompletionStatus status = fileUploadService.getCompletionStatus(uploadId);
+
+        Map<String, Object> body = new HashMap<>();
+        if (status == null) {
+            body.put("status", 0);
+            body.put("message", "업로드 정보를 찾을 수 없습니다: " + uploadId);
+            body.put("payload", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("uploadId", uploadId);
+        payload.put("state", status.name());
+
+        body.put("status", 1);
+        body.put("message", "OK");
+        body.put("payload", payload);
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * HTTP 메서드에 따른 상태 코드 결정 (X-HTTP-Method-Override 를 반영한 TUS 메서드 기준)
      */
     private HttpStatus determineHttpStatus(String method) {
         return switch (method) {
@@ -74,4 +103,22 @@ public class FileUploadController {
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
-}
\ No newline at end of file
+
+    /**
+     * tenant 업로드 한도 초과 (클라이언트는 Retry-After 후 같은 offset 으로 재시도)
+     */
+    @ExceptionHandler(UploadThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleThrottledException(UploadThrottledException e) {
+        log.warn("Upload throttled: {}", e.getMessage());
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", 0);
+        errorResponse.put("message", e.getMessage());
+        errorResponse.put("payload", null);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "*")
+                .body(errorResponse);
+    }
+}
@@ -1,6 +1,8 @@
 package com.furence.tus.demo.file.controller;
 
+import com.furence.tus.demo.global.config.FileUploadProperties;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,15 +11,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 @Slf4j
 @Controller
+@RequiredArgsConstructor
 public class MainController {
 
+    private final FileUploadProperties fileUploadProperties;
+
     @GetMapping("/")
     public String index() {
         return "index";
@@ -34,12 +38,15 @@ public class MainController {
         log.info("request = {}", request);
         log.info("multipartFile = {}", file);
 
-        if (!file.isEmpty()) {
-            Path filepath = Paths.get("C:/uploads/", file.getOriginalFilename());
+        if (!file.isEmpty() && file.getOriginalFilename() != null) {
+            Path directory = Paths.get(fileUploadProperties.getPath());
+            // 경로 성분은 버리고 파일명만 사용
+            Path filepath = directory.resolve(Paths.get(file.getOriginalFilename()).getFileName());
+            Files.createDirectories(directory);
 
-            try (OutputStream os = Files.newOutputStream(filepath)) {
-                os.write(file.getBytes());
-            }
+            // 멀티파트 임시 파일을 그대로 옮긴다 (getBytes() 로 전체를 힙에 올리지 않음)
+            file.transferTo(filepath.toAbsolutePath().toFile());
+            log.info("Multipart file saved: {} ({} bytes)", filepath, file.getSize());
         }
 
         return "upload-form";
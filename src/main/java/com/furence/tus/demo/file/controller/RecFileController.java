@@ -0,0 +1,54 @@
+package com.furence.tus.demo.file.controller;
+
+import com.furence.tus.demo.file.domain.dto.RecFileSearchCondition;
+import com.furence.tus.demo.file.domain.dto.RecFileSearchResult;
+import com.furence.tus.demo.file.service.RecFileSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class RecFileController {
+
+    private final RecFileSearchService recFileSearchService;
+
+    /**
+     * 녹취 파일 조회 (최신순, 다음 페이지는 payload.nextCursor 를 cursor 로 전달)
+     * 예: /api/rec-files?tenantId=1000&recDateFrom=20250101&recDateTo=20250131&extNo=1234&size=50
+     */
+    @GetMapping("/api/rec-files")
+    public ResponseEntity<Map<String, Object>> search(@ModelAttribute RecFileSearchCondition condition) {
+        RecFileSearchResult result = recFileSearchService.search(condition);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", 1);
+        body.put("message", "OK");
+        body.put("payload", result);
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * 조회 조건 오류 처리
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException e) {
+        log.warn("Invalid rec file search: {}", e.getMessage());
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", 0);
+        errorResponse.put("message", e.getMessage());
+        errorResponse.put("payload", null);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+}
@@ -0,0 +1,10 @@
+package com.furence.tus.demo.file.domain;
+
+/**
+ * 업로드 완료 후처리 상태
+ */
+public enum UploadCompletionStatus {
+    PENDING,    // 바이트 수신 완료, 후처리 대기/진행 중
+    COMPLETED,  // 파일 배치 및 DB 저장 완료
+    FAILED      // 재시도 횟수 초과
+}
@@ -0,0 +1,11 @@
+package com.furence.tus.demo.file.domain;
+
+/**
+ * 업로드 완료 후처리 단계 (완료 저널에 끝난 단계로 기록, 재시도/재기동 시 건너뜀)
+ */
+public enum UploadCompletionStep {
+    PLACED,         // 최종 위치에 파일 배치
+    CLEANED_UP,     // TUS 업로드 데이터 삭제
+    COMPRESSED,     // 압축본으로 교체 (또는 압축 대상 아님/효과 없음 확인)
+    SAVED           // upload_file / rs4_ser_recfile 저장 커밋
+}
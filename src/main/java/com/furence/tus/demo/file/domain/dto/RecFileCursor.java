@@ -0,0 +1,36 @@
+package com.furence.tus.demo.file.domain.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * keyset 페이지 위치 (이전 페이지 마지막 행의 정렬 키)
+ * 클라이언트에는 "recDate:recHtime:sequence" 를 base64url 로 감싼 문자열로 준다.
+ */
+public record RecFileCursor(String recDate, String recHtime, long sequence) {
+
+    public static RecFileCursor of(RecFileSummary last) {
+        return new RecFileCursor(last.getRecDate(), last.getRecHtime(), last.getSequence());
+    }
+
+    public String encode() {
+        String raw = recDate + ":" + recHtime + ":" + sequence;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static RecFileCursor decode(String cursor) {
+        String[] parts;
+        long sequence;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+            sequence = parts.length == 3 ? Long.parseLong(parts[2]) : -1;
+        } catch (IllegalArgumentException e) {
+            // Base64 / 숫자 형식 오류
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + cursor, e);
+        }
+        if (sequence < 0) {
+            throw new IllegalArgumentException("잘못된 cursor 입니다: " + cursor);
+        }
+        return new RecFileCursor(parts[0], parts[1], sequence);
+    }
+}
@@ -0,0 +1,23 @@
+package com.furence.tus.demo.file.domain.dto;
+
+import lombok.*;
+
+/**
+ * 녹취 파일 조회 조건 (GET /api/rec-files 쿼리 파라미터)
+ * 녹취 일시 범위는 (recDate, recHtime) 순서로 비교하며, 시각을 생략하면 해당 날짜 전체다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecFileSearchCondition {
+    private Long tenantId;
+    private String recDateFrom;   // yyyyMMdd
+    private String recHtimeFrom;  // hh
+    private String recDateTo;     // yyyyMMdd
+    private String recHtimeTo;    // hh
+    private String extNo;
+    private String cursor;        // 이전 응답의 nextCursor
+    private Integer size;
+}
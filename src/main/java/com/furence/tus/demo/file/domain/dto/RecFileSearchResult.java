@@ -0,0 +1,16 @@
+package com.furence.tus.demo.file.domain.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 녹취 파일 조회 페이지 (nextCursor 가 null 이면 마지막 페이지)
+ */
+@Getter
+@Builder
+public class RecFileSearchResult {
+    private List<RecFileSummary> items;
+    private String nextCursor;
+}
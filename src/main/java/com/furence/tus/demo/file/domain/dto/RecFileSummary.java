@@ -0,0 +1,23 @@
+package com.furence.tus.demo.file.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 녹취 파일 조회 결과 행 (엔티티 대신 필요한 컬럼만 조회)
+ */
+@Getter
+@AllArgsConstructor
+public class RecFileSummary {
+    private Long sequence;
+    private Long tenantId;
+    private String recDate;
+    private String recHtime;
+    private String recTime;
+    private String extNo;
+    private String fileName;
+
+    public String getUrl() {
+        return "/uploads/" + fileName;
+    }
+}
@@ -0,0 +1,39 @@
+package com.furence.tus.demo.file.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 묶음 업로드 manifest (zip 의 첫 항목 manifest.json)
+ * 항목별 값이 없으면 업로드 요청 헤더(X-Tenant-Id, X-Rec-Date 등) 값을 쓴다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UploadBatchManifest {
+    private List<Entry> entries = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Entry {
+        // zip 항목 이름 (경로 포함)
+        private String name;
+        // 다운로드(/uploads/{fileName})에 쓰는 이름, 없으면 디스크 파일명({uploadId}.{순번}.{확장자})
+        private String serverFileName;
+        private String contentType;
+        private Long tenantId;
+        private String recDate;
+        private String recHtime;
+        private String recTime;
+        private String extNo;
+    }
+}
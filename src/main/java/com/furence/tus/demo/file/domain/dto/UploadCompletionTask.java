@@ -0,0 +1,35 @@
+package com.furence.tus.demo.file.domain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 업로드 완료 후처리 작업 (파일 배치, TUS 정리, DB 저장)
+ * 요청 헤더 값을 미리 담아두어 요청 스레드 밖에서 처리
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadCompletionTask {
+    private String uploadId;
+    private String uploadUri;
+    // 병렬 업로드의 부분 업로드 ID (후처리가 끝날 때까지 만료 정리에서 제외)
+    private List<String> partialUploadIds;
+    private String serverFileName;
+    // 최종 파일 경로 (등록 시 결정, 없으면 {file.path}/{serverFileName})
+    private String targetPath;
+    private String clientFileName;
+    private Long tenantId;
+    private String recDate;
+    private String recHtime;
+    private String recTime;
+    private String extNo;
+    // PATCH 중 계산한 SHA-256 (hex), 없으면 후처리에서 계산
+    private String contentSha256;
+    // 묶음 업로드(zip), 항목별로 풀어 저장
+    private boolean batch;
+    private int attempts;
+}
@@ -7,19 +7,29 @@ import lombok.Getter;
 @Getter
 @Builder
 public class UploadFileSaveRequest {
+    private String uploadId;
     private String path;
     private String url;
     private String fileName;
     private String clientFileName;
-    private Integer fileSize;
+    private Long fileSize;
+    private String contentSha256;
+    private Long originalSize;
+    private Long storedSize;
+    private String contentEncoding;
 
     public UploadFile toEntity() {
         return UploadFile.builder()
+                .uploadId(uploadId)
                 .path(path)
                 .url(url)
                 .fileName(fileName)
                 .clientFileName(clientFileName)
                 .fileSize(fileSize)
+                .contentSha256(contentSha256)
+                .originalSize(originalSize)
+                .storedSize(storedSize)
+                .contentEncoding(contentEncoding)
                 .build();
     }
 }
\ No newline at end of file
@@ -1,7 +1,17 @@
 package com.furence.tus.demo.file.repository;
 
+import com.furence.tus.demo.file.domain.dto.RecFileCursor;
+import com.furence.tus.demo.file.domain.dto.RecFileSearchCondition;
+import com.furence.tus.demo.file.domain.dto.RecFileSummary;
 import com.furence.tus.demo.global.entity.RecFile;
 
+import java.util.List;
+
 public interface RecFileRepositoryCustom {
     void insertRecFile(RecFile recFile);
+
+    /**
+     * 녹취 일시 최신순 조회 (after 가 있으면 그 행 다음부터 limit 건)
+     */
+    List<RecFileSummary> search(RecFileSearchCondition condition, RecFileCursor after, int limit);
 }
@@ -1,11 +1,23 @@
 package com.furence.tus.demo.file.repository;
 
+import com.furence.tus.demo.file.domain.dto.RecFileCursor;
+import com.furence.tus.demo.file.domain.dto.RecFileSearchCondition;
+import com.furence.tus.demo.file.domain.dto.RecFileSummary;
 import com.furence.tus.demo.global.entity.RecFile;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.furence.tus.demo.global.entity.QRecFile.recFile;
+
 @Repository
 @RequiredArgsConstructor
 public class RecFileRepositoryImpl implements RecFileRepositoryCustom {
@@ -17,4 +29,88 @@ public class RecFileRepositoryImpl implements RecFileRepositoryCustom {
     public void insertRecFile(RecFile recFile) {
         em.persist(recFile);
     }
-}
\ No newline at end of file
+
+    /**
+     * (r_tenant_id[, r_ext_no], r_rec_date, r_rec_htime, r_sequence) 인덱스 순서로 읽는 keyset 조회
+     * OFFSET 없이 이전 페이지 마지막 키 다음부터 읽으므로 페이지 깊이와 무관하게 limit 건만 읽는다.
+     */
+    @Override
+    public List<RecFileSummary> search(RecFileSearchCondition condition, RecFileCursor after, int limit) {
+        return queryFactory
+                .select(Projections.constructor(RecFileSummary.class,
+                        recFile.sequence,
+                        recFile.tenantId,
+                        recFile.recDate,
+                        recFile.recHtime,
+                        recFile.recTime,
+                        recFile.extNo,
+                        recFile.fileName))
+                .from(recFile)
+                .where(
+                        recFile.tenantId.eq(condition.getTenantId()),
+                        extNoEq(condition.getExtNo()),
+                        recordedFrom(condition.getRecDateFrom(), condition.getRecHtimeFrom()),
+                        recDateUpTo(condition.getRecDateTo(), after),
+                        recordedTo(condition.getRecDateTo(), condition.getRecHtimeTo()),
+                        before(after))
+                .orderBy(orderByIndex(condition.getExtNo()))
+                .limit(limit)
+                .fetch();
+    }
+
+    // 최신순 정렬, 등호 조건인 앞 인덱스 컬럼도 넣어 두어 옵티마이저가 정렬 없이 인덱스 순서로 읽게 한다. (결과 순서는 같음)
+    private OrderSpecifier<?>[] orderByIndex(String extNo) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        orders.add(recFile.tenantId.asc());
+        if (extNoEq(extNo) != null) {
+            orders.add(recFile.extNo.asc());
+        }
+        orders.add(recFile.recDate.desc());
+        orders.add(recFile.recHtime.desc());
+        orders.add(recFile.sequence.desc());
+        return orders.toArray(OrderSpecifier[]::new);
+    }
+
+    private BooleanExpression extNoEq(String extNo) {
+        return extNo != null && !extNo.isBlank() ? recFile.extNo.eq(extNo) : null;
+    }
+
+    // (r_rec_date, r_rec_htime) >= (date, htime)
+    private BooleanExpression recordedFrom(String date, String htime) {
+        if (date == null) {
+            return null;
+        }
+        BooleanExpression from = recFile.recDate.goe(date);
+        return htime == null ? from
+                : from.and(Expressions.booleanTemplate("({0}, {1}) >= ({2}, {3})",
+                        recFile.recDate, recFile.recHtime, date, htime));
+    }
+
+    // 인덱스 범위 상한: 조회 종료일과 cursor 날짜 중 앞선 값 하나만 건다.
+    // (같은 컬럼에 바인딩 상한이 둘이면 어느 쪽이 좁은지 몰라 범위 검색을 못 하는 옵티마이저가 있다.)
+    private BooleanExpression recDateUpTo(String date, RecFileCursor after) {
+        String upTo = date;
+        if (after != null && (upTo == null || after.recDate().compareTo(upTo) < 0)) {
+            upTo = after.recDate();
+        }
+        return upTo != null ? recFile.recDate.loe(upTo) : null;
+    }
+
+    // (r_rec_date, r_rec_htime) <= (date, htime), 날짜만 주면 recDateUpTo 로 충분하다.
+    private BooleanExpression recordedTo(String date, String htime) {
+        if (date == null || htime == null) {
+            return null;
+        }
+        return Expressions.booleanTemplate("({0}, {1}) <= ({2}, {3})", recFile.recDate, recFile.recHtime, date, htime);
+    }
+
+    // (r_rec_date, r_rec_htime, r_sequence) < cursor (행 값 비교, PostgreSQL 은 그대로 인덱스 범위로 쓴다)
+    private BooleanExpression before(RecFileCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return Expressions.booleanTemplate("({0}, {1}, {2}) < ({3}, {4}, {5})",
+                recFile.recDate, recFile.recHtime, recFile.sequence,
+                cursor.recDate(), cursor.recHtime(), cursor.sequence());
+    }
+}
@@ -0,0 +1,18 @@
+package com.furence.tus.demo.file.repository;
+
+import com.furence.tus.demo.global.entity.UploadBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    // 참조 수 변경/파일 삭제를 직렬화하기 위한 행 잠금 (select ... for update)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from UploadBlob b where b.contentSha256 = :contentSha256")
+    Optional<UploadBlob> findForUpdate(@Param("contentSha256") String contentSha256);
+}
@@ -1,7 +1,29 @@
 package com.furence.tus.demo.file.repository;
 
 import com.furence.tus.demo.global.entity.UploadFile;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface UploadFileRepository extends JpaRepository<UploadFile, Long> {
-}
\ No newline at end of file
+
+    boolean existsByUploadId(String uploadId);
+
+    // 묶음 업로드 항목 ({uploadId}.{순번}) 조회
+    boolean existsByUploadIdStartingWith(String uploadIdPrefix);
+
+    Optional<UploadFile> findFirstByFileNameOrderBySeqDesc(String fileName);
+
+    // 다운로드용 조회, 파일명은 tenant 간에 겹칠 수 있으므로 그 tenant 의 녹취(rs4_ser_recfile)로 저장된 파일만 찾는다.
+    @Query("""
+            select u from UploadFile u
+            where u.fileName = :fileName
+              and exists (select r.sequence from RecFile r where r.fileName = u.fileName and r.tenantId = :tenantId)
+            order by u.seq desc""")
+    List<UploadFile> findLatestByFileNameAndTenantId(@Param("fileName") String fileName,
+                                                     @Param("tenantId") Long tenantId, Limit limit);
+}
@@ -0,0 +1,19 @@
+package com.furence.tus.demo.file.repository;
+
+import com.furence.tus.demo.global.entity.UploadIdRegistry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UploadIdRegistryRepository extends JpaRepository<UploadIdRegistry, String> {
+
+    /**
+     * upload_id 선점 (이미 있으면 0)
+     * 다른 트랜잭션이 같은 값을 넣는 중이면 그 트랜잭션이 끝날 때까지 기다린다.
+     */
+    @Modifying
+    @Query(value = "insert into upload_id_registry (upload_id, create_timestamp) values (:uploadId, current_timestamp)"
+            + " on conflict do nothing", nativeQuery = true)
+    int claim(@Param("uploadId") String uploadId);
+}
@@ -0,0 +1,278 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.repository.UploadFileRepository;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.entity.UploadFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 저장된 파일 다운로드(재생)
+ * - 파일명은 tenant 간에 겹칠 수 있으므로 요청 tenant(X-Tenant-Id)의 녹취로 저장된 파일만 찾는다. (없으면 404)
+ * - Range(단일 구간) 요청은 206, 여러 구간 요청은 전체(200)로 응답한다.
+ * - ETag 는 content_sha256 (없으면 크기/수정 시각 기반 weak ETag), Last-Modified 는 파일 수정 시각
+ * - 본문은 FileChannel.transferTo 로 보낸다.
+ * - tenant(X-Tenant-Id) 별 동시 스트림 수를 제한한다. (초과 시 429 + Retry-After)
+ *   한도는 본문을 다 보낼 때까지 잡고 있어야 하므로, 서블릿 반환 뒤 본문을 보내는 Tomcat sendfile 은
+ *   제한이 없을 때(max-streams-per-tenant <= 0)만 쓴다.
+ * - gzip 으로 압축 저장된 파일은 Range 없이 gzip 을 받는 클라이언트에 그대로(Content-Encoding: gzip) 보내고,
+ *   그 외에는 풀어서 보낸다. (Range 는 시작 위치가 들어 있는 gzip member 부터 푼다)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileDownloadService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+    private static final String TENANT_NONE = "none";
+    private static final String TENANT_OTHER = "other";
+
+    private final UploadFileRepository uploadFileRepository;
+    private final FileUploadProperties fileUploadProperties;
+    private final UploadFileCompressor uploadFileCompressor;
+
+    private final Map<String, Semaphore> tenantStreams = new ConcurrentHashMap<>();
+
+    public void download(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long tenantId = parseTenantId(request.getHeader(TENANT_HEADER));
+        UploadFile uploadFile = tenantId != null
+                ? uploadFileRepository.findLatestByFileNameAndTenantId(fileName, tenantId, Limit.of(1)).stream()
+                        .findFirst().orElse(null)
+                : null;
+        Path path = uploadFile != null ? Paths.get(uploadFile.getPath()) : null;
+        if (path == null || !Files.isRegularFile(path)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        boolean compressed = UploadFileCompressor.CONTENT_ENCODING_GZIP.equals(uploadFile.getContentEncoding());
+        long storedLength = attributes.size();
+        long length = compressed ? uploadFile.getOriginalSize() : storedLength;
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        boolean sendEncoded = compressed && request.getHeader(HttpHeaders.RANGE) == null && acceptsGzip(request);
+        String etag = etag(uploadFile, length, lastModified, sendEncoded);
+        if (compressed) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        // If-None-Match / If-Modified-Since (304), If-Match / If-Unmodified-Since (412)
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+        FileUploadProperties.Download download = fileUploadProperties.getDownload();
+        Semaphore streams = head || download.getMaxStreamsPerTenant() <= 0
+                ? null : tenantStreams(request.getHeader(TENANT_HEADER));
+        if (streams != null && !streams.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(download.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+
+        try {
+            long start = 0;
+            long end = length - 1;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            if (range != null && isRangeApplicable(request, etag, lastModified)) {
+                List<HttpRange> ranges = parseRanges(range);
+                if (ranges.size() == 1) {
+                    HttpRange httpRange = ranges.get(0);
+                    if (length == 0 || !isSatisfiable(httpRange, length)) {
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                        response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                        return;
+                    }
+                    start = httpRange.getRangeStart(length);
+                    end = httpRange.getRangeEnd(length);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+                // 여러 구간 요청은 전체로 응답 (재생 UI 는 단일 구간만 사용)
+            }
+
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setContentType(MediaTypeFactory.getMediaType(uploadFile.getFileName())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                    .filename(uploadFile.getClientFileName(), StandardCharsets.UTF_8)
+                    .build().toString());
+            if (sendEncoded) {
+                // 압축본 그대로 전송 (전체 응답만)
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, UploadFileCompressor.CONTENT_ENCODING_GZIP);
+                start = 0;
+                end = storedLength - 1;
+            }
+            response.setContentLengthLong(end - start + 1);
+
+            if (head || end < start) {
+                return;
+            }
+            if (compressed && !sendEncoded) {
+                transferDecompressed(path, start, end - start + 1, response);
+                return;
+            }
+            if (streams == null && download.isSendfile()
+                    && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // 응답 본문은 서블릿 반환 후 Tomcat 이 커널 sendfile 로 보낸다.
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            transfer(path, start, end - start + 1, response);
+        } finally {
+            if (streams != null) {
+                streams.release();
+            }
+        }
+    }
+
+    private void transfer(Path path, long position, long count, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    throw new IOException("File is shorter than expected. path=" + path + ", position=" + position);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private void transferDecompressed(Path path, long position, long count, HttpServletResponse response)
+            throws IOException {
+        try (InputStream in = uploadFileCompressor.openDecompressed(path, position)) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[64 * 1024];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("File is shorter than expected. path=" + path + ", position=" + position);
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    /**
+     * 표현(원본 / gzip 그대로)마다 다른 ETag
+     */
+    private String etag(UploadFile uploadFile, long length, long lastModified, boolean encoded) {
+        String suffix = encoded ? "-gzip" : "";
+        if (uploadFile.getContentSha256() != null) {
+            return "\"" + uploadFile.getContentSha256() + suffix + "\"";
+        }
+        return "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + suffix + "\"";
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Range 가 있으면 현재 파일과 같을 때만 Range 적용 (strong ETag 또는 Last-Modified 일치)
+     */
+    private boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+        long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+        return ifRangeDate != -1 && lastModified / 1000 == ifRangeDate / 1000;
+    }
+
+    private List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            // 형식이 잘못된 Range 는 무시하고 전체로 응답
+            log.debug("Ignoring invalid Range header: {}", range);
+            return List.of();
+        }
+    }
+
+    private boolean isSatisfiable(HttpRange range, long length) {
+        try {
+            return range.getRangeStart(length) < length;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Long parseTenantId(String tenantHeader) {
+        if (tenantHeader == null || tenantHeader.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tenantHeader.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Semaphore tenantStreams(String tenantHeader) {
+        FileUploadProperties.Download download = fileUploadProperties.getDownload();
+        String tenant = tenantHeader == null || tenantHeader.isBlank() ? TENANT_NONE : tenantHeader.trim();
+        Semaphore streams = tenantStreams.get(tenant);
+        if (streams != null) {
+            return streams;
+        }
+        if (tenantStreams.size() >= download.getMaxTenants()) {
+            tenant = TENANT_OTHER;
+        }
+        return tenantStreams.computeIfAbsent(tenant, key -> new Semaphore(download.getMaxStreamsPerTenant()));
+    }
+}
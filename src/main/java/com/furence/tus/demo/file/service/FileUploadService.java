@@ -1,66 +1,134 @@
 package com.furence.tus.demo.file.service;
 
-import com.furence.tus.demo.file.domain.dto.RecFileSaveRequest;
-import com.furence.tus.demo.file.domain.dto.UploadFileSaveRequest;
-import com.furence.tus.demo.file.repository.RecFileRepository;
+import com.furence.tus.demo.file.domain.UploadCompletionStatus;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
 import com.furence.tus.demo.file.repository.UploadFileRepository;
-import com.furence.tus.demo.global.config.FileValidator;
+import com.furence.tus.demo.file.storage.DigestingUploadStorageService;
 import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.FileValidationException;
+import com.furence.tus.demo.global.config.FileValidator;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.HttpMethod;
 import me.desair.tus.server.TusFileUploadService;
 import me.desair.tus.server.exception.TusException;
 import me.desair.tus.server.upload.UploadInfo;
-import org.apache.commons.io.FileUtils;
+import me.desair.tus.server.upload.UploadType;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileUploadService {
 
+    public static final String STATUS_URL_PREFIX = "/api/tus/file/status/";
+
     private final TusFileUploadService tusFileUploadService;
-    private final RecFileRepository recFileRepository;
     private final UploadFileRepository uploadFileRepository;
     private final FileValidator fileValidator;
+    private final UploadCompletionQueue uploadCompletionQueue;
+    private final UploadMetrics uploadMetrics;
+    private final UploadFilePlacement uploadFilePlacement;
+    private final TenantUploadLimiter tenantUploadLimiter;
     private final FileUploadProperties fileUploadProperties;
+    private final UploadChunkAdvisor uploadChunkAdvisor;
+
+    public void processUpload(HttpServletRequest request, HttpServletResponse response) {
+        String method = effectiveMethod(request);
+        String tenant = uploadMetrics.tenantTag(request.getHeader("X-Tenant-Id"));
+        boolean patch = "PATCH".equalsIgnoreCase(method);
+        if (patch) {
+            uploadMetrics.patchStarted();
+        }
 
-    @Transactional
-    public void saveRecFile(RecFileSaveRequest dto) {
-        recFileRepository.save(dto.toEntity());
+        long start = System.nanoTime();
+        String outcome = "error";
+        TenantUploadLimiter.Permit permit = null;
+        try {
+            // PATCH 는 tenant 한도 안에서만 시작하고, 본문은 대역폭 제한을 걸어 읽는다.
+            if (patch && fileUploadProperties.getThrottle().isEnabled()) {
+                permit = tenantUploadLimiter.acquire(request.getHeader("X-Tenant-Id"));
+            }
+            handleUpload(permit != null ? permit.wrap(request) : request, response);
+            outcome = (response.getStatus() / 100) + "xx";
+        } catch (UploadThrottledException e) {
+            outcome = "throttled";
+            throw e;
+        } catch (FileValidationException e) {
+            uploadMetrics.validationRejected(e.getReason());
+            outcome = "rejected";
+            throw e;
+        } finally {
+            if (permit != null) {
+                permit.close();
+            }
+            long elapsed = System.nanoTime() - start;
+            uploadMetrics.recordRequest(method, tenant, outcome, elapsed);
+            if (patch) {
+                long bytes = patchedBytes(request, response);
+                uploadMetrics.patchFinished(request.getRequestURI(), tenant, bytes, elapsed);
+                recordChunk(request, outcome, bytes, elapsed);
+            }
+            uploadChunkAdvisor.writeHeaders(request.getHeader("X-Tenant-Id"), response);
+        }
     }
 
-    @Transactional
-    public void saveUploadFile(UploadFileSaveRequest dto) {
-        uploadFileRepository.save(dto.toEntity());
+    /**
+     * PATCH 크기 권장값에 반영 (한도 초과 / 검증 거절 / 4xx 는 전송 품질과 무관하므로 제외)
+     */
+    private void recordChunk(HttpServletRequest request, String outcome, long bytes, long elapsed) {
+        String tenantHeader = request.getHeader("X-Tenant-Id");
+        if ("error".equals(outcome) || "5xx".equals(outcome)) {
+            uploadChunkAdvisor.patchFailed(tenantHeader);
+        } else if ("2xx".equals(outcome)) {
+            // 본문을 끝까지 받지 못한 PATCH (클라이언트 연결 끊김)
+            long contentLength = request.getContentLengthLong();
+            if (contentLength > 0 && bytes < contentLength) {
+                uploadChunkAdvisor.patchFailed(tenantHeader);
+            } else {
+                uploadChunkAdvisor.patchSucceeded(tenantHeader, bytes, elapsed);
+            }
+        }
     }
 
-    public void processUpload(HttpServletRequest request, HttpServletResponse response) {
+    private void handleUpload(HttpServletRequest request, HttpServletResponse response) {
         try {
             // POST 요청 시 (업로드 시작 단계)에서 파일 검증
-            if ("POST".equalsIgnoreCase(request.getMethod())) {
+            if ("POST".equalsIgnoreCase(effectiveMethod(request))) {
                 validateUploadRequest(request);
             }
 
             tusFileUploadService.process(request, response);
 
-            UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(request.getRequestURI());
+            String uploadUri = resolveUploadUri(request, response);
+            if (uploadUri == null) return;
+
+            UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(uploadUri);
             if (uploadInfo == null) return;
 
+            // 부분 업로드(Upload-Concat: partial)는 최종 업로드에서 한 번만 후처리한다.
+            if (uploadInfo.getUploadType() == UploadType.PARTIAL) return;
+
             // 🟢 업로드가 아직 진행 중이라면 (progress 중)
             if (uploadInfo.isUploadInProgress()) {
+                if (uploadInfo.getUploadType() == UploadType.CONCATENATED) {
+                    log.warn("Final upload created before all partial uploads finished. uploadUri={}", uploadUri);
+                }
                 log.debug("Upload in progress... offset={}", uploadInfo.getOffset());
                 return; // 아직 완료되지 않았으므로 저장 처리하지 않음
             }
 
-            // ✅ 업로드 완료 시점
+            // ✅ 업로드 완료 시점 (일반 업로드는 마지막 PATCH, 병렬 업로드는 최종 업로드 POST 에서 한 번만 후처리 등록)
+            if (!isCompletingRequest(request, uploadInfo)) return;
+
             String clientFileName = request.getHeader("X-Client-File-Name");
             if (clientFileName == null || clientFileName.isBlank()) {
                 clientFileName = uploadInfo.getFileName(); // fallback
@@ -72,16 +140,15 @@ public class FileUploadService {
                 serverFileName = request.getHeader("X-Server-File-Name");
             }
 
-            // ✅ 2️⃣ 파일 생성
-            File file = createFile(tusFileUploadService.getUploadedBytes(request.getRequestURI()), serverFileName);
+            // ✅ 2️⃣ 후처리 등록 (파일 배치, TUS 정리, DB 저장은 워커 스레드에서 수행)
+            // fsync: completion(기본)은 업로드를 끝내는 이 PATCH 에서, chunk 는 PATCH 마다 force 하므로 바이트는 이미 디스크에 있음
+            // (fsync: none 이면 OS 에 맡긴다)
+            UploadCompletionTask task = buildCompletionTask(request, uploadUri, uploadInfo, serverFileName, clientFileName);
+            uploadCompletionQueue.submit(task);
+            uploadMetrics.uploadCompleted(uploadUri);
+            response.setHeader("X-Upload-Status-Url", STATUS_URL_PREFIX + task.getUploadId());
 
-            // ✅ 3️⃣ 업로드 정보 삭제 (cleanup)
-            tusFileUploadService.deleteUpload(request.getRequestURI());
-
-            // ✅ 4️⃣ DB 저장
-            saveFileInfoToDatabase(request, file, serverFileName, clientFileName);
-
-            log.info("Upload completed: clientFile={}, serverFile={}", clientFileName, serverFileName);
+            log.info("Upload received: clientFile={}, serverFile={}", clientFileName, serverFileName);
 
         } catch (IOException | TusException e) {
             log.error("TUS upload exception occurred. message={}", e.getMessage(), e);
@@ -89,17 +156,51 @@ public class FileUploadService {
         }
     }
 
+    /**
+     * 업로드 완료 상태 조회 (알 수 없는 업로드면 null)
+     */
+    public UploadCompletionStatus getCompletionStatus(String uploadId) {
+        UploadCompletionStatus status = uploadCompletionQueue.getStatus(uploadId);
+        if (status != null) {
+            return status;
+        }
+        return uploadFileRepository.existsByUploadId(uploadId)
+                || uploadFileRepository.existsByUploadIdStartingWith(uploadId + UploadBatchExtractor.ENTRY_ID_SEPARATOR)
+                ? UploadCompletionStatus.COMPLETED : null;
+    }
+
+    /**
+     * PATCH 로 기록된 바이트 수 (응답 Upload-Offset - 요청 Upload-Offset)
+     */
+    private long patchedBytes(HttpServletRequest request, HttpServletResponse response) {
+        String requestOffset = request.getHeader("Upload-Offset");
+        String responseOffset = response.getHeader("Upload-Offset");
+        if (requestOffset == null || responseOffset == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(responseOffset) - Long.parseLong(requestOffset);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     /**
      * 업로드 요청 검증 (POST 시점에 호출)
      */
-    private void validateUploadRequest(HttpServletRequest request) {
+    private void validateUploadRequest(HttpServletRequest request) throws IOException, TusException {
         String clientFileName = request.getHeader("X-Client-File-Name");
         String uploadLength = request.getHeader("Upload-Length");
         String uploadMetadata = request.getHeader("Upload-Metadata");
+        String uploadConcat = request.getHeader("Upload-Concat");
+        boolean batch = isBatchRequest(uploadMetadata);
 
         // 파일명 검증
         if (clientFileName == null || clientFileName.isBlank()) {
             log.warn("X-Client-File-Name header is missing");
+        } else if (batch) {
+            // 묶음 업로드는 zip 자체만 보고, 항목은 후처리에서 하나씩 검증한다.
+            fileValidator.validateRestrictedExtension(clientFileName);
         } else {
             // 제한된 확장자 검증 (exe, bat 등)
             fileValidator.validateRestrictedExtension(clientFileName);
@@ -116,6 +217,8 @@ public class FileUploadService {
             } catch (NumberFormatException e) {
                 log.warn("Invalid Upload-Length header: {}", uploadLength);
             }
+        } else if (uploadConcat != null && uploadConcat.startsWith("final")) {
+            validateFinalUploadSize(uploadConcat);
         }
 
         // Content-Type 검증 (메타데이터에서 추출)
@@ -123,61 +226,137 @@ public class FileUploadService {
             String contentType = extractContentTypeFromMetadata(uploadMetadata);
             if (contentType != null) {
                 fileValidator.validateRestrictedContentType(contentType);
-                fileValidator.validateVoiceContentType(contentType);
+                if (!batch) {
+                    fileValidator.validateVoiceContentType(contentType);
+                }
             }
         }
 
         log.info("File validation passed for: {}", clientFileName);
     }
 
+    /**
+     * 묶음 업로드(Upload-Metadata batch=zip) 생성 요청인지 (기능이 꺼져 있으면 거절)
+     */
+    private boolean isBatchRequest(String uploadMetadata) {
+        String value;
+        try {
+            value = UploadMetadataHeader.value(uploadMetadata, UploadBatchExtractor.METADATA_KEY);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (value == null) {
+            return false;
+        }
+        if (!UploadBatchExtractor.isBatch(value) || !fileUploadProperties.getBatch().isEnabled()) {
+            throw new FileValidationException(FileValidationException.Reason.CONTENT_TYPE_NOT_ALLOWED,
+                    "지원하지 않는 묶음 업로드 형식입니다: " + value);
+        }
+        return true;
+    }
+
     /**
      * Upload-Metadata에서 Content-Type 추출
      * 형식: "filename dGVzdC5tcDQ=,filetype YXVkaW8vbXA0"
      */
     private String extractContentTypeFromMetadata(String metadata) {
         try {
-            String[] pairs = metadata.split(",");
-            for (String pair : pairs) {
-                String[] keyValue = pair.trim().split(" ", 2);
-                if (keyValue.length == 2 && "filetype".equalsIgnoreCase(keyValue[0])) {
-                    byte[] decoded = java.util.Base64.getDecoder().decode(keyValue[1]);
-                    return new String(decoded);
-                }
-            }
-        } catch (Exception e) {
+            return UploadMetadataHeader.value(metadata, "filetype");
+        } catch (IllegalArgumentException e) {
             log.warn("Failed to extract content type from metadata: {}", metadata);
         }
         return null;
     }
 
-    private void saveFileInfoToDatabase(HttpServletRequest request, File file, String serverFileName, String clientFileName) {
-        try {
-            // upload_file 저장
-            UploadFileSaveRequest uploadFile = UploadFileSaveRequest.builder()
-                    .path(file.getAbsolutePath())
-                    .url("/uploads/" + serverFileName)
-                    .fileName(serverFileName)
-                    .clientFileName(clientFileName)
-                    .fileSize((int) file.length())
-                    .build();
-
-            saveUploadFile(uploadFile);
-
-            // rec_file 저장
-            RecFileSaveRequest recFile = RecFileSaveRequest.builder()
-                    .tenantId(parseLongHeader(request, "X-Tenant-Id"))
-                    .recDate(request.getHeader("X-Rec-Date"))
-                    .recHtime(request.getHeader("X-Rec-Htime"))
-                    .recTime(request.getHeader("X-Rec-Time"))
-                    .extNo(request.getHeader("X-Ext-No"))
-                    .fileName(serverFileName)
-                    .build();
-
-            saveRecFile(recFile);
-
-        } catch (Exception e) {
-            log.error("Failed to save file info to database. error={}", e.getMessage(), e);
+    /**
+     * 요청 대상 업로드 URI (POST 는 새로 생성된 업로드의 Location)
+     */
+    private String resolveUploadUri(HttpServletRequest request, HttpServletResponse response) {
+        if ("POST".equalsIgnoreCase(effectiveMethod(request))) {
+            String location = response.getHeader("Location");
+            return location != null ? URI.create(location).getPath() : null;
         }
+        return request.getRequestURI();
+    }
+
+    private boolean isCompletingRequest(HttpServletRequest request, UploadInfo uploadInfo) {
+        if (uploadInfo.getUploadType() == UploadType.CONCATENATED) {
+            return "POST".equalsIgnoreCase(effectiveMethod(request));
+        }
+        return "PATCH".equalsIgnoreCase(effectiveMethod(request));
+    }
+
+    /**
+     * 실제 TUS 메서드 (PATCH 를 보낼 수 없는 클라이언트는 POST + X-HTTP-Method-Override 로 보낸다)
+     */
+    public static String effectiveMethod(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.getMethodIfSupported(request, EnumSet.allOf(HttpMethod.class));
+        return method != null ? method.name() : request.getMethod();
+    }
+
+    /**
+     * 최종 업로드(Upload-Concat: final;...)는 Upload-Length 가 없으므로 부분 업로드 합계로 크기 검증
+     */
+    private void validateFinalUploadSize(String uploadConcat) throws IOException, TusException {
+        int separator = uploadConcat.indexOf(';');
+        if (separator < 0) {
+            return;
+        }
+
+        long totalLength = 0;
+        for (String partialUrl : uploadConcat.substring(separator + 1).trim().split("\\s+")) {
+            if (partialUrl.isBlank()) {
+                continue;
+            }
+            UploadInfo partial = tusFileUploadService.getUploadInfo(URI.create(partialUrl).getPath());
+            if (partial != null && partial.getLength() != null) {
+                totalLength += partial.getLength();
+            }
+        }
+        fileValidator.validateFileSize(totalLength);
+    }
+
+    private UploadCompletionTask buildCompletionTask(HttpServletRequest request, String uploadUri, UploadInfo uploadInfo,
+                                                     String serverFileName, String clientFileName)
+            throws IOException, TusException {
+        Long tenantId = parseLongHeader(request, "X-Tenant-Id");
+        String recDate = request.getHeader("X-Rec-Date");
+        // 묶음 업로드는 항목마다 배치 위치를 정한다.
+        boolean batch = UploadBatchExtractor.isBatch(uploadInfo.getMetadata().get(UploadBatchExtractor.METADATA_KEY));
+        return UploadCompletionTask.builder()
+                .uploadId(uploadInfo.getId().toString())
+                .uploadUri(uploadUri)
+                .partialUploadIds(partialUploadIds(uploadInfo))
+                .serverFileName(serverFileName)
+                .targetPath(serverFileName != null && !batch
+                        ? uploadFilePlacement.place(tenantId, recDate, serverFileName, uploadInfo.getLength()).toString()
+                        : null)
+                .clientFileName(clientFileName)
+                .tenantId(tenantId)
+                .recDate(recDate)
+                .recHtime(request.getHeader("X-Rec-Htime"))
+                .recTime(request.getHeader("X-Rec-Time"))
+                .extNo(request.getHeader("X-Ext-No"))
+                .contentSha256(uploadInfo.getMetadata().get(DigestingUploadStorageService.DIGEST_METADATA_KEY))
+                .batch(batch)
+                .build();
+    }
+
+    /**
+     * 병렬 업로드의 부분 업로드 ID (concatenationPartIds 는 업로드 URL 이다)
+     */
+    private List<String> partialUploadIds(UploadInfo uploadInfo) throws IOException, TusException {
+        if (uploadInfo.getUploadType() != UploadType.CONCATENATED || uploadInfo.getConcatenationPartIds() == null) {
+            return null;
+        }
+        List<String> ids = new ArrayList<>();
+        for (String partUrl : uploadInfo.getConcatenationPartIds()) {
+            UploadInfo partial = tusFileUploadService.getUploadInfo(URI.create(partUrl).getPath());
+            if (partial != null) {
+                ids.add(partial.getId().toString());
+            }
+        }
+        return ids;
     }
 
     private Long parseLongHeader(HttpServletRequest request, String headerName) {
@@ -194,14 +373,4 @@ public class FileUploadService {
         }
     }
 
-    private File createFile(InputStream is, String filename) throws IOException {
-        // YAML 설정에서 경로 읽어오기
-        File dir = new File(fileUploadProperties.getPath());
-        if (!dir.exists()) dir.mkdirs();
-
-        File file = new File(dir, filename);
-        FileUtils.copyInputStreamToFile(is, file);
-        log.info("File created at: {}", file.getAbsolutePath());
-        return file;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.domain.dto.RecFileCursor;
+import com.furence.tus.demo.file.domain.dto.RecFileSearchCondition;
+import com.furence.tus.demo.file.domain.dto.RecFileSearchResult;
+import com.furence.tus.demo.file.domain.dto.RecFileSummary;
+import com.furence.tus.demo.file.repository.RecFileRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 녹취 파일 조회 (tenant / 녹취 일시 / 내선 번호, 최신순 keyset 페이지)
+ * 다음 페이지는 page 번호 대신 응답의 nextCursor 로 요청한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RecFileSearchService {
+
+    private static final int DEFAULT_SIZE = 50;
+    private static final int MAX_SIZE = 500;
+
+    private static final Pattern REC_DATE = Pattern.compile("\\d{8}");
+    private static final Pattern REC_HTIME = Pattern.compile("\\d{2}");
+
+    private final RecFileRepository recFileRepository;
+
+    public RecFileSearchResult search(RecFileSearchCondition condition) {
+        // ✅ 1️⃣ 조건 검증
+        validate(condition);
+        int size = condition.getSize() == null ? DEFAULT_SIZE : Math.min(Math.max(condition.getSize(), 1), MAX_SIZE);
+        RecFileCursor after = condition.getCursor() == null || condition.getCursor().isBlank()
+                ? null
+                : RecFileCursor.decode(condition.getCursor());
+
+        // ✅ 2️⃣ 한 건 더 읽어 다음 페이지 유무 판단
+        List<RecFileSummary> rows = recFileRepository.search(condition, after, size + 1);
+        if (rows.size() <= size) {
+            return RecFileSearchResult.builder().items(rows).build();
+        }
+
+        List<RecFileSummary> page = rows.subList(0, size);
+        return RecFileSearchResult.builder()
+                .items(page)
+                .nextCursor(RecFileCursor.of(page.get(size - 1)).encode())
+                .build();
+    }
+
+    private void validate(RecFileSearchCondition condition) {
+        if (condition.getTenantId() == null) {
+            throw new IllegalArgumentException("tenantId 는 필수입니다.");
+        }
+        check(condition.getRecDateFrom(), REC_DATE, "recDateFrom");
+        check(condition.getRecDateTo(), REC_DATE, "recDateTo");
+        check(condition.getRecHtimeFrom(), REC_HTIME, "recHtimeFrom");
+        check(condition.getRecHtimeTo(), REC_HTIME, "recHtimeTo");
+    }
+
+    private void check(String value, Pattern pattern, String name) {
+        if (value != null && !pattern.matcher(value).matches()) {
+            throw new IllegalArgumentException(name + " 형식이 올바르지 않습니다: " + value);
+        }
+    }
+}
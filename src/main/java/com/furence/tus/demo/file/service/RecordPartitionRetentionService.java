@@ -0,0 +1,183 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.RecordPartitionSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 보관 기간이 지난 월 파티션 삭제 (rs4_ser_recfile / upload_file)
+ * - 행을 DELETE 하지 않고 파티션 테이블을 통째로 drop 한다.
+ * - upload_file 파티션은 drop 전에 그 행들의 upload_blob 참조 수를 한 번에 줄이고,
+ *   더 이상 참조되지 않는 저장 파일 경로를 모아 두었다가 drop 이 커밋된 뒤에 지운다.
+ *   (삭제 중 실패해도 남는 것은 행 없는 파일뿐이며, 파일 없는 행은 생기지 않는다)
+ */
+@Slf4j
+@Service
+public class RecordPartitionRetentionService {
+
+    private static final String RELEASE_BLOBS = """
+            update upload_blob b set ref_count = b.ref_count - r.n
+            from (select content_sha256, path, count(*) as n from %s
+                  where content_sha256 is not null group by content_sha256, path) r
+            where b.content_sha256 = r.content_sha256 and b.path = r.path""";
+    private static final String DELETE_RELEASED_BLOBS = """
+            delete from upload_blob b where b.ref_count <= 0
+            and exists (select 1 from %s u where u.content_sha256 = b.content_sha256 and u.path = b.path)
+            returning b.path""";
+    // 삭제되는 행의 upload_id 는 다시 저장될 일이 없으므로 registry 에서도 뺀다.
+    private static final String RELEASE_UPLOAD_IDS = """
+            delete from upload_id_registry r using %s u where r.upload_id = u.upload_id""";
+    // upload_blob 으로 관리되지 않는 파일 (해시 없음, 또는 같은 내용이지만 따로 배치된 파일)
+    private static final String SELECT_UNSHARED_PATHS = """
+            select distinct u.path from %s u
+            where not exists (select 1 from upload_blob b where b.content_sha256 = u.content_sha256 and b.path = u.path)""";
+
+    private final RecordPartitionSchema recordPartitionSchema;
+    private final FileUploadProperties fileUploadProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecordPartitionRetentionService(RecordPartitionSchema recordPartitionSchema,
+                                           FileUploadProperties fileUploadProperties,
+                                           TransactionTemplate transactionTemplate,
+                                           JdbcTemplate jdbcTemplate) {
+        this.recordPartitionSchema = recordPartitionSchema;
+        this.fileUploadProperties = fileUploadProperties;
+        this.transactionTemplate = transactionTemplate;
+        // 한 달 치 파일 경로를 한 번에 메모리에 올리지 않도록 나눠 읽는다. (같은 DataSource 라 트랜잭션은 공유)
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(1000);
+    }
+
+    /**
+     * 이번 달 외에 retention-months 달보다 오래된 파티션 삭제
+     */
+    public Result dropExpired(LocalDate today) {
+        int retentionMonths = fileUploadProperties.getPartition().getRetentionMonths();
+        if (retentionMonths <= 0) {
+            return new Result(0, 0);
+        }
+
+        LocalDate cutoff = YearMonth.from(today).minusMonths(retentionMonths).atDay(1);
+        int dropped = 0;
+        long deletedFiles = 0;
+        for (RecordPartitionSchema.Table table : recordPartitionSchema.getActiveTables()) {
+            for (RecordPartitionSchema.Partition partition : recordPartitionSchema.partitions(table)) {
+                if (!partition.endsOnOrBefore(cutoff)) {
+                    continue;
+                }
+                Long files = drop(table, partition.name());
+                if (files != null) {
+                    dropped++;
+                    deletedFiles += files;
+                }
+            }
+        }
+        return new Result(dropped, deletedFiles);
+    }
+
+    /**
+     * @return 지운 파일 수, 다른 노드가 먼저 지웠으면 null
+     */
+    private Long drop(RecordPartitionSchema.Table table, String partition) {
+        long start = System.nanoTime();
+        Path released = null;
+        try {
+            // 지울 파일 경로는 한 달 치일 수 있으므로 메모리 대신 임시 파일에 모은다.
+            released = Files.createTempFile("partition-release-", ".paths");
+            Path paths = released;
+            Boolean droppedPartition = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute(RecordPartitionSchema.LOCK_PARTITIONS);
+                if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, partition))) {
+                    return false;
+                }
+                // 진행 중인 행 삭제(참조 해제)가 끝나길 기다리고 이후 변경을 막아 참조 수 계산이 어긋나지 않게 한다.
+                jdbcTemplate.execute("lock table " + partition + " in access exclusive mode");
+                if (table == RecordPartitionSchema.Table.UPLOAD_FILE) {
+                    releaseFiles(partition, paths);
+                    jdbcTemplate.update(RELEASE_UPLOAD_IDS.formatted(partition));
+                }
+                jdbcTemplate.execute("drop table " + partition);
+                return true;
+            });
+            if (!Boolean.TRUE.equals(droppedPartition)) {
+                return null;
+            }
+
+            // ✅ 커밋된 뒤에 파일 삭제 (실패한 파일은 남기고 계속)
+            long deletedFiles = deleteFiles(paths);
+            log.info("Dropped expired partition. table={}, partition={}, deletedFiles={}, took={}ms", table.getName(),
+                    partition, deletedFiles, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return deletedFiles;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spool released file paths. partition=" + partition, e);
+        } finally {
+            if (released != null) {
+                try {
+                    Files.deleteIfExists(released);
+                } catch (IOException e) {
+                    log.warn("Failed to delete released path spool. path={}", released, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 더 이상 참조되지 않는 파일 경로를 out 에 한 줄씩 기록 (트랜잭션 안에서 호출)
+     */
+    private void releaseFiles(String partition, Path out) {
+        try (BufferedWriter writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            RowCallbackHandler collect = rs -> {
+                try {
+                    writer.write(rs.getString(1));
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            // ✅ 1️⃣ 이 파티션 행들만 쓰던 파일
+            jdbcTemplate.query(SELECT_UNSHARED_PATHS.formatted(partition), collect);
+            // ✅ 2️⃣ 공유 파일은 참조 수를 줄이고, 0 이 된 것만 지운다. (upload_blob 행 잠금은 커밋까지 유지)
+            jdbcTemplate.update(RELEASE_BLOBS.formatted(partition));
+            jdbcTemplate.query(DELETE_RELEASED_BLOBS.formatted(partition), collect);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spool released file paths. partition=" + partition, e);
+        }
+    }
+
+    private long deleteFiles(Path paths) throws IOException {
+        long deleted = 0;
+        try (BufferedReader reader = Files.newBufferedReader(paths, StandardCharsets.UTF_8)) {
+            String path;
+            while ((path = reader.readLine()) != null) {
+                try {
+                    Files.deleteIfExists(Paths.get(path));
+                    deleted++;
+                } catch (IOException e) {
+                    log.warn("Failed to delete stored file of dropped partition. path={}, error={}", path, e.getMessage());
+                }
+            }
+        }
+        return deleted;
+    }
+
+    public record Result(int droppedPartitions, long deletedFiles) {
+    }
+}
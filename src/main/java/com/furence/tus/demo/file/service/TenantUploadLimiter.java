@@ -0,0 +1,280 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * tenant(X-Tenant-Id) 별 PATCH 동시 업로드 수 / 대역폭 제한
+ * - 동시 업로드 수는 CAS 카운터, 대역폭은 GCRA 방식 토큰 버킷(다음 허용 시각 하나를 CAS 로 갱신)으로 관리한다.
+ *   tenant 상태마다 원자 변수만 쓰므로 락이 없다.
+ * - 대역폭은 PATCH 본문을 읽는 스트림 안에서 적용한다. (읽은 만큼 예약하고 앞서간 만큼 대기)
+ * - 동시 업로드 한도를 넘거나 버킷 부채가 max-debt-ms 를 넘은 tenant 의 PATCH 는 시작하지 않고 429 로 거절한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantUploadLimiter {
+
+    private static final String TENANT_NONE = "none";
+    private static final String TENANT_OTHER = "other";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final FileUploadProperties fileUploadProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TenantState> tenants = new ConcurrentHashMap<>();
+
+    private Counter concurrencyRejections;
+    private Counter bandwidthRejections;
+    private Counter throttleDelay;
+
+    @PostConstruct
+    public void init() {
+        concurrencyRejections = Counter.builder("tus.throttle.rejected")
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+        bandwidthRejections = Counter.builder("tus.throttle.rejected")
+                .tag("reason", "bandwidth")
+                .register(meterRegistry);
+        throttleDelay = Counter.builder("tus.throttle.delay")
+                .description("Time PATCH streams spent waiting for bandwidth")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * PATCH 시작 허가 (반환된 Permit 은 요청이 끝나면 닫는다)
+     *
+     * @throws UploadThrottledException 동시 업로드 한도 초과 또는 대역폭 부채 초과
+     */
+    public Permit acquire(String tenantHeader) {
+        FileUploadProperties.Throttle throttle = fileUploadProperties.getThrottle();
+        TenantState state = state(tenantHeader, throttle);
+
+        long debtNanos = state.debtNanos(System.nanoTime());
+        if (debtNanos > TimeUnit.MILLISECONDS.toNanos(throttle.getMaxDebtMs())) {
+            bandwidthRejections.increment();
+            throw new UploadThrottledException("업로드 대역폭 한도를 초과했습니다.", retryAfterSeconds(debtNanos));
+        }
+        if (!state.tryAcquire()) {
+            concurrencyRejections.increment();
+            throw new UploadThrottledException("동시 업로드 한도를 초과했습니다.", throttle.getRetryAfterSeconds());
+        }
+        return new Permit(state);
+    }
+
+    private TenantState state(String tenantHeader, FileUploadProperties.Throttle throttle) {
+        String tenant = tenantHeader == null || tenantHeader.isBlank() ? TENANT_NONE : tenantHeader.trim();
+        TenantState state = tenants.get(tenant);
+        if (state != null) {
+            return state;
+        }
+        if (tenants.size() >= throttle.getMaxTenants()) {
+            tenant = TENANT_OTHER;
+        }
+        return tenants.computeIfAbsent(tenant, key -> new TenantState(
+                throttle.getTenantBytesPerSecond().getOrDefault(key, throttle.getBytesPerSecond()),
+                throttle.getBurstBytes(),
+                throttle.getTenantMaxConcurrentUploads().getOrDefault(key, throttle.getMaxConcurrentUploads())));
+    }
+
+    private static long retryAfterSeconds(long nanos) {
+        return Math.max(1, (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+
+    /**
+     * tenant 별 상태 (원자 변수만 사용)
+     */
+    private static final class TenantState {
+
+        // 0 이면 제한 없음
+        private final long bytesPerSecond;
+        private final long burstNanos;
+        private final int maxConcurrent;
+
+        private final AtomicInteger active = new AtomicInteger();
+        // 지금까지 예약된 바이트를 모두 보낸 것으로 보는 시각 (GCRA theoretical arrival time)
+        private final AtomicLong allowedAt = new AtomicLong();
+
+        TenantState(long bytesPerSecond, long burstBytes, int maxConcurrent) {
+            this.bytesPerSecond = bytesPerSecond;
+            this.burstNanos = bytesPerSecond > 0 ? burstBytes * NANOS_PER_SECOND / bytesPerSecond : 0;
+            this.maxConcurrent = maxConcurrent;
+            // 처음에는 burst 만큼 바로 보낼 수 있다.
+            this.allowedAt.set(System.nanoTime() - burstNanos);
+        }
+
+        boolean tryAcquire() {
+            if (maxConcurrent <= 0) {
+                active.incrementAndGet();
+                return true;
+            }
+            int current;
+            do {
+                current = active.get();
+                if (current >= maxConcurrent) {
+                    return false;
+                }
+            } while (!active.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void release() {
+            active.decrementAndGet();
+        }
+
+        /**
+         * bytes 만큼 예약하고 기다려야 하는 시간(ns)을 반환
+         */
+        long reserve(long bytes, long now) {
+            if (bytesPerSecond <= 0) {
+                return 0;
+            }
+            long cost = bytes * NANOS_PER_SECOND / bytesPerSecond;
+            long current;
+            long next;
+            do {
+                current = allowedAt.get();
+                next = Math.max(current, now - burstNanos) + cost;
+            } while (!allowedAt.compareAndSet(current, next));
+            return Math.max(0, next - now);
+        }
+
+        long debtNanos(long now) {
+            return bytesPerSecond > 0 ? Math.max(0, allowedAt.get() - now) : 0;
+        }
+
+        boolean isThrottled() {
+            return bytesPerSecond > 0;
+        }
+    }
+
+    /**
+     * PATCH 한 건의 허가 (본문 스트림에 대역폭 제한 적용)
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final TenantState state;
+        private boolean closed;
+
+        private Permit(TenantState state) {
+            this.state = state;
+        }
+
+        /**
+         * 본문을 읽을 때 대역폭 제한을 거는 요청 (제한이 없으면 그대로 반환)
+         */
+        public HttpServletRequest wrap(HttpServletRequest request) {
+            if (!state.isThrottled()) {
+                return request;
+            }
+            return new HttpServletRequestWrapper(request) {
+                private ServletInputStream inputStream;
+
+                @Override
+                public ServletInputStream getInputStream() throws IOException {
+                    if (inputStream == null) {
+                        inputStream = new ThrottledInputStream(super.getInputStream(), state);
+                    }
+                    return inputStream;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                state.release();
+            }
+        }
+    }
+
+    private final class ThrottledInputStream extends ServletInputStream {
+
+        private final ServletInputStream in;
+        private final TenantState state;
+
+        ThrottledInputStream(ServletInputStream in, TenantState state) {
+            this.in = in;
+            this.state = state;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                pace(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                pace(n);
+            }
+            return n;
+        }
+
+        private void pace(int bytes) throws InterruptedIOException {
+            long waitNanos = state.reserve(bytes, System.nanoTime());
+            if (waitNanos <= 0) {
+                return;
+            }
+            throttleDelay.increment((double) waitNanos / NANOS_PER_SECOND);
+            long deadline = System.nanoTime() + waitNanos;
+            long remaining = waitNanos;
+            while (remaining > 0) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while throttling upload");
+                }
+                remaining = deadline - System.nanoTime();
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return in.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            in.setReadListener(readListener);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.furence.tus.demo.file.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furence.tus.demo.file.domain.dto.RecFileSaveRequest;
+import com.furence.tus.demo.file.domain.dto.UploadBatchManifest;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.file.domain.dto.UploadFileSaveRequest;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.FileValidationException;
+import com.furence.tus.demo.global.config.FileValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.exception.TusException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 묶음 업로드(zip) 분리
+ * - 업로드 데이터를 ZipInputStream 으로 한 번 읽으며 항목마다 최종 위치에 바로 쓴다. (전체 임시 해제 없음)
+ * - 항목마다 FileValidator 로 파일명/Content-Type/크기/앞부분 형식을 검사하고, 거절된 항목은 건너뛴다.
+ * - 항목은 일반 업로드와 같이 중복 파일이면 기존 파일을 참조하고, 압축 대상이면 압축해 저장한다.
+ * - 항목 upload_id 는 {uploadId}.{순번} 이므로 재시도해도 같은 행으로 저장된다.
+ *   디스크 파일명도 {uploadId}.{순번}.{확장자} 로 정해, 이름이 같은 항목끼리 서로 덮어쓰지 않는다.
+ * - zip 이 깨졌거나 한도를 넘으면 이번에 쓴 파일을 지우고 되돌린다. (재시도하지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadBatchExtractor {
+
+    public static final String METADATA_KEY = "batch";
+    public static final String FORMAT_ZIP = "zip";
+    public static final String MANIFEST_NAME = "manifest.json";
+    public static final String ENTRY_ID_SEPARATOR = ".";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final TusFileUploadService tusFileUploadService;
+    private final FileValidator fileValidator;
+    private final UploadFilePlacement uploadFilePlacement;
+    private final UploadBlobService uploadBlobService;
+    private final UploadFileCompressor uploadFileCompressor;
+    private final UploadMetrics uploadMetrics;
+    private final FileUploadProperties fileUploadProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Upload-Metadata 의 batch 값이 묶음 업로드 형식인지
+     */
+    public static boolean isBatch(String metadataValue) {
+        return FORMAT_ZIP.equalsIgnoreCase(metadataValue);
+    }
+
+    /**
+     * 저장할 항목 (upload_file / rs4_ser_recfile 행)
+     */
+    public record Result(List<UploadFileSaveRequest> uploadFiles, List<RecFileSaveRequest> recFiles, int rejected) {
+    }
+
+    public Result extract(UploadCompletionTask task) throws IOException, TusException {
+        FileUploadProperties.Batch batch = fileUploadProperties.getBatch();
+        List<UploadFileSaveRequest> uploadFiles = new ArrayList<>();
+        List<RecFileSaveRequest> recFiles = new ArrayList<>();
+        // 이번 시도에서 새로 쓴 파일 (되돌릴 때 삭제)
+        List<Path> written = new ArrayList<>();
+        int rejected = 0;
+
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(
+                tusFileUploadService.getUploadedBytes(task.getUploadUri()), BUFFER_SIZE))) {
+            Map<String, UploadBatchManifest.Entry> manifest = null;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long extracted = 0;
+            int ordinal = 0;
+            boolean first = true;
+
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (MANIFEST_NAME.equals(entry.getName())) {
+                    if (!first) {
+                        throw rollBack(task, written, MANIFEST_NAME + " must be the first entry");
+                    }
+                    byte[] manifestBytes = readManifestBytes(task, zip, batch.getMaxManifestBytes());
+                    extracted += manifestBytes.length;
+                    if (extracted > batch.getMaxExtractedBytes()) {
+                        throw rollBack(task, written, "extracted size exceeds " + batch.getMaxExtractedBytes() + " bytes");
+                    }
+                    manifest = readManifest(task, manifestBytes);
+                    first = false;
+                    continue;
+                }
+                first = false;
+
+                if (ordinal >= batch.getMaxEntries()) {
+                    throw rollBack(task, written, "too many entries. max=" + batch.getMaxEntries());
+                }
+                String entryId = task.getUploadId() + ENTRY_ID_SEPARATOR + ordinal++;
+                UploadBatchManifest.Entry meta = manifest != null ? manifest.get(entry.getName()) : null;
+
+                Stored stored;
+                try {
+                    stored = store(task, entryId, entry, meta, zip, buffer, written);
+                } catch (FileValidationException e) {
+                    uploadMetrics.validationRejected(e.getReason());
+                    log.warn("Batch entry rejected. uploadId={}, entry={}, reason={}", task.getUploadId(), entry.getName(), e.getMessage());
+                    rejected++;
+                    continue;
+                }
+
+                extracted += stored.originalSize();
+                if (extracted > batch.getMaxExtractedBytes()) {
+                    throw rollBack(task, written, "extracted size exceeds " + batch.getMaxExtractedBytes() + " bytes");
+                }
+                uploadFiles.add(UploadFileSaveRequest.builder()
+                        .uploadId(entryId)
+                        .path(stored.file().getAbsolutePath())
+                        .url("/uploads/" + stored.serverFileName())
+                        .fileName(stored.serverFileName())
+                        .clientFileName(baseName(entry.getName()))
+                        .fileSize(stored.originalSize())
+                        .contentSha256(stored.contentSha256())
+                        .originalSize(stored.originalSize())
+                        .storedSize(stored.file().length())
+                        .contentEncoding(uploadFileCompressor.contentEncoding(stored.file()))
+                        .build());
+                recFiles.add(RecFileSaveRequest.builder()
+                        .tenantId(meta != null && meta.getTenantId() != null ? meta.getTenantId() : task.getTenantId())
+                        .recDate(valueOrDefault(meta != null ? meta.getRecDate() : null, task.getRecDate()))
+                        .recHtime(valueOrDefault(meta != null ? meta.getRecHtime() : null, task.getRecHtime()))
+                        .recTime(valueOrDefault(meta != null ? meta.getRecTime() : null, task.getRecTime()))
+                        .extNo(valueOrDefault(meta != null ? meta.getExtNo() : null, task.getExtNo()))
+                        .fileName(stored.serverFileName())
+                        .build());
+            }
+        } catch (ZipException | EOFException e) {
+            // 잘렸거나 zip 이 아닌 데이터 (다시 읽어도 같으므로 재시도하지 않음)
+            throw rollBack(task, written, "invalid zip archive: " + e);
+        } catch (IOException | RuntimeException e) {
+            // 재시도 때 배치 위치가 달라질 수 있으므로 이번 시도의 파일은 남기지 않는다.
+            deleteQuietly(written);
+            throw e;
+        }
+        return new Result(uploadFiles, recFiles, rejected);
+    }
+
+    /**
+     * manifest 바이트 (항목 스트림을 닫지 않도록 바이트로 읽는다, 한도를 넘으면 되돌림)
+     */
+    private byte[] readManifestBytes(UploadCompletionTask task, InputStream zip, int maxBytes) throws IOException {
+        byte[] bytes = zip.readNBytes(maxBytes);
+        if (zip.read() != -1) {
+            throw rollBack(task, List.of(), MANIFEST_NAME + " exceeds " + maxBytes + " bytes");
+        }
+        return bytes;
+    }
+
+    private Map<String, UploadBatchManifest.Entry> readManifest(UploadCompletionTask task, byte[] bytes) throws IOException {
+        UploadBatchManifest manifest;
+        try {
+            manifest = objectMapper.readValue(bytes, UploadBatchManifest.class);
+        } catch (JsonProcessingException e) {
+            throw rollBack(task, List.of(), "invalid " + MANIFEST_NAME + ": " + e.getOriginalMessage());
+        }
+        Map<String, UploadBatchManifest.Entry> entries = new HashMap<>();
+        for (UploadBatchManifest.Entry entry : manifest.getEntries()) {
+            if (entry.getName() != null) {
+                entries.put(entry.getName(), entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 항목 하나를 검증하며 최종 위치에 쓰기
+     *
+     * @throws FileValidationException 거절된 항목 (쓰던 파일은 지운다)
+     */
+    private Stored store(UploadCompletionTask task, String entryId, ZipEntry entry, UploadBatchManifest.Entry meta,
+                         InputStream zip, byte[] buffer, List<Path> written) throws IOException {
+        String clientFileName = baseName(entry.getName());
+        String manifestFileName = meta != null && meta.getServerFileName() != null ? baseName(meta.getServerFileName()) : null;
+        // 디스크 파일명은 항목 ID 로 정한다. (같은 이름의 항목/다른 묶음과 겹치지 않음)
+        String storedFileName = entryId + extension(valueOrDefault(manifestFileName, clientFileName));
+        String serverFileName = valueOrDefault(manifestFileName, storedFileName);
+        String contentType = meta != null ? meta.getContentType() : null;
+
+        // ✅ 1️⃣ 이름 / Content-Type / 선언된 크기 검증
+        fileValidator.validateRestrictedExtension(clientFileName);
+        fileValidator.validateVoiceFileExtension(clientFileName);
+        fileValidator.validateRestrictedExtension(serverFileName);
+        fileValidator.validateVoiceFileExtension(serverFileName);
+        fileValidator.validateRestrictedContentType(contentType);
+        if (contentType != null) {
+            fileValidator.validateVoiceContentType(contentType);
+        }
+        long declaredSize = entry.getSize();
+        if (declaredSize >= 0) {
+            fileValidator.validateFileSize(declaredSize);
+        }
+
+        // ✅ 2️⃣ 최종 위치에 쓰면서 앞부분 형식 / 실제 크기 검증, SHA-256 계산
+        Long tenantId = meta != null && meta.getTenantId() != null ? meta.getTenantId() : task.getTenantId();
+        String recDate = valueOrDefault(meta != null ? meta.getRecDate() : null, task.getRecDate());
+        Path target = uploadFilePlacement.place(tenantId, recDate, storedFileName, declaredSize >= 0 ? declaredSize : null);
+        Files.createDirectories(target.getParent());
+        // 같은 항목 ID 의 파일은 중단된 이전 시도에서 쓴 것뿐이다.
+        Files.deleteIfExists(target);
+
+        MessageDigest digest = sha256();
+        long size;
+        try {
+            size = copy(zip, target, buffer, digest);
+        } catch (IOException | RuntimeException e) {
+            // 거절된 항목 또는 항목 중간에서 잘린 zip (written 에 아직 없으므로 여기서 지운다)
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        String contentSha256 = HexFormat.of().formatHex(digest.digest());
+
+        // ✅ 3️⃣ 같은 내용의 기존 파일이 있으면 참조만 저장 (이전 시도에서 저장된 이 항목의 파일이면 그대로 사용)
+        Path existing = uploadBlobService.findReusable(contentSha256, size);
+        if (existing != null && !existing.equals(target)) {
+            Files.delete(target);
+            uploadMetrics.uploadDeduplicated(size);
+            return new Stored(existing.toFile(), serverFileName, size, contentSha256);
+        }
+
+        // ✅ 4️⃣ 압축 대상이면 압축본으로 교체
+        File stored = target.toFile();
+        if (uploadFileCompressor.isTarget(storedFileName)) {
+            stored = uploadFileCompressor.compress(stored);
+        }
+        written.add(stored.toPath());
+        return new Stored(stored, serverFileName, size, contentSha256);
+    }
+
+    private long copy(InputStream zip, Path target, byte[] buffer, MessageDigest digest) throws IOException {
+        int headBytes = fileUploadProperties.getContentSniffing().getHeadBytes();
+        boolean sniffing = fileUploadProperties.getContentSniffing().isEnabled();
+        byte[] head = new byte[headBytes];
+        int headLength = 0;
+        long size = 0;
+
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = zip.read(buffer)) > 0) {
+                if (sniffing && headLength < headBytes) {
+                    int n = Math.min(read, headBytes - headLength);
+                    System.arraycopy(buffer, 0, head, headLength, n);
+                    headLength += n;
+                    if (headLength == headBytes) {
+                        fileValidator.validateSniffedContent(head, headLength, false);
+                    }
+                }
+                size += read;
+                fileValidator.validateFileSize(size);
+
+                digest.update(buffer, 0, read);
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                while (data.hasRemaining()) {
+                    out.write(data);
+                }
+            }
+            if (sniffing && headLength < headBytes) {
+                fileValidator.validateSniffedContent(head, headLength, false);
+            }
+            out.force(false);
+        }
+        return size;
+    }
+
+    private UploadCompletionRolledBackException rollBack(UploadCompletionTask task, List<Path> written, String reason) {
+        deleteQuietly(written);
+        return new UploadCompletionRolledBackException("Batch upload rejected. uploadId=" + task.getUploadId() + ", " + reason);
+    }
+
+    private void deleteQuietly(List<Path> written) {
+        for (Path path : written) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete extracted batch entry. path={}", path, e);
+            }
+        }
+    }
+
+    /**
+     * 경로를 뺀 파일명 (zip 항목 이름이나 manifest 값의 디렉토리는 쓰지 않는다)
+     */
+    private static String baseName(String name) {
+        int separator = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\'));
+        return name.substring(separator + 1);
+    }
+
+    /**
+     * 확장자 (점 포함, 없으면 빈 문자열)
+     */
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(dot) : "";
+    }
+
+    private static String valueOrDefault(String value, String defaultValue) {
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Stored(File file, String serverFileName, long originalSize, String contentSha256) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.repository.UploadBlobRepository;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.entity.UploadBlob;
+import com.furence.tus.demo.global.entity.UploadFile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+
+/**
+ * 내용(SHA-256) 기준 파일 공유 및 참조 수 관리 (upload_blob)
+ * - 완료 시 같은 해시/크기의 파일이 있으면 새로 배치하지 않고 그 경로를 upload_file.path 로 쓴다.
+ * - 참조 수는 upload_file 행이 새로 저장될 때 같은 트랜잭션에서 늘리므로 재시도로 두 번 늘지 않는다.
+ * - 참조 수 변경은 upload_blob 행 잠금 아래에서 하고 마지막 참조면 행도 지우므로, 지워질 파일을 새로 참조하는 일이 없다.
+ * - 파일은 삭제 트랜잭션이 커밋된 뒤에 지운다. (롤백되면 행이 되살아나므로 파일도 남아 있어야 한다)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadBlobService {
+
+    private final UploadBlobRepository uploadBlobRepository;
+    private final FileUploadProperties fileUploadProperties;
+
+    /**
+     * 같은 내용의 기존 파일 경로 (없으면 null)
+     */
+    public Path findReusable(String contentSha256, Long length) {
+        if (!fileUploadProperties.getDedupe().isEnabled() || contentSha256 == null || length == null) {
+            return null;
+        }
+        UploadBlob blob = uploadBlobRepository.findById(contentSha256).orElse(null);
+        if (blob == null || blob.getFileSize() != length.longValue()) {
+            return null;
+        }
+        Path path = Paths.get(blob.getPath());
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * 새로 저장되는 upload_file 행의 참조 등록 (메타데이터 저장 트랜잭션 안에서 호출)
+     * 기존 파일을 참조하는데 그 사이 파일이 지워졌다면 예외로 저장을 실패시켜 일반 배치로 재시도하게 한다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void register(UploadFile uploadFile) {
+        if (uploadFile.getContentSha256() == null) {
+            return;
+        }
+
+        UploadBlob blob = uploadBlobRepository.findForUpdate(uploadFile.getContentSha256()).orElse(null);
+        if (blob != null) {
+            // 같은 내용이지만 따로 배치된 파일(기능 비활성 중 저장, 동시 완료 등)은 자기 파일만 소유한다.
+            if (blob.getPath().equals(uploadFile.getPath())) {
+                blob.addReference();
+            }
+            return;
+        }
+
+        long storedSize;
+        try {
+            storedSize = Files.size(Paths.get(uploadFile.getPath()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Referenced file no longer exists. path=" + uploadFile.getPath(), e);
+        }
+        // 크기는 업로드 원본 기준 (압축된 파일이면 저장 크기와 다르다)
+        uploadBlobRepository.save(UploadBlob.builder()
+                .contentSha256(uploadFile.getContentSha256())
+                .path(uploadFile.getPath())
+                .fileSize(uploadFile.getOriginalSize() != null ? uploadFile.getOriginalSize() : storedSize)
+                .refCount(1)
+                .build());
+    }
+
+    /**
+     * 삭제되는 upload_file 행의 참조 해제, 마지막 참조면 커밋 후 파일도 지운다. (삭제 트랜잭션 안에서 호출)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(UploadFile uploadFile) {
+        UploadBlob blob = uploadFile.getContentSha256() != null
+                ? uploadBlobRepository.findForUpdate(uploadFile.getContentSha256()).orElse(null)
+                : null;
+        if (blob != null && Objects.equals(blob.getPath(), uploadFile.getPath())) {
+            if (blob.removeReference() > 0) {
+                log.info("Released file reference. path={}, remaining={}", blob.getPath(), blob.getRefCount());
+                return;
+            }
+            uploadBlobRepository.delete(blob);
+        }
+        String path = uploadFile.getPath();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteFile(path);
+            }
+        });
+    }
+
+    private void deleteFile(String path) {
+        try {
+            Files.deleteIfExists(Paths.get(path));
+            log.info("Deleted stored file. path={}", path);
+        } catch (IOException e) {
+            // 참조 정보는 이미 커밋되었으므로 남은 파일은 참조 없는 파일로 남는다.
+            log.error("Failed to delete stored file. path={}", path, e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * tenant(X-Tenant-Id) 별 PATCH 크기(chunk) 권장값
+ * - PATCH 마다 처리량(기록한 바이트 / 요청 시간)과 실패 여부를 EWMA 로 모아, 한 PATCH 가 target-patch-ms 안에
+ *   끝나는 크기를 권장한다. 오류율이 높을수록 (실패 시 다시 보낼 양을 줄이도록) 더 작게 권장한다.
+ * - 권장값은 업로드 응답(OPTIONS / POST / HEAD / PATCH) 헤더로 알리며, 각 PATCH 응답에는 그 PATCH 의 측정이 이미 반영되어 있다.
+ * - 최대값은 알리기만 하고 강제하지 않는다. (권장값을 모르는 기존 클라이언트도 그대로 동작)
+ * - tenant 상태는 불변 측정값 하나를 CAS 로 바꾸므로 락이 없다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadChunkAdvisor {
+
+    public static final String RECOMMENDED_HEADER = "X-Upload-Chunk-Size";
+    public static final String MAX_HEADER = "X-Upload-Max-Chunk-Size";
+
+    private static final String TENANT_NONE = "none";
+    private static final String TENANT_OTHER = "other";
+    // 권장값 단위 (64KB)
+    private static final long ALIGNMENT = 64 * 1024;
+
+    private final FileUploadProperties fileUploadProperties;
+
+    private final Map<String, AtomicReference<Estimate>> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * 끝까지 받은 PATCH 측정 (bytes 가 min-sample-bytes 보다 작으면 처리량은 반영하지 않음)
+     */
+    public void patchSucceeded(String tenantHeader, long bytes, long nanos) {
+        FileUploadProperties.ChunkSize config = fileUploadProperties.getChunkSize();
+        if (!config.isEnabled()) {
+            return;
+        }
+        double bytesPerSecond = bytes >= config.getMinSampleBytes() && nanos > 0
+                ? bytes * (double) TimeUnit.SECONDS.toNanos(1) / nanos
+                : Double.NaN;
+        state(tenantHeader, config).updateAndGet(estimate -> estimate.next(bytesPerSecond, 0, config.getSmoothing()));
+    }
+
+    /**
+     * 끊기거나 서버 오류로 끝난 PATCH
+     */
+    public void patchFailed(String tenantHeader) {
+        FileUploadProperties.ChunkSize config = fileUploadProperties.getChunkSize();
+        if (!config.isEnabled()) {
+            return;
+        }
+        state(tenantHeader, config).updateAndGet(estimate -> estimate.next(Double.NaN, 1, config.getSmoothing()));
+    }
+
+    /**
+     * 현재 권장 PATCH 크기 (바이트)
+     */
+    public long recommended(String tenantHeader) {
+        FileUploadProperties.ChunkSize config = fileUploadProperties.getChunkSize();
+        AtomicReference<Estimate> state = tenants.get(tenantKey(tenantHeader));
+        if (state == null) {
+            state = tenants.get(TENANT_OTHER);
+        }
+        Estimate estimate = state != null ? state.get() : Estimate.EMPTY;
+
+        double size = Double.isNaN(estimate.bytesPerSecond())
+                ? config.getInitialBytes()
+                : estimate.bytesPerSecond() * config.getTargetPatchMs() / 1000.0;
+        // 실패한 PATCH 는 처음부터 다시 보내므로, 오류율이 높을수록 한 번에 잃는 양을 줄인다.
+        double success = 1 - estimate.errorRate();
+        size *= success * success;
+
+        long bounded = Math.max(config.getMinBytes(), Math.min(config.getMaxBytes(), (long) size));
+        return Math.max(config.getMinBytes(), bounded / ALIGNMENT * ALIGNMENT);
+    }
+
+    /**
+     * 권장 / 최대 PATCH 크기 헤더 기록 (응답이 이미 나갔으면 생략)
+     */
+    public void writeHeaders(String tenantHeader, HttpServletResponse response) {
+        FileUploadProperties.ChunkSize config = fileUploadProperties.getChunkSize();
+        if (!config.isEnabled() || response.isCommitted()) {
+            return;
+        }
+        response.setHeader(RECOMMENDED_HEADER, String.valueOf(recommended(tenantHeader)));
+        response.setHeader(MAX_HEADER, String.valueOf(config.getMaxBytes()));
+    }
+
+    private AtomicReference<Estimate> state(String tenantHeader, FileUploadProperties.ChunkSize config) {
+        String tenant = tenantKey(tenantHeader);
+        AtomicReference<Estimate> state = tenants.get(tenant);
+        if (state != null) {
+            return state;
+        }
+        if (tenants.size() >= config.getMaxTenants()) {
+            tenant = TENANT_OTHER;
+        }
+        return tenants.computeIfAbsent(tenant, key -> new AtomicReference<>(Estimate.EMPTY));
+    }
+
+    private static String tenantKey(String tenantHeader) {
+        return tenantHeader == null || tenantHeader.isBlank() ? TENANT_NONE : tenantHeader.trim();
+    }
+
+    /**
+     * 처리량(bytes/s, 측정 전이면 NaN)과 오류율(0~1) EWMA
+     */
+    private record Estimate(double bytesPerSecond, double errorRate) {
+
+        static final Estimate EMPTY = new Estimate(Double.NaN, 0);
+
+        Estimate next(double sampleBytesPerSecond, double sampleError, double weight) {
+            double throughput = bytesPerSecond;
+            if (!Double.isNaN(sampleBytesPerSecond)) {
+                throughput = Double.isNaN(throughput)
+                        ? sampleBytesPerSecond
+                        : throughput + weight * (sampleBytesPerSecond - throughput);
+            }
+            return new Estimate(throughput, errorRate + weight * (sampleError - errorRate));
+        }
+    }
+}
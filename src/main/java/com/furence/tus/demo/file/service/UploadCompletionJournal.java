@@ -0,0 +1,422 @@
+package com.furence.tus.demo.file.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.furence.tus.demo.file.domain.UploadCompletionStatus;
+import com.furence.tus.demo.file.domain.UploadCompletionStep;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.file.storage.JdbcUploadRetentionStore;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 업로드 완료 후처리 저널 (spool 디렉토리의 completion.journal, append-only)
+ * - 작업 등록(BEGIN), 끝난 단계(STEP), 종료(END)를 한 줄에 하나씩 JSON 으로 덧붙인다.
+ * - 재기동 시 END 가 없는 작업과 그 작업의 끝난 단계만 복원하므로, 복구 시간은 저장된 파일 수가 아니라
+ *   진행 중이던 작업 수에 비례한다. (디스크와 DB 를 맞춰 보는 전체 검사 없음)
+ * - 저널이 journal-compact-bytes 를 넘으면 진행 중인 작업만 남긴 새 파일로 바꾼다.
+ * - BEGIN/STEP 은 fsync 후 반환하고, END 는 잃어도 다시 처리하면 끝나므로 fsync 하지 않는다.
+ *   fsync 는 저널 락 밖에서 하며, 그동안 다른 스레드가 덧붙인 기록은 다음 fsync 한 번으로 함께 반영한다. (group commit)
+ * - 후처리 작업자가 가상 스레드에서 실행될 수 있으므로 파일 I/O 를 감싸는 락은 monitor 대신 ReentrantLock 을 쓴다.
+ * - 진행 중인 작업의 업로드(병렬 업로드면 부분 업로드 포함)는 만료 정리 대상에서 제외된다. (isRetained)
+ *   cluster 구성에서는 다른 노드의 만료 정리도 알 수 있도록 보존 목록을 DB(tus_upload_retention)에도 둔다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadCompletionJournal {
+
+    private static final String JOURNAL_FILE = "completion.journal";
+
+    private final FileUploadProperties fileUploadProperties;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${tus.server.data.directory}")
+    String tusStoragePath;
+
+    @Value("${tus.server.storage.type:disk}")
+    String storageType;
+
+    @Value("${tus.server.cluster.node-id:node}")
+    String clusterNodeId;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // 부분 업로드 ID → 진행 중인 최종 업로드 ID
+    private final Map<String, String> partialOwners = new ConcurrentHashMap<>();
+
+    @Getter
+    private Path directory;
+    private Path journalPath;
+    private ObjectWriter recordWriter;
+    private volatile FileChannel channel;
+    // cluster 구성의 공유 보존 목록 (그 외에는 null)
+    private JdbcUploadRetentionStore sharedRetention;
+
+    // 저널 기록과 메모리 상태 변경
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // 덧붙인 기록 수 / fsync 로 반영된 기록 수 (fsync 중인 스레드 하나가 그때까지 덧붙인 기록을 한 번에 반영)
+    private volatile long appendedRecords;
+    private volatile long forcedRecords;
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final Condition forceDone = forceLock.newCondition();
+    private boolean forcing;
+
+    @PostConstruct
+    public void open() throws IOException {
+        String spoolPath = fileUploadProperties.getCompletion().getSpoolPath();
+        directory = spoolPath != null ? Paths.get(spoolPath) : defaultDirectory();
+        Files.createDirectories(directory);
+        journalPath = directory.resolve(JOURNAL_FILE);
+        // 한 기록이 정확히 한 줄이 되도록 들여쓰기 없이 쓴다.
+        recordWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+        replay();
+        compact();
+
+        if (isClusterStorage()) {
+            sharedRetention = new JdbcUploadRetentionStore(jdbcTemplate, clusterNodeId);
+            List<String> retained = new ArrayList<>();
+            entries.values().forEach(entry -> retained.addAll(retentionKeys(entry.task())));
+            sharedRetention.reset(retained);
+        }
+    }
+
+    /**
+     * cluster 구성에서는 공유 디렉토리 아래 노드별 spool 을 써서 같은 작업을 여러 노드가 복구하지 않게 한다.
+     */
+    private Path defaultDirectory() {
+        Path completions = Paths.get(tusStoragePath, "completions");
+        return isClusterStorage() ? completions.resolve(clusterNodeId) : completions;
+    }
+
+    private boolean isClusterStorage() {
+        return "cluster".equalsIgnoreCase(storageType);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            awaitForce();
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } finally {
+                forceLock.unlock();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 작업 등록 (디스크에 반영된 뒤 반환)
+     */
+    public void begin(UploadCompletionTask task) throws IOException {
+        if (sharedRetention != null) {
+            // 저널보다 먼저 남긴다. (저널 기록 전에 중단되어 남은 행은 재기동 시 정리)
+            sharedRetention.retain(retentionKeys(task));
+        }
+        long record;
+        lock.lock();
+        try {
+            record = append(new JournalRecord(Op.BEGIN, task.getUploadId(), task, null, null));
+            put(task);
+        } finally {
+            lock.unlock();
+        }
+        force(record);
+    }
+
+    /**
+     * 끝난 단계 기록 (디스크에 반영된 뒤 반환), 등록되지 않았거나 이미 기록된 단계면 무시
+     */
+    public void record(String uploadId, UploadCompletionStep step) throws IOException {
+        long record;
+        lock.lock();
+        try {
+            Entry entry = entries.get(uploadId);
+            if (entry == null || entry.steps().contains(step)) {
+                return;
+            }
+            record = append(new JournalRecord(Op.STEP, uploadId, null, step, null));
+            entry.steps().add(step);
+        } finally {
+            lock.unlock();
+        }
+        force(record);
+    }
+
+    /**
+     * 작업 종료 (완료 또는 실패)
+     */
+    public void end(String uploadId, UploadCompletionStatus status) throws IOException {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = remove(uploadId);
+            if (entry == null) {
+                return;
+            }
+            append(new JournalRecord(Op.END, uploadId, null, null, status));
+            if (channel.size() > fileUploadProperties.getCompletion().getJournalCompactBytes()) {
+                compact();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (sharedRetention != null) {
+            try {
+                sharedRetention.release(retentionKeys(entry.task()));
+            } catch (DataAccessException e) {
+                // 지우지 못한 행은 재기동 시 정리된다.
+                log.warn("Failed to release upload retention. uploadId={}, error={}", uploadId, e.getMessage());
+            }
+        }
+    }
+
+    public boolean isDone(String uploadId, UploadCompletionStep step) {
+        Entry entry = entries.get(uploadId);
+        return entry != null && entry.steps().contains(step);
+    }
+
+    public boolean contains(String uploadId) {
+        return entries.containsKey(uploadId);
+    }
+
+    /**
+     * 후처리가 끝날 때까지 TUS 데이터를 남겨야 하는 업로드인지 (작업의 업로드 또는 그 부분 업로드)
+     */
+    public boolean isRetained(String uploadId) {
+        if (entries.containsKey(uploadId) || partialOwners.containsKey(uploadId)) {
+            return true;
+        }
+        return sharedRetention != null && sharedRetention.isRetained(uploadId);
+    }
+
+    /**
+     * 끝나지 않은 작업 (재기동 시 복구 대상)
+     */
+    public List<UploadCompletionTask> inFlight() {
+        return entries.values().stream().map(Entry::task).toList();
+    }
+
+    /**
+     * 기록 덧붙이기 (lock 을 잡고 호출, fsync 하지 않음)
+     *
+     * @return 기록 번호 (force 에 넘긴다)
+     */
+    private long append(JournalRecord record) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap(toLine(record));
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        return ++appendedRecords;
+    }
+
+    /**
+     * record 번호까지 디스크에 반영될 때까지 대기
+     * fsync 중인 스레드가 없으면 직접 그때까지 덧붙인 기록 전체를 fsync 하고, 있으면 끝나기를 기다렸다가 다시 확인한다.
+     * (기다리던 스레드의 기록은 대부분 다음 fsync 한 번으로 함께 반영된다)
+     */
+    private void force(long record) throws IOException {
+        if (forcedRecords >= record) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            while (forcedRecords < record) {
+                if (forcing) {
+                    forceDone.awaitUninterruptibly();
+                    continue;
+                }
+                forcing = true;
+                long target = appendedRecords;
+                FileChannel forced = channel;
+                boolean done = false;
+                forceLock.unlock();
+                try {
+                    forced.force(false);
+                    done = true;
+                } finally {
+                    forceLock.lock();
+                    forcing = false;
+                    if (done && forcedRecords < target) {
+                        forcedRecords = target;
+                    }
+                    forceDone.signalAll();
+                }
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * 진행 중인 fsync 가 끝날 때까지 기다린 뒤 forceLock 을 잡은 채 반환 (채널 교체/닫기 전)
+     */
+    private void awaitForce() {
+        forceLock.lock();
+        while (forcing) {
+            forceDone.awaitUninterruptibly();
+        }
+    }
+
+    private byte[] toLine(JournalRecord record) throws JsonProcessingException {
+        return (recordWriter.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void replay() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JournalRecord record;
+                try {
+                    record = objectMapper.readValue(line, JournalRecord.class);
+                } catch (JsonProcessingException e) {
+                    // 기록 도중 중단된 마지막 줄 (fsync 전이었으므로 반환되지 않은 기록)
+                    log.warn("Ignoring unreadable completion journal record. path={}, record={}", journalPath, records + 1);
+                    continue;
+                }
+                apply(record);
+                records++;
+            }
+        }
+        log.info("Replayed completion journal. records={}, inFlight={}, took={}ms",
+                records, entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void apply(JournalRecord record) {
+        switch (record.op()) {
+            case BEGIN -> put(record.task());
+            case STEP -> {
+                Entry entry = entries.get(record.uploadId());
+                if (entry != null) {
+                    entry.steps().add(record.step());
+                }
+            }
+            case END -> remove(record.uploadId());
+        }
+    }
+
+    private void put(UploadCompletionTask task) {
+        entries.put(task.getUploadId(), new Entry(task));
+        if (task.getPartialUploadIds() != null) {
+            task.getPartialUploadIds().forEach(partialId -> partialOwners.put(partialId, task.getUploadId()));
+        }
+    }
+
+    private static List<String> retentionKeys(UploadCompletionTask task) {
+        List<String> keys = new ArrayList<>();
+        keys.add(task.getUploadId());
+        if (task.getPartialUploadIds() != null) {
+            keys.addAll(task.getPartialUploadIds());
+        }
+        return keys;
+    }
+
+    private Entry remove(String uploadId) {
+        Entry entry = entries.remove(uploadId);
+        if (entry != null && entry.task().getPartialUploadIds() != null) {
+            entry.task().getPartialUploadIds().forEach(partialId -> partialOwners.remove(partialId, uploadId));
+        }
+        return entry;
+    }
+
+    /**
+     * 진행 중인 작업만 남긴 새 저널로 교체
+     */
+    private void compact() throws IOException {
+        lock.lock();
+        try {
+            awaitForce();
+            try {
+                compactLocked();
+            } finally {
+                forceLock.unlock();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void compactLocked() throws IOException {
+        Path temp = journalPath.resolveSibling(JOURNAL_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.write(ByteBuffer.wrap(toLine(new JournalRecord(Op.BEGIN, entry.getKey(), entry.getValue().task(), null, null))));
+                for (UploadCompletionStep step : entry.getValue().steps()) {
+                    out.write(ByteBuffer.wrap(toLine(new JournalRecord(Op.STEP, entry.getKey(), null, step, null))));
+                }
+            }
+            out.force(true);
+        }
+
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // 새 저널은 진행 중인 상태 전체를 fsync 했으므로 이전 기록은 모두 반영된 것으로 본다.
+        forcedRecords = appendedRecords;
+    }
+
+    private enum Op {
+        BEGIN, STEP, END
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private record JournalRecord(Op op, String uploadId, UploadCompletionTask task,
+                                 UploadCompletionStep step, UploadCompletionStatus status) {
+    }
+
+    private record Entry(UploadCompletionTask task, Set<UploadCompletionStep> steps) {
+
+        Entry(UploadCompletionTask task) {
+            this(task, ConcurrentHashMap.newKeySet());
+        }
+    }
+}
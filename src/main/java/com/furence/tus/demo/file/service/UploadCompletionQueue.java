@@ -0,0 +1,216 @@
+package com.furence.tus.demo.file.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furence.tus.demo.file.domain.UploadCompletionStatus;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.UploadThreadFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 완료 후처리 큐
+ * - 작업은 완료 저널에 먼저 기록되어 재기동 시 끝나지 않은 작업만 복구된다.
+ * - 큐가 가득 차면 요청 스레드에서 처리하지 않고, 저널에 남긴 채 retry-backoff-ms 뒤 다시 큐에 넣는다.
+ *   (PATCH 응답이 후처리 시간만큼 늦어지지 않게 한다, 거절 횟수는 upload.completion.rejected)
+ * - 실패 시 지수 백오프로 재시도하고, 한도를 넘으면 .failed 로 남긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadCompletionQueue {
+
+    private static final String FAILED_SUFFIX = ".failed";
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final UploadCompletionService uploadCompletionService;
+    private final UploadCompletionJournal uploadCompletionJournal;
+    private final FileUploadProperties fileUploadProperties;
+    private final ObjectMapper objectMapper;
+    private final UploadThreadFactory uploadThreadFactory;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Cache<String, UploadCompletionStatus> recentStatuses = CacheBuilder.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
+    private Path spoolDir;
+    private ThreadPoolExecutor workers;
+    private ScheduledExecutorService retryScheduler;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void start() {
+        FileUploadProperties.Completion completion = fileUploadProperties.getCompletion();
+        spoolDir = uploadCompletionJournal.getDirectory();
+
+        workers = new ThreadPoolExecutor(completion.getWorkers(), completion.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(completion.getQueueCapacity()),
+                uploadThreadFactory.create("upload-completion-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(uploadThreadFactory.create("upload-completion-retry-"));
+        rejectedCounter = Counter.builder("upload.completion.rejected")
+                .description("Upload completions deferred because the completion queue was full")
+                .register(meterRegistry);
+
+        recover();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // 남은 작업은 저널에 있으므로 다음 기동 시 복구된다.
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Upload completion workers did not terminate in time. pending={}", workers.getQueue().size());
+        }
+    }
+
+    /**
+     * 완료 작업 등록 (이미 처리 중인 업로드면 false)
+     */
+    public boolean submit(UploadCompletionTask task) throws IOException {
+        String uploadId = task.getUploadId();
+        if (!inFlight.add(uploadId)) {
+            log.debug("Upload completion already in flight. uploadId={}", uploadId);
+            return false;
+        }
+
+        try {
+            uploadCompletionJournal.begin(task);
+        } catch (IOException e) {
+            inFlight.remove(uploadId);
+            throw e;
+        }
+
+        recentStatuses.put(uploadId, UploadCompletionStatus.PENDING);
+        dispatch(task);
+        return true;
+    }
+
+    /**
+     * 큐 기준 상태 조회 (알 수 없으면 null → DB 확인 필요)
+     */
+    public UploadCompletionStatus getStatus(String uploadId) {
+        if (uploadId == null || !UPLOAD_ID_PATTERN.matcher(uploadId).matches()) {
+            return null;
+        }
+        if (inFlight.contains(uploadId)) {
+            return UploadCompletionStatus.PENDING;
+        }
+
+        UploadCompletionStatus status = recentStatuses.getIfPresent(uploadId);
+        if (status != null) {
+            return status;
+        }
+        if (Files.exists(spoolDir.resolve(uploadId + FAILED_SUFFIX))) {
+            return UploadCompletionStatus.FAILED;
+        }
+        if (uploadCompletionJournal.contains(uploadId)) {
+            return UploadCompletionStatus.PENDING;
+        }
+        return null;
+    }
+
+    private void dispatch(UploadCompletionTask task) {
+        try {
+            workers.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            if (workers.isShutdown()) {
+                log.warn("Upload completion rejected, will be recovered on restart. uploadId={}", task.getUploadId());
+                inFlight.remove(task.getUploadId());
+                return;
+            }
+            // 큐가 가득 참, 저널에 남아 있으므로 잠시 뒤 다시 넣는다.
+            rejectedCounter.increment();
+            log.debug("Upload completion queue full, deferring. uploadId={}", task.getUploadId());
+            schedule(task, fileUploadProperties.getCompletion().getRetryBackoffMs());
+        }
+    }
+
+    private void schedule(UploadCompletionTask task, long delayMs) {
+        try {
+            retryScheduler.schedule(() -> dispatch(task), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 종료 중, 다음 기동 시 저널에서 복구된다.
+            inFlight.remove(task.getUploadId());
+        }
+    }
+
+    private void run(UploadCompletionTask task) {
+        String uploadId = task.getUploadId();
+        task.setAttempts(task.getAttempts() + 1);
+
+        try {
+            uploadCompletionService.complete(task);
+            uploadCompletionJournal.end(uploadId, UploadCompletionStatus.COMPLETED);
+            recentStatuses.put(uploadId, UploadCompletionStatus.COMPLETED);
+            inFlight.remove(uploadId);
+        } catch (UploadCompletionRolledBackException e) {
+            log.error("Upload completion rolled back. uploadId={}, reason={}", uploadId, e.getMessage());
+            markFailed(task);
+        } catch (Exception e) {
+            FileUploadProperties.Completion completion = fileUploadProperties.getCompletion();
+            if (task.getAttempts() >= completion.getMaxAttempts()) {
+                log.error("Upload completion failed. uploadId={}, attempts={}", uploadId, task.getAttempts(), e);
+                markFailed(task);
+                return;
+            }
+
+            long delay = completion.getRetryBackoffMs() * (1L << (task.getAttempts() - 1));
+            log.warn("Upload completion failed, retrying in {} ms. uploadId={}, attempts={}, error={}",
+                    delay, uploadId, task.getAttempts(), e.getMessage());
+            schedule(task, delay);
+        }
+    }
+
+    private void markFailed(UploadCompletionTask task) {
+        String uploadId = task.getUploadId();
+        try {
+            // 운영자가 확인/재처리할 수 있도록 작업 내용을 남긴다.
+            Files.write(spoolDir.resolve(uploadId + FAILED_SUFFIX), objectMapper.writeValueAsBytes(task));
+            uploadCompletionJournal.end(uploadId, UploadCompletionStatus.FAILED);
+        } catch (IOException e) {
+            log.error("Failed to mark upload completion as failed. uploadId={}", uploadId, e);
+        }
+        recentStatuses.put(uploadId, UploadCompletionStatus.FAILED);
+        inFlight.remove(uploadId);
+    }
+
+    private void recover() {
+        int recovered = 0;
+        for (UploadCompletionTask task : uploadCompletionJournal.inFlight()) {
+            if (inFlight.add(task.getUploadId())) {
+                recentStatuses.put(task.getUploadId(), UploadCompletionStatus.PENDING);
+                dispatch(task);
+                recovered++;
+            }
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} pending upload completions", recovered);
+        }
+    }
+}
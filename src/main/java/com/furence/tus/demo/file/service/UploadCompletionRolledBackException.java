@@ -0,0 +1,12 @@
+package com.furence.tus.demo.file.service;
+
+/**
+ * 완료할 수 없는 후처리 작업 (업로드 데이터도 배치된 파일도 없음)
+ * 남은 중간 파일을 지운 뒤 던지며, 재시도하지 않고 실패로 기록한다.
+ */
+public class UploadCompletionRolledBackException extends RuntimeException {
+
+    public UploadCompletionRolledBackException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,332 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.domain.UploadCompletionStep;
+import com.furence.tus.demo.file.domain.dto.RecFileSaveRequest;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.file.domain.dto.UploadFileSaveRequest;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.FileValidationException;
+import com.furence.tus.demo.global.config.FileValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.UploadType;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 업로드 완료 후처리 (UploadCompletionQueue 워커 스레드에서 호출)
+ * 끝난 단계는 완료 저널에 기록하고, 재시도/재기동 시 upload ID 기준으로 이미 끝난 단계는 건너뛴다.
+ * 업로드 데이터도 배치된 파일도 남지 않은 작업은 중간 파일을 지우고 되돌린다. (재시도하지 않음)
+ * 같은 내용의 파일이 이미 있으면 배치 없이 참조만 저장하고, 참조가 커밋된 뒤에 TUS 데이터를 정리한다.
+ * 압축 대상(wav 등)은 배치 후 블록 단위 병렬 gzip 으로 압축해 저장한다.
+ * 묶음 업로드(zip)는 항목별로 풀어 저장한다.
+ * 병렬 업로드는 부분 업로드 단계에서 형식을 검사하지 않으므로 배치 전에 합쳐진 앞부분을 검사한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadCompletionService {
+
+    private final TusFileUploadService tusFileUploadService;
+    private final UploadStorageService uploadStorageService;
+    private final UploadFileFinalizer uploadFileFinalizer;
+    private final UploadMetadataBatcher uploadMetadataBatcher;
+    private final FileUploadProperties fileUploadProperties;
+    private final UploadMetrics uploadMetrics;
+    private final UploadBlobService uploadBlobService;
+    private final UploadFileCompressor uploadFileCompressor;
+    private final UploadCompletionJournal uploadCompletionJournal;
+    private final UploadBatchExtractor uploadBatchExtractor;
+    private final FileValidator fileValidator;
+
+    public void complete(UploadCompletionTask task) throws IOException, TusException {
+        String uploadId = task.getUploadId();
+
+        // DB 저장까지 끝난 작업은 남은 TUS 정리만 한다.
+        if (uploadCompletionJournal.isDone(uploadId, UploadCompletionStep.SAVED)) {
+            if (!uploadCompletionJournal.isDone(uploadId, UploadCompletionStep.CLEANED_UP)) {
+                UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(task.getUploadUri());
+                if (uploadInfo != null) {
+                    deleteUploadData(task, uploadInfo);
+                }
+                uploadCompletionJournal.record(uploadId, UploadCompletionStep.CLEANED_UP);
+            }
+            log.info("Upload already completed. uploadId={}", uploadId);
+            return;
+        }
+
+        if (task.isBatch()) {
+            completeBatch(task);
+            return;
+        }
+
+        File file = task.getTargetPath() != null
+                ? new File(task.getTargetPath())
+                : new File(fileUploadProperties.getPath(), task.getServerFileName());
+        UploadInfo uploadInfo = uploadCompletionJournal.isDone(uploadId, UploadCompletionStep.CLEANED_UP)
+                ? null
+                : tusFileUploadService.getUploadInfo(task.getUploadUri());
+        boolean placed = uploadCompletionJournal.isDone(uploadId, UploadCompletionStep.PLACED);
+        if (uploadInfo != null && !placed) {
+            inspectConcatenatedHead(task, uploadInfo);
+        }
+        // 이전 시도에서 이미 배치한 파일이 있으면 그대로 이어서 처리
+        Path existing = uploadInfo != null && !placed && !file.exists()
+                ? uploadBlobService.findReusable(task.getContentSha256(), uploadInfo.getLength())
+                : null;
+        if (existing != null) {
+            // ✅ 중복 파일: 기존 파일 참조를 먼저 저장하고 TUS 데이터 정리 (배치 I/O 없음)
+            // 그 사이 기존 파일이 지워지면 저장이 실패하고, 재시도 때 일반 배치로 처리된다.
+            long start = System.nanoTime();
+            saveFileInfoToDatabase(task, existing.toFile(), uploadInfo.getLength());
+            uploadCompletionJournal.record(uploadId, UploadCompletionStep.SAVED);
+            uploadMetrics.recordCompletionPhase("db", System.nanoTime() - start);
+            uploadMetrics.uploadDeduplicated(uploadInfo.getLength());
+
+            start = System.nanoTime();
+            deleteUploadData(task, uploadInfo);
+            uploadCompletionJournal.record(uploadId, UploadCompletionStep.CLEANED_UP);
+            uploadMetrics.recordCompletionPhase("cleanup", System.nanoTime() - start);
+
+            log.info("Upload completed as reference: clientFile={}, serverFile={}, path={}",
+                    task.getClientFileName(), task.getServerFileName(), existing);
+            return;
+        }
+
+        File stored = file;
+        if (uploadInfo != null) {
+            if (!placed && isMovedBeforeCrash(uploadInfo, file)) {
+                uploadCompletionJournal.record(uploadId, UploadCompletionStep.PLACED);
+                placed = true;
+            }
+            if (!placed) {
+                // ✅ 1️⃣ 파일 생성 (하드 링크/이동, 불가 시 채널 복사), 중단된 이전 시도의 파일은 새로 만든다.
+                long start = System.nanoTime();
+                UploadFileFinalizer.Strategy strategy = uploadFileFinalizer.finalizeUpload(task.getUploadUri(), uploadInfo, file);
+                uploadCompletionJournal.record(uploadId, UploadCompletionStep.PLACED);
+                uploadMetrics.recordCompletionPhase("place", System.nanoTime() - start);
+                log.info("File created at: {} (strategy={})", file.getAbsolutePath(), strategy);
+            }
+
+            // ✅ 2️⃣ 업로드 정보 삭제 (cleanup), 병렬 업로드면 부분 업로드도 함께 삭제
+            long start = System.nanoTime();
+            deleteUploadData(task, uploadInfo);
+            uploadCompletionJournal.record(uploadId, UploadCompletionStep.CLEANED_UP);
+            uploadMetrics.recordCompletionPhase("cleanup", System.nanoTime() - start);
+        } else if (!file.exists()) {
+            // 압축까지 끝난 뒤 DB 저장에 실패한 작업의 재시도
+            stored = uploadFileCompressor.compressedFile(file);
+            if (!stored.exists()) {
+                rollBack(task, file);
+            }
+        }
+
+        long originalSize;
+        if (stored == file) {
+            originalSize = file.length();
+
+            // PATCH 중 계산하지 못한 경우 (병렬 업로드, 기능 비활성 등) 배치된 파일로 계산
+            if (task.getContentSha256() == null) {
+                long start = System.nanoTime();
+                try (InputStream is = Files.newInputStream(file.toPath())) {
+                    MessageDigest digest = sha256();
+                    update(digest, is);
+                    task.setContentSha256(HexFormat.of().formatHex(digest.digest()));
+                }
+                uploadMetrics.recordCompletionPhase("digest", System.nanoTime() - start);
+            }
+
+            // ✅ 3️⃣ 압축 (대상 확장자, 충분히 줄어드는 경우에만 {파일}.gz 로 교체)
+            // 이전 시도에서 효과가 없어 원본을 유지하기로 한 파일은 다시 압축하지 않는다.
+            if (uploadFileCompressor.isTarget(task.getServerFileName())
+                    && !uploadCompletionJournal.isDone(uploadId, UploadCompletionStep.COMPRESSED)) {
+                long start = System.nanoTime();
+                stored = uploadFileCompressor.compress(file);
+                uploadCompletionJournal.record(uploadId, UploadCompletionStep.COMPRESSED);
+                uploadMetrics.recordCompletionPhase("compress", System.nanoTime() - start);
+            }
+        } else {
+            // 압축본을 풀어 원본 크기/해시 복원
+            long start = System.nanoTime();
+            try (InputStream is = uploadFileCompressor.openDecompressed(stored.toPath())) {
+                MessageDigest digest = sha256();
+                originalSize = update(digest, is);
+                if (task.getContentSha256() == null) {
+                    task.setContentSha256(HexFormat.of().formatHex(digest.digest()));
+                }
+            }
+            uploadMetrics.recordCompletionPhase("digest", System.nanoTime() - start);
+        }
+
+        // ✅ 4️⃣ DB 저장
+        long start = System.nanoTime();
+        saveFileInfoToDatabase(task, stored, originalSize);
+        uploadCompletionJournal.record(uploadId, UploadCompletionStep.SAVED);
+        uploadMetrics.recordCompletionPhase("db", System.nanoTime() - start);
+
+        log.info("Upload completed: clientFile={}, serverFile={}", task.getClientFileName(), task.getServerFileName());
+    }
+
+    /**
+     * 묶음 업로드(zip) 후처리: 항목마다 풀어 배치하고, 모든 항목 메타데이터를 한 트랜잭션으로 저장
+     * DB 저장 전에 중단되면 처음부터 다시 푼다. (항목 upload_id 가 같으므로 중복 저장되지 않음)
+     */
+    private void completeBatch(UploadCompletionTask task) throws IOException, TusException {
+        UploadInfo uploadInfo = tusFileUploadService.getUploadInfo(task.getUploadUri());
+        if (uploadInfo == null) {
+            throw new UploadCompletionRolledBackException("Upload data not found. uploadId=" + task.getUploadId());
+        }
+        inspectConcatenatedHead(task, uploadInfo);
+
+        // ✅ 1️⃣ 항목 분리 (검증, 배치, 중복/압축 처리)
+        long start = System.nanoTime();
+        UploadBatchExtractor.Result result = uploadBatchExtractor.extract(task);
+        uploadMetrics.recordCompletionPhase("extract", System.nanoTime() - start);
+
+        // ✅ 2️⃣ DB 저장 (한 트랜잭션)
+        start = System.nanoTime();
+        uploadMetadataBatcher.saveAll(result.uploadFiles(), result.recFiles());
+        uploadCompletionJournal.record(task.getUploadId(), UploadCompletionStep.SAVED);
+        uploadMetrics.recordCompletionPhase("db", System.nanoTime() - start);
+
+        // ✅ 3️⃣ zip 업로드 데이터 삭제
+        start = System.nanoTime();
+        deleteUploadData(task, uploadInfo);
+        uploadCompletionJournal.record(task.getUploadId(), UploadCompletionStep.CLEANED_UP);
+        uploadMetrics.recordCompletionPhase("cleanup", System.nanoTime() - start);
+
+        log.info("Batch upload completed: archive={}, stored={}, rejected={}",
+                task.getClientFileName(), result.uploadFiles().size(), result.rejected());
+    }
+
+    /**
+     * 이동(MOVE) 직후 저널 기록 전에 중단된 경우 (TUS data 는 이미 최종 위치에 있다)
+     * 다시 배치하면 target 을 지운 뒤 옮길 data 가 없으므로 배치된 것으로 본다.
+     */
+    private boolean isMovedBeforeCrash(UploadInfo uploadInfo, File file) throws IOException {
+        return fileUploadProperties.getFinalizeStrategy() == UploadFileFinalizer.Strategy.MOVE
+                && uploadInfo.getUploadType() != UploadType.CONCATENATED
+                && file.isFile()
+                && Objects.equals(file.length(), uploadInfo.getLength())
+                && uploadFileFinalizer.resolveDataPath(uploadInfo) == null;
+    }
+
+    /**
+     * 병렬 업로드의 합쳐진 앞부분 형식 검사 (거절 시 업로드 데이터를 지우고 되돌림)
+     * 중복 파일 참조나 묶음 업로드 분리보다 먼저 수행한다. (묶음 업로드는 첫 PATCH 와 같이 실행 파일 여부만 본다)
+     */
+    private void inspectConcatenatedHead(UploadCompletionTask task, UploadInfo uploadInfo) throws IOException, TusException {
+        FileUploadProperties.ContentSniffing contentSniffing = fileUploadProperties.getContentSniffing();
+        if (!contentSniffing.isEnabled() || uploadInfo.getUploadType() != UploadType.CONCATENATED) {
+            return;
+        }
+        byte[] head;
+        try (InputStream is = tusFileUploadService.getUploadedBytes(task.getUploadUri())) {
+            head = is.readNBytes(contentSniffing.getHeadBytes());
+        }
+        try {
+            fileValidator.validateSniffedContent(head, head.length, task.isBatch());
+        } catch (FileValidationException e) {
+            uploadMetrics.validationRejected(e.getReason());
+            deleteUploadData(task, uploadInfo);
+            throw new UploadCompletionRolledBackException("Upload content rejected. uploadId=" + task.getUploadId()
+                    + ", reason=" + e.getMessage());
+        }
+    }
+
+    /**
+     * 완료할 수 없는 작업 되돌리기 (업로드 데이터, 배치된 파일, 압축본, DB 행 모두 없음)
+     */
+    private void rollBack(UploadCompletionTask task, File file) throws IOException {
+        Files.deleteIfExists(uploadFileCompressor.temporaryFile(file).toPath());
+        throw new UploadCompletionRolledBackException("Upload data not found. uploadId=" + task.getUploadId());
+    }
+
+    private void deleteUploadData(UploadCompletionTask task, UploadInfo uploadInfo) throws IOException, TusException {
+        List<UploadInfo> partials = uploadInfo.getUploadType() == UploadType.CONCATENATED
+                ? uploadStorageService.getUploadConcatenationService().getPartialUploads(uploadInfo)
+                : List.of();
+        tusFileUploadService.deleteUpload(task.getUploadUri());
+        for (UploadInfo partial : partials) {
+            if (partial != null) {
+                uploadStorageService.terminateUpload(partial);
+            }
+        }
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 스트림 전체를 digest 에 반영하고 읽은 바이트 수를 반환
+     */
+    private long update(MessageDigest digest, InputStream is) throws IOException {
+        byte[] buffer = new byte[256 * 1024];
+        long total = 0;
+        int read;
+        while ((read = is.read(buffer)) > 0) {
+            digest.update(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    private void saveFileInfoToDatabase(UploadCompletionTask task, File file, long originalSize) throws IOException {
+        // upload_file 저장
+        UploadFileSaveRequest uploadFile = UploadFileSaveRequest.builder()
+                .uploadId(task.getUploadId())
+                .path(file.getAbsolutePath())
+                .url("/uploads/" + task.getServerFileName())
+                .fileName(task.getServerFileName())
+                .clientFileName(task.getClientFileName())
+                .fileSize(originalSize)
+                .contentSha256(task.getContentSha256())
+                .originalSize(originalSize)
+                .storedSize(file.length())
+                .contentEncoding(uploadFileCompressor.contentEncoding(file))
+                .build();
+
+        // rec_file 저장
+        RecFileSaveRequest recFile = RecFileSaveRequest.builder()
+                .tenantId(task.getTenantId())
+                .recDate(task.getRecDate())
+                .recHtime(task.getRecHtime())
+                .recTime(task.getRecTime())
+                .extNo(task.getExtNo())
+                .fileName(task.getServerFileName())
+                .build();
+
+        // 일괄 저장기에 넘기고 커밋될 때까지 대기 (이미 저장된 upload_id 는 건너뜀)
+        try {
+            uploadMetadataBatcher.enqueue(uploadFile, recFile)
+                    .get(uploadMetadataBatcher.getFlushTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while saving file info. uploadId=" + task.getUploadId(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("Failed to save file info. uploadId=" + task.getUploadId(), e);
+        }
+    }
+}
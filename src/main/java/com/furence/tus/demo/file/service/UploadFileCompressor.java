@@ -0,0 +1,307 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 완료 파일 무손실 압축 (gzip, 블록 단위 병렬)
+ * - 파일을 block-size 단위로 나눠 각 블록을 독립된 gzip member 로 압축하고 순서대로 이어 붙인다.
+ *   (여러 member 를 이은 파일도 하나의 gzip 파일이므로 GZIPInputStream, gzip -d 로 그대로 풀린다.)
+ * - 블록 읽기/압축은 코어 수만큼의 전용 풀에서 병렬로 하고, 파일당 동시에 처리 중인 블록 수를 제한해 메모리를 묶어둔다.
+ * - 업로드 완료 후처리 워커에서만 호출되므로 PATCH 요청 스레드를 막지 않는다.
+ * - 줄어드는 양이 min-savings-percent 미만이면 원본을 그대로 둔다.
+ * - member 헤더의 extra 필드(MS)에 member 전체 크기를 기록해, Range 재생 시 앞 member 를 풀지 않고
+ *   member 헤더/trailer(ISIZE)만 읽어 시작 위치가 들어 있는 member 로 바로 이동한다. (gzip -d 는 extra 필드를 무시)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadFileCompressor {
+
+    public static final String CONTENT_ENCODING_GZIP = "gzip";
+    private static final String GZIP_SUFFIX = ".gz";
+
+    // gzip member 헤더 (deflate, FEXTRA, 시각 없음, OS unknown) + extra 필드 XLEN=8, 'M' 'S' SLEN=4, member 크기(uint32)
+    private static final int FEXTRA = 0x04;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, FEXTRA, 0, 0, 0, 0, 0, (byte) 0xff,
+            8, 0, 'M', 'S', 4, 0, 0, 0, 0, 0};
+    private static final int MEMBER_SIZE_OFFSET = 16;
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private final FileUploadProperties fileUploadProperties;
+
+    private Set<String> extensions;
+    private ExecutorService pool;
+    private ThreadLocal<Deflater> deflaters;
+
+    @PostConstruct
+    public void start() {
+        FileUploadProperties.Compression compression = fileUploadProperties.getCompression();
+        extensions = compression.getExtensions().stream()
+                .map(extension -> extension.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+
+        int threads = compression.getThreads() > 0 ? compression.getThreads() : Runtime.getRuntime().availableProcessors();
+        // CPU 작업이므로 가상 스레드 설정과 무관하게 플랫폼 스레드를 쓴다.
+        pool = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("upload-compress-", 0).daemon().factory());
+        int level = compression.getLevel();
+        deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 압축 대상 파일인지 (기능 활성 + 확장자)
+     */
+    public boolean isTarget(String fileName) {
+        if (!fileUploadProperties.getCompression().isEnabled() || fileName == null) {
+            return false;
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 && extensions.contains(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 압축본 경로 ({원본}.gz)
+     */
+    public File compressedFile(File file) {
+        return new File(file.getPath() + GZIP_SUFFIX);
+    }
+
+    /**
+     * 압축 중 쓰는 임시 파일 경로 ({원본}.gz.tmp)
+     */
+    public File temporaryFile(File file) {
+        return new File(compressedFile(file).getPath() + ".tmp");
+    }
+
+    /**
+     * 저장된 파일의 Content-Encoding (압축본이 아니면 null)
+     */
+    public String contentEncoding(File stored) {
+        return stored.getName().endsWith(GZIP_SUFFIX) ? CONTENT_ENCODING_GZIP : null;
+    }
+
+    /**
+     * 압축본을 푼 원본 내용 스트림
+     */
+    public InputStream openDecompressed(Path compressed) throws IOException {
+        return new GZIPInputStream(new BufferedInputStream(Files.newInputStream(compressed), 64 * 1024), 64 * 1024);
+    }
+
+    /**
+     * 압축본을 푼 원본 내용 중 position 부터의 스트림
+     * position 이 들어 있는 member 부터 풀고, 그 member 안에서만 건너뛴다.
+     * (member 크기가 기록되지 않은 gzip 이면 처음부터 풀면서 건너뛴다)
+     */
+    public InputStream openDecompressed(Path compressed, long position) throws IOException {
+        FileChannel channel = FileChannel.open(compressed, StandardOpenOption.READ);
+        try {
+            long[] member = findMember(channel, position);
+            long memberStart = member != null ? member[0] : 0;
+            long skip = member != null ? position - member[1] : position;
+            channel.position(memberStart);
+            InputStream in = new GZIPInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024), 64 * 1024);
+            in.skipNBytes(skip);
+            return in;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * position 이 들어 있는 member 의 {압축본 내 시작 위치, 원본 내 시작 위치} (member 크기가 없거나 범위 밖이면 null)
+     */
+    private static long[] findMember(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(GZIP_HEADER.length).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long size = channel.size();
+        long memberStart = 0;
+        long originalStart = 0;
+        while (memberStart < size) {
+            if (!readFully(channel, header.clear(), memberStart) || !hasMemberSize(header)) {
+                return null;
+            }
+            long memberSize = Integer.toUnsignedLong(header.getInt(MEMBER_SIZE_OFFSET));
+            // trailer 의 ISIZE (member 원본 크기)
+            if (memberSize < GZIP_HEADER.length + GZIP_TRAILER_SIZE
+                    || !readFully(channel, trailer.clear(), memberStart + memberSize - Integer.BYTES)) {
+                return null;
+            }
+            long originalSize = Integer.toUnsignedLong(trailer.getInt(0));
+            if (position < originalStart + originalSize) {
+                return new long[]{memberStart, originalStart};
+            }
+            memberStart += memberSize;
+            originalStart += originalSize;
+        }
+        // 원본 끝 이후 위치
+        return null;
+    }
+
+    /**
+     * 이 압축기가 쓴 member 헤더인지 (magic, deflate, FEXTRA 와 MS extra 필드, 시각/XFL/OS 는 보지 않음)
+     */
+    private static boolean hasMemberSize(ByteBuffer header) {
+        byte[] bytes = header.array();
+        return Arrays.equals(bytes, 0, 4, GZIP_HEADER, 0, 4)
+                && Arrays.equals(bytes, 10, MEMBER_SIZE_OFFSET, GZIP_HEADER, 10, MEMBER_SIZE_OFFSET);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 파일 압축 후 저장된 파일을 반환 (압축본으로 바꾸면 원본은 지운다)
+     */
+    public File compress(File source) throws IOException {
+        FileUploadProperties.Compression compression = fileUploadProperties.getCompression();
+        Path sourcePath = source.toPath();
+        Path target = compressedFile(source).toPath();
+        Path temp = temporaryFile(source).toPath();
+
+        long originalSize = Files.size(sourcePath);
+        if (originalSize == 0) {
+            return source;
+        }
+
+        long storedSize;
+        try (FileChannel in = FileChannel.open(sourcePath, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            int blockSize = compression.getBlockSize();
+            int maxInFlight = Math.max(2, compression.getMaxBlocksInFlight());
+            Deque<Future<ByteBuffer>> pending = new ArrayDeque<>(maxInFlight);
+            long position = 0;
+            try {
+                while (position < originalSize || !pending.isEmpty()) {
+                    while (position < originalSize && pending.size() < maxInFlight) {
+                        long blockPosition = position;
+                        int length = (int) Math.min(blockSize, originalSize - position);
+                        pending.add(pool.submit(() -> compressBlock(in, blockPosition, length)));
+                        position += length;
+                    }
+                    ByteBuffer member = await(pending.poll());
+                    while (member.hasRemaining()) {
+                        out.write(member);
+                    }
+                }
+            } finally {
+                for (Future<ByteBuffer> future : pending) {
+                    future.cancel(true);
+                }
+            }
+            out.force(true);
+            storedSize = out.size();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        if (storedSize * 100 > originalSize * (100 - compression.getMinSavingsPercent())) {
+            Files.delete(temp);
+            log.debug("Compression skipped, not enough savings. file={}, original={}, compressed={}",
+                    source, originalSize, storedSize);
+            return source;
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(sourcePath);
+        log.info("File compressed: {} ({} -> {} bytes)", target, originalSize, storedSize);
+        return target.toFile();
+    }
+
+    /**
+     * 블록 하나를 읽어 독립된 gzip member 로 압축
+     */
+    private ByteBuffer compressBlock(FileChannel in, long position, int length) throws IOException {
+        byte[] input = new byte[length];
+        ByteBuffer inputBuffer = ByteBuffer.wrap(input);
+        while (inputBuffer.hasRemaining()) {
+            if (in.read(inputBuffer, position + inputBuffer.position()) < 0) {
+                throw new IOException("File is shorter than expected. position=" + position);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(input, 0, length);
+
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+
+        // 압축이 안 되는 블록도 담을 수 있는 크기 (deflate stored block 오버헤드 포함)
+        byte[] output = new byte[GZIP_HEADER.length + length + (length >> 12) + 64 + GZIP_TRAILER_SIZE];
+        System.arraycopy(GZIP_HEADER, 0, output, 0, GZIP_HEADER.length);
+        int size = GZIP_HEADER.length;
+        while (!deflater.finished()) {
+            if (size == output.length - GZIP_TRAILER_SIZE) {
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+            size += deflater.deflate(output, size, output.length - GZIP_TRAILER_SIZE - size);
+        }
+
+        ByteBuffer member = ByteBuffer.wrap(output, 0, size + GZIP_TRAILER_SIZE);
+        member.order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MEMBER_SIZE_OFFSET, size + GZIP_TRAILER_SIZE)
+                .putInt(size, (int) crc.getValue())
+                .putInt(size + Integer.BYTES, length);
+        return member;
+    }
+
+    private ByteBuffer await(Future<ByteBuffer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing file");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to compress file block", e.getCause());
+        }
+    }
+}
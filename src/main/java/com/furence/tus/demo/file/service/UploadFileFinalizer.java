@@ -0,0 +1,195 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.storage.NioUploadStorageService;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.UploadType;
+import me.desair.tus.server.upload.concatenation.UploadConcatenationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 완료된 TUS 업로드를 최종 저장 위치로 옮기는 컴포넌트
+ * - 같은 파일시스템: 하드 링크 또는 원자적 이동 (데이터 복사 없음)
+ * - 다른 파일시스템: FileChannel.transferTo 로 커널 내부 복사
+ * - 병렬(연결) 업로드: 부분 업로드 data 파일을 순서대로 transferTo 로 이어 붙임
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadFileFinalizer {
+
+    private final TusFileUploadService tusFileUploadService;
+    private final UploadStorageService uploadStorageService;
+    private final FileUploadProperties fileUploadProperties;
+
+    @Value("${tus.server.data.directory}")
+    String tusStoragePath;
+
+    public enum Strategy {
+        LINK,           // 하드 링크 (TUS 데이터는 deleteUpload 시 정리)
+        MOVE,           // 원자적 이동
+        CHANNEL_COPY,   // FileChannel.transferTo
+        CHANNEL_CONCAT, // 부분 업로드들을 FileChannel.transferTo 로 연결
+        STREAM_COPY     // data 파일을 찾을 수 없는 업로드
+    }
+
+    /**
+     * 업로드 데이터를 target 위치에 배치하고 사용한 전략을 반환
+     */
+    public Strategy finalizeUpload(String uploadUri, UploadInfo uploadInfo, File target) throws IOException, TusException {
+        Path targetPath = target.toPath();
+        Files.createDirectories(targetPath.getParent());
+        Files.deleteIfExists(targetPath);
+
+        if (uploadInfo.getUploadType() == UploadType.CONCATENATED) {
+            List<Path> parts = resolvePartialDataPaths(uploadInfo);
+            if (parts != null) {
+                concatWithChannel(parts, targetPath);
+                return Strategy.CHANNEL_CONCAT;
+            }
+        }
+
+        Path source = resolveDataPath(uploadInfo);
+        if (source == null) {
+            try (InputStream is = tusFileUploadService.getUploadedBytes(uploadUri)) {
+                Files.copy(is, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return Strategy.STREAM_COPY;
+        }
+
+        Strategy preferred = fileUploadProperties.getFinalizeStrategy();
+        if (preferred == Strategy.LINK && tryLink(source, targetPath)) {
+            return Strategy.LINK;
+        }
+        if (preferred == Strategy.MOVE && tryMove(source, targetPath)) {
+            return Strategy.MOVE;
+        }
+
+        copyWithChannel(source, targetPath);
+        return Strategy.CHANNEL_COPY;
+    }
+
+    /**
+     * TUS 스토리지 내 업로드 data 파일 경로 (없거나 크기가 맞지 않으면 null)
+     */
+    Path resolveDataPath(UploadInfo uploadInfo) throws IOException {
+        if (uploadInfo.getId() == null || uploadInfo.getUploadType() == UploadType.CONCATENATED) {
+            return null;
+        }
+
+        Path dataPath = NioUploadStorageService.dataPath(NioUploadStorageService.uploadDirectory(tusStoragePath), uploadInfo.getId());
+        if (!Files.isRegularFile(dataPath)) {
+            return null;
+        }
+        if (uploadInfo.getLength() != null && Files.size(dataPath) != uploadInfo.getLength()) {
+            log.warn("TUS data size mismatch. path={}, expected={}", dataPath, uploadInfo.getLength());
+            return null;
+        }
+        return dataPath;
+    }
+
+    /**
+     * 연결 업로드를 구성하는 부분 업로드의 data 파일 경로 (하나라도 없으면 null)
+     */
+    List<Path> resolvePartialDataPaths(UploadInfo uploadInfo) throws IOException, TusException {
+        UploadConcatenationService concatenationService = uploadStorageService.getUploadConcatenationService();
+        if (concatenationService == null) {
+            return null;
+        }
+
+        List<UploadInfo> partials = concatenationService.getPartialUploads(uploadInfo);
+        List<Path> parts = new ArrayList<>(partials.size());
+        for (UploadInfo partial : partials) {
+            Path part = partial != null ? resolveDataPath(partial) : null;
+            if (part == null) {
+                return null;
+            }
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    private boolean tryLink(Path source, Path target) {
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            log.debug("Hard link not available, falling back to copy. source={}, reason={}", source, e.getMessage());
+            return false;
+        } catch (IOException e) {
+            log.warn("Hard link failed, falling back to copy. source={}", source, e);
+            return false;
+        }
+    }
+
+    private boolean tryMove(Path source, Path target) {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (AtomicMoveNotSupportedException e) {
+            log.debug("Atomic move not available, falling back to copy. source={}", source);
+            return false;
+        } catch (IOException e) {
+            log.warn("Atomic move failed, falling back to copy. source={}", source, e);
+            return false;
+        }
+    }
+
+    private void copyWithChannel(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transferFully(in, source, out);
+            // TUS 데이터 삭제 전에 복사본을 디스크에 반영
+            out.force(true);
+        }
+    }
+
+    private void concatWithChannel(List<Path> parts, Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // out 의 position 은 transferTo 마다 증가하므로 부분 업로드 순서대로 이어진다.
+            for (Path part : parts) {
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    transferFully(in, part, out);
+                }
+            }
+            out.force(true);
+        }
+    }
+
+    /**
+     * 열 때의 크기만큼 전부 복사 (도중에 파일이 줄어 더 읽을 것이 없으면 예외)
+     */
+    private void transferFully(FileChannel in, Path source, FileChannel out) throws IOException {
+        long size = in.size();
+        long position = 0;
+        while (position < size) {
+            long sent = in.transferTo(position, size - position, out);
+            if (sent <= 0 && position >= in.size()) {
+                throw new IOException("File is shorter than expected. path=" + source + ", position=" + position
+                        + ", expected=" + size);
+            }
+            position += sent;
+        }
+    }
+}
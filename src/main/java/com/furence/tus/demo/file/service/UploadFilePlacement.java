@@ -0,0 +1,154 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 완료 파일의 최종 위치 결정 (볼륨 선택 + 하위 디렉토리 분산)
+ * - 볼륨: 여유 공간이 min-free-bytes 이상인 볼륨 중 (여유 공간 / 최근 배치량 가중치)가 가장 큰 곳
+ *   최근 배치량은 refresh 주기마다 절반으로 줄여 최근 I/O 부하만 반영한다.
+ * - 디렉토리: {volume}/{tenant}/{yyyy}/{MM}/{dd}/{xx}/{serverFileName} (xx: 파일명 해시 00~ff)
+ * 위치는 후처리 등록 시 한 번 정해 작업(spool)에 기록하므로 재시도/재기동에도 바뀌지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadFilePlacement {
+
+    private static final DateTimeFormatter REC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String NO_TENANT = "_";
+
+    private final FileUploadProperties fileUploadProperties;
+
+    private List<Volume> volumes;
+
+    public enum Layout {
+        FLAT,       // {volume}/{serverFileName}
+        SHARDED     // {volume}/{tenant}/{yyyy}/{MM}/{dd}/{xx}/{serverFileName}
+    }
+
+    private static class Volume {
+        final Path root;
+        volatile long usableSpace;
+        // 최근 배치된 바이트 (주기적으로 절반씩 감소)
+        final AtomicLong recentBytes = new AtomicLong();
+
+        Volume(Path root) {
+            this.root = root;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        List<String> configured = fileUploadProperties.getStorage().getVolumes();
+        if (configured == null || configured.isEmpty()) {
+            configured = List.of(fileUploadProperties.getPath());
+        }
+
+        List<Volume> loaded = new ArrayList<>(configured.size());
+        for (String root : configured) {
+            loaded.add(new Volume(Paths.get(root).toAbsolutePath()));
+        }
+        volumes = List.copyOf(loaded);
+        refresh();
+        log.info("Upload file volumes: {}", volumes.stream().map(volume -> volume.root).toList());
+    }
+
+    /**
+     * 여유 공간 갱신 및 최근 배치량 감쇠
+     */
+    @Scheduled(fixedRateString = "${file.storage.refresh-interval-ms:5000}")
+    public void refresh() {
+        for (Volume volume : volumes) {
+            volume.usableSpace = usableSpace(volume.root);
+            volume.recentBytes.updateAndGet(bytes -> bytes / 2);
+        }
+    }
+
+    /**
+     * 최종 파일 경로 결정
+     */
+    public Path place(Long tenantId, String recDate, String serverFileName, Long length) {
+        Volume volume = selectVolume(length != null ? length : 0);
+        if (length != null) {
+            volume.recentBytes.addAndGet(length);
+        }
+
+        if (fileUploadProperties.getStorage().getLayout() == Layout.FLAT) {
+            return volume.root.resolve(serverFileName);
+        }
+
+        LocalDate date = parseRecDate(recDate);
+        return volume.root
+                .resolve(tenantId != null ? tenantId.toString() : NO_TENANT)
+                .resolve(String.valueOf(date.getYear()))
+                .resolve(String.format("%02d", date.getMonthValue()))
+                .resolve(String.format("%02d", date.getDayOfMonth()))
+                .resolve(String.format("%02x", serverFileName.hashCode() & 0xFF))
+                .resolve(serverFileName);
+    }
+
+    private Volume selectVolume(long length) {
+        FileUploadProperties.Storage storage = fileUploadProperties.getStorage();
+        Volume best = null;
+        double bestScore = -1;
+        for (Volume volume : volumes) {
+            if (volume.usableSpace - length < storage.getMinFreeBytes()) {
+                continue;
+            }
+            double score = volume.usableSpace / (1.0 + (double) volume.recentBytes.get() / storage.getLoadUnitBytes());
+            if (score > bestScore) {
+                best = volume;
+                bestScore = score;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+
+        // 모든 볼륨이 여유 공간 기준 미달, 가장 여유 있는 곳에 둔다.
+        Volume fallback = volumes.get(0);
+        for (Volume volume : volumes) {
+            if (volume.usableSpace > fallback.usableSpace) {
+                fallback = volume;
+            }
+        }
+        log.warn("All upload volumes are below min-free-bytes, using {}. usable={}", fallback.root, fallback.usableSpace);
+        return fallback;
+    }
+
+    private LocalDate parseRecDate(String recDate) {
+        if (recDate != null && recDate.length() == 8) {
+            try {
+                return LocalDate.parse(recDate, REC_DATE);
+            } catch (RuntimeException e) {
+                log.debug("Invalid rec date, using today. recDate={}", recDate);
+            }
+        }
+        return LocalDate.now();
+    }
+
+    private long usableSpace(Path root) {
+        try {
+            Files.createDirectories(root);
+            return Files.getFileStore(root).getUsableSpace();
+        } catch (IOException e) {
+            log.warn("Failed to read usable space of upload volume. root={}, error={}", root, e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.domain.dto.RecFileSaveRequest;
+import com.furence.tus.demo.file.domain.dto.UploadFileSaveRequest;
+import com.furence.tus.demo.file.repository.RecFileRepository;
+import com.furence.tus.demo.file.repository.UploadFileRepository;
+import com.furence.tus.demo.file.repository.UploadIdRegistryRepository;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.UploadThreadFactory;
+import com.furence.tus.demo.global.entity.RecFile;
+import com.furence.tus.demo.global.entity.UploadFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 메타데이터 write-behind 일괄 저장
+ * flush-interval-ms 동안 또는 batch-size 건까지 모아 한 트랜잭션으로 저장한다.
+ * (SEQUENCE pooled ID + hibernate.jdbc.batch_size + reWriteBatchedInserts → multi-row insert)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadMetadataBatcher {
+
+    private final UploadFileRepository uploadFileRepository;
+    private final RecFileRepository recFileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final FileUploadProperties fileUploadProperties;
+    private final MeterRegistry meterRegistry;
+    private final UploadThreadFactory uploadThreadFactory;
+    private final UploadBlobService uploadBlobService;
+    private final UploadIdRegistryRepository uploadIdRegistryRepository;
+
+    private BlockingQueue<PendingRecord> queue;
+    private Thread flushThread;
+    private volatile boolean running;
+
+    private Timer flushTimer;
+    private DistributionSummary flushSize;
+    private Counter flushFailures;
+
+    private record PendingRecord(UploadFileSaveRequest uploadFile, RecFileSaveRequest recFile,
+                                 CompletableFuture<Void> future) {
+    }
+
+    @PostConstruct
+    public void start() {
+        FileUploadProperties.Persistence persistence = fileUploadProperties.getPersistence();
+        queue = new ArrayBlockingQueue<>(persistence.getQueueCapacity());
+
+        flushTimer = Timer.builder("upload.metadata.flush")
+                .description("Metadata batch flush latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        flushSize = DistributionSummary.builder("upload.metadata.flush.size")
+                .description("Rows per metadata batch flush")
+                .register(meterRegistry);
+        flushFailures = Counter.builder("upload.metadata.flush.failures")
+                .register(meterRegistry);
+        meterRegistry.gauge("upload.metadata.queue.size", queue, BlockingQueue::size);
+
+        running = true;
+        flushThread = uploadThreadFactory.newThread("upload-metadata-batcher", this::flushLoop);
+        flushThread.start();
+    }
+
+    /**
+     * 종료 시 큐에 남은 행을 모두 저장한 뒤 반환
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // flush 중인 트랜잭션을 끊지 않도록 interrupt 하지 않고 루프가 큐를 비울 때까지 대기
+        running = false;
+        flushThread.join(fileUploadProperties.getPersistence().getFlushTimeoutMs());
+        if (!queue.isEmpty()) {
+            log.warn("Flushing {} remaining metadata rows on shutdown", queue.size());
+            drainAndFlush();
+        }
+    }
+
+    /**
+     * 저장 요청 등록, 해당 행이 커밋되면 future 가 완료된다.
+     */
+    public CompletableFuture<Void> enqueue(UploadFileSaveRequest uploadFile, RecFileSaveRequest recFile) throws InterruptedException {
+        if (!running) {
+            throw new IllegalStateException("Metadata batcher is not running");
+        }
+        PendingRecord record = new PendingRecord(uploadFile, recFile, new CompletableFuture<>());
+        queue.put(record);
+        return record.future();
+    }
+
+    /**
+     * 묶음 업로드 항목을 호출 스레드에서 한 트랜잭션으로 저장 (이미 저장된 upload_id 는 건너뜀)
+     * 항목 수가 많아도 한 번에 커밋되므로 큐를 거치지 않는다.
+     */
+    public void saveAll(List<UploadFileSaveRequest> uploadFiles, List<RecFileSaveRequest> recFiles) {
+        List<PendingRecord> records = new ArrayList<>(uploadFiles.size());
+        for (int i = 0; i < uploadFiles.size(); i++) {
+            records.add(new PendingRecord(uploadFiles.get(i), recFiles.get(i), null));
+        }
+
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(records));
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushSize.record(records.size());
+        }
+    }
+
+    public long getFlushTimeoutMs() {
+        return fileUploadProperties.getPersistence().getFlushTimeoutMs();
+    }
+
+    private void flushLoop() {
+        FileUploadProperties.Persistence persistence = fileUploadProperties.getPersistence();
+        List<PendingRecord> batch = new ArrayList<>(persistence.getBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRecord first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 첫 행 기준으로 flush-interval-ms 까지 또는 batch-size 건까지 모은다.
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(persistence.getFlushIntervalMs());
+                while (batch.size() < persistence.getBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void drainAndFlush() {
+        List<PendingRecord> batch = new ArrayList<>();
+        int batchSize = fileUploadProperties.getPersistence().getBatchSize();
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+            batch.forEach(record -> record.future().complete(null));
+        } catch (Exception e) {
+            // 한 행 때문에 전체가 실패하지 않도록 개별 트랜잭션으로 재시도
+            log.warn("Metadata batch flush failed, retrying row by row. size={}, error={}", batch.size(), e.getMessage());
+            flushFailures.increment();
+            for (PendingRecord record : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(record)));
+                    record.future().complete(null);
+                } catch (Exception rowError) {
+                    record.future().completeExceptionally(rowError);
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushSize.record(batch.size());
+        }
+    }
+
+    private void persist(List<PendingRecord> batch) {
+        List<UploadFile> uploadFiles = new ArrayList<>(batch.size());
+        List<RecFile> recFiles = new ArrayList<>(batch.size());
+        for (PendingRecord record : batch) {
+            // 재시도로 들어온 행은 건너뛴다 (upload_id 선점, 다른 스레드/노드와 동시에 저장해도 한 번만 들어간다)
+            String uploadId = record.uploadFile().getUploadId();
+            if (uploadId != null && uploadIdRegistryRepository.claim(uploadId) == 0) {
+                continue;
+            }
+            uploadFiles.add(record.uploadFile().toEntity());
+            recFiles.add(record.recFile().toEntity());
+        }
+
+        uploadFileRepository.saveAll(uploadFiles);
+        recFileRepository.saveAll(recFiles);
+
+        // 새로 저장된 행만 파일 참조 수에 반영 (같은 트랜잭션)
+        for (UploadFile uploadFile : uploadFiles) {
+            uploadBlobService.register(uploadFile);
+        }
+    }
+}
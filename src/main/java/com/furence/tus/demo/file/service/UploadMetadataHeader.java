@@ -0,0 +1,66 @@
+package com.furence.tus.demo.file.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Upload-Metadata 헤더 파서 ("key base64value,key base64value")
+ * split 없이 한 번 훑으며 찾는 키의 값만 디코딩한다.
+ */
+final class UploadMetadataHeader {
+
+    private UploadMetadataHeader() {
+    }
+
+    /**
+     * key 의 디코딩된 값 (없거나 값이 비어 있으면 null)
+     *
+     * @throws IllegalArgumentException 값이 올바른 Base64 가 아닌 경우
+     */
+    static String value(String header, String key) {
+        if (header == null) {
+            return null;
+        }
+
+        int length = header.length();
+        int position = 0;
+        while (position < length) {
+            int pairEnd = header.indexOf(',', position);
+            if (pairEnd < 0) {
+                pairEnd = length;
+            }
+
+            int keyStart = skipSpaces(header, position, pairEnd);
+            int keyEnd = keyStart;
+            while (keyEnd < pairEnd && header.charAt(keyEnd) != ' ') {
+                keyEnd++;
+            }
+
+            if (keyEnd - keyStart == key.length() && header.regionMatches(true, keyStart, key, 0, key.length())) {
+                int valueStart = skipSpaces(header, keyEnd, pairEnd);
+                int valueEnd = pairEnd;
+                while (valueEnd > valueStart && header.charAt(valueEnd - 1) == ' ') {
+                    valueEnd--;
+                }
+                return valueStart < valueEnd ? decode(header, valueStart, valueEnd) : null;
+            }
+            position = pairEnd + 1;
+        }
+        return null;
+    }
+
+    private static int skipSpaces(String header, int from, int to) {
+        while (from < to && header.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static String decode(String header, int from, int to) {
+        byte[] encoded = new byte[to - from];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = (byte) header.charAt(from + i);
+        }
+        return new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,203 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.FileValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드 파이프라인 지표 (tus 요청 지연, 처리량, 진행/정체 업로드, 후처리 단계, 검증 거절)
+ * - tenant 태그는 X-Tenant-Id 값이며, 처음 본 maxTenantTags 개까지만 그대로 쓰고 나머지는 "other" 로 묶는다.
+ * - 미터는 태그 조합별로 한 번만 만들어 재사용한다. (요청당 바이트 크기에 비례하는 할당 없음)
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadMetrics {
+
+    static final String TENANT_NONE = "none";
+    static final String TENANT_INVALID = "invalid";
+    static final String TENANT_OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final FileUploadProperties fileUploadProperties;
+
+    @Value("${tus.server.data.expiration}")
+    long tusExpirationPeriod;
+
+    private final Set<String> tenants = ConcurrentHashMap.newKeySet();
+    private final Map<RequestKey, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bytesCounters = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> throughputSummaries = new ConcurrentHashMap<>();
+    private final Map<FileValidationException.Reason, Counter> rejectionCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> completionPhaseTimers = new ConcurrentHashMap<>();
+    private Counter dedupeHits;
+    private Counter dedupeBytes;
+
+    // 처리 중인 PATCH 수
+    private final AtomicInteger activePatches = new AtomicInteger();
+    // uploadUri -> 마지막 PATCH 시각 (완료 등록 또는 만료 시 제거)
+    private final Map<String, Long> lastActivity = new ConcurrentHashMap<>();
+
+    private record RequestKey(String method, String tenant, String outcome) {
+    }
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("tus.upload.active", activePatches);
+        meterRegistry.gauge("tus.upload.stalled", this, UploadMetrics::countStalled);
+        meterRegistry.gauge("tus.upload.tracked", lastActivity, Map::size);
+        dedupeHits = Counter.builder("upload.dedupe.hits")
+                .description("Completed uploads stored as a reference to an identical file")
+                .register(meterRegistry);
+        dedupeBytes = Counter.builder("upload.dedupe.bytes")
+                .description("Bytes not stored again because of deduplication")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * X-Tenant-Id 헤더를 태그 값으로 변환 (카디널리티 제한)
+     */
+    public String tenantTag(String tenantHeader) {
+        if (tenantHeader == null || tenantHeader.isBlank()) {
+            return TENANT_NONE;
+        }
+        String tenant = tenantHeader.trim();
+        if (tenant.length() > 19 || !isDigits(tenant)) {
+            return TENANT_INVALID;
+        }
+        if (tenants.contains(tenant)) {
+            return tenant;
+        }
+        // 동시 등록으로 한도를 조금 넘을 수 있으나 상한 역할에는 충분하다.
+        if (tenants.size() < fileUploadProperties.getMetrics().getMaxTenantTags()) {
+            tenants.add(tenant);
+            return tenant;
+        }
+        return TENANT_OTHER;
+    }
+
+    /**
+     * tus 요청 처리 시간 (method: POST/PATCH/HEAD..., outcome: 2xx/4xx/5xx/rejected/error)
+     */
+    public void recordRequest(String method, String tenant, String outcome, long nanos) {
+        requestTimers.computeIfAbsent(new RequestKey(method, tenant, outcome), key -> Timer.builder("tus.request")
+                        .description("TUS request latency")
+                        .tag("method", key.method())
+                        .tag("tenant", key.tenant())
+                        .tag("outcome", key.outcome())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void patchStarted() {
+        activePatches.incrementAndGet();
+    }
+
+    /**
+     * PATCH 종료 (기록된 바이트 수와 처리 시간으로 처리량 집계)
+     */
+    public void patchFinished(String uploadUri, String tenant, long bytes, long nanos) {
+        activePatches.decrementAndGet();
+        if (uploadUri != null && lastActivity.size() < fileUploadProperties.getMetrics().getMaxTrackedUploads()) {
+            lastActivity.put(uploadUri, System.currentTimeMillis());
+        }
+        if (bytes <= 0) {
+            return;
+        }
+
+        bytesCounters.computeIfAbsent(tenant, key -> Counter.builder("tus.upload.bytes")
+                        .baseUnit("bytes")
+                        .tag("tenant", key)
+                        .register(meterRegistry))
+                .increment(bytes);
+        if (nanos > 0) {
+            throughputSummaries.computeIfAbsent(tenant, key -> DistributionSummary.builder("tus.upload.throughput")
+                            .description("Bytes per second of a single PATCH")
+                            .baseUnit("bytes.per.second")
+                            .tag("tenant", key)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry))
+                    .record(bytes * 1_000_000_000.0 / nanos);
+        }
+    }
+
+    /**
+     * 업로드 완료 (후처리 등록 시점), 정체 업로드 추적 대상에서 제외
+     */
+    public void uploadCompleted(String uploadUri) {
+        if (uploadUri != null) {
+            lastActivity.remove(uploadUri);
+        }
+    }
+
+    public void validationRejected(FileValidationException.Reason reason) {
+        rejectionCounters.computeIfAbsent(reason, key -> Counter.builder("upload.validation.rejected")
+                        .description("Uploads rejected by file validation")
+                        .tag("reason", key.name().toLowerCase())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * 같은 내용의 기존 파일을 참조하도록 완료된 업로드
+     */
+    public void uploadDeduplicated(long bytes) {
+        dedupeHits.increment();
+        dedupeBytes.increment(bytes);
+    }
+
+    /**
+     * 후처리 단계별 소요 시간 (phase: place, cleanup, digest, compress, db)
+     */
+    public void recordCompletionPhase(String phase, long nanos) {
+        completionPhaseTimers.computeIfAbsent(phase, key -> Timer.builder("upload.completion.phase")
+                        .description("Upload finalization phase latency")
+                        .tag("phase", key)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 마지막 PATCH 이후 stallThresholdMs 이상 진행이 없는 업로드 수 (만료된 항목은 이때 정리)
+     */
+    private double countStalled() {
+        long now = System.currentTimeMillis();
+        long stallThreshold = fileUploadProperties.getMetrics().getStallThresholdMs();
+        int stalled = 0;
+        Iterator<Long> iterator = lastActivity.values().iterator();
+        while (iterator.hasNext()) {
+            long idle = now - iterator.next();
+            if (idle > tusExpirationPeriod) {
+                iterator.remove();
+            } else if (idle > stallThreshold) {
+                stalled++;
+            }
+        }
+        return stalled;
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
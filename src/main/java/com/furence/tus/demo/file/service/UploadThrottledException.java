@@ -0,0 +1,17 @@
+package com.furence.tus.demo.file.service;
+
+import lombok.Getter;
+
+/**
+ * tenant 업로드 한도 초과 (429 Too Many Requests + Retry-After)
+ */
+@Getter
+public class UploadThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public UploadThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
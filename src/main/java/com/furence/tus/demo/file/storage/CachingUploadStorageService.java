@@ -0,0 +1,148 @@
+package com.furence.tus.demo.file.storage;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.exception.UploadNotFoundException;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadLockingService;
+import me.desair.tus.server.upload.UploadStorageService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * UploadInfo 캐시 (write-through)
+ * - 조회는 캐시에서, 생성/갱신/append 결과는 원본 저장 후 캐시에 반영한다.
+ * - 쓰기는 업로드 락을 쥔 요청에서만 일어나므로 캐시 값이 최신이다.
+ *   락 밖의 조회가 원본을 읽는 중에 들어온 쓰기는 Guava 가 우선 반영한다. (put during load wins)
+ * - 업로드 종료(완료 후 삭제, 만료 정리) 시 제거한다.
+ * - 같은 스토리지를 여러 프로세스가 함께 쓰는 구성에서는 사용하지 않는다.
+ */
+public class CachingUploadStorageService extends DelegatingUploadStorageService {
+
+    // 직렬화된 UploadInfo 의 고정 부분 대략치 (id, offset, length, timestamp 등)
+    private static final int BASE_WEIGHT = 512;
+
+    private final Cache<String, UploadInfo> cache;
+
+    private UploadIdFactory idFactory;
+
+    public CachingUploadStorageService(UploadStorageService delegate, long maximumWeightBytes, Duration expireAfterWrite) {
+        super(delegate);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((String key, UploadInfo info) -> weigh(info))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Cache<String, UploadInfo> getCache() {
+        return cache;
+    }
+
+    @Override
+    public UploadInfo getUploadInfo(String uploadUrl, String ownerKey) throws IOException {
+        UploadInfo uploadInfo = getUploadInfo(idFactory.readUploadId(uploadUrl));
+        if (uploadInfo == null || !Objects.equals(uploadInfo.getOwnerKey(), ownerKey)) {
+            return null;
+        }
+        return uploadInfo;
+    }
+
+    @Override
+    public UploadInfo getUploadInfo(UploadId id) throws IOException {
+        if (id == null) {
+            return null;
+        }
+        try {
+            // 호출 측이 수정해도 캐시 값이 바뀌지 않도록 사본을 돌려준다.
+            return UploadInfoCopier.copy(cache.get(id.toString(), () -> loadUploadInfo(id)));
+        } catch (CacheLoader.InvalidCacheLoadException e) {
+            // 원본에 없는 업로드 (null 은 캐시하지 않음)
+            return null;
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to load upload info. id=" + id, e.getCause());
+        }
+    }
+
+    @Override
+    public UploadInfo create(UploadInfo info, String ownerKey) throws IOException {
+        UploadInfo created = delegate.create(info, ownerKey);
+        cachePut(created);
+        return created;
+    }
+
+    @Override
+    public void update(UploadInfo uploadInfo) throws IOException, UploadNotFoundException {
+        delegate.update(uploadInfo);
+        cachePut(uploadInfo);
+    }
+
+    @Override
+    public UploadInfo append(UploadInfo upload, InputStream inputStream) throws IOException, TusException {
+        try {
+            return delegate.append(upload, inputStream);
+        } finally {
+            // 실패해도 원본은 기록된 만큼 offset 을 갱신하므로 캐시도 맞춘다.
+            cachePut(upload);
+        }
+    }
+
+    @Override
+    public void removeLastNumberOfBytes(UploadInfo uploadInfo, long byteCount) throws UploadNotFoundException, IOException {
+        delegate.removeLastNumberOfBytes(uploadInfo, byteCount);
+        cachePut(uploadInfo);
+    }
+
+    @Override
+    public void terminateUpload(UploadInfo uploadInfo) throws UploadNotFoundException, IOException {
+        try {
+            delegate.terminateUpload(uploadInfo);
+        } finally {
+            if (uploadInfo != null && uploadInfo.getId() != null) {
+                cache.invalidate(uploadInfo.getId().toString());
+            }
+        }
+    }
+
+    @Override
+    public void cleanupExpiredUploads(UploadLockingService uploadLockingService) throws IOException {
+        delegate.cleanupExpiredUploads(uploadLockingService);
+
+        // 원본이 직접 삭제한 만료 업로드를 캐시에서도 제거
+        cache.asMap().values().removeIf(info -> info.isExpired() && !uploadLockingService.isLocked(info.getId()));
+    }
+
+    @Override
+    public void setIdFactory(UploadIdFactory idFactory) {
+        this.idFactory = idFactory;
+        super.setIdFactory(idFactory);
+    }
+
+    private UploadInfo loadUploadInfo(UploadId id) throws IOException {
+        return delegate.getUploadInfo(id);
+    }
+
+    private void cachePut(UploadInfo info) {
+        if (info != null && info.getId() != null) {
+            cache.put(info.getId().toString(), UploadInfoCopier.copy(info));
+        }
+    }
+
+    private static int weigh(UploadInfo info) {
+        String metadata = info.getEncodedMetadata();
+        return BASE_WEIGHT + (metadata != null ? metadata.length() * 2 : 0);
+    }
+}
@@ -0,0 +1,34 @@
+package com.furence.tus.demo.file.storage;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * PATCH 본문 복사용 버퍼 풀 (heap 배열 + 같은 크기의 direct 버퍼)
+ * 요청마다 버퍼를 새로 만들지 않고, JDK 임시 direct 버퍼 캐시(스레드별)에도 의존하지 않는다.
+ */
+class ChunkBufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<ChunkBuffer> pool;
+
+    ChunkBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.pool = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    ChunkBuffer acquire() {
+        ChunkBuffer buffer = pool.poll();
+        return buffer != null ? buffer : new ChunkBuffer(new byte[bufferSize], ByteBuffer.allocateDirect(bufferSize));
+    }
+
+    void release(ChunkBuffer buffer) {
+        buffer.direct().clear();
+        // 풀이 가득 차면 버린다 (GC 대상)
+        pool.offer(buffer);
+    }
+
+    record ChunkBuffer(byte[] array, ByteBuffer direct) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.furence.tus.demo.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.UploadType;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 첫 PATCH 의 앞부분 바이트를 스트림에서 그대로 떠서 형식을 검사하는 데코레이터
+ * - 앞 headBytes 만큼 모이면(또는 요청 본문이 끝나면) inspector 를 호출하고,
+ *   거절되면 나머지 본문을 읽지 않고 업로드를 삭제한 뒤 415 로 응답한다.
+ * - 첫 PATCH 가 headBytes 전에 끊겨 이어 올리는 경우에만 이미 기록된 앞부분(headBytes 이하)을 읽는다.
+ * - 연결(병렬) 업로드는 부분 업로드가 파일의 어느 위치인지 최종 업로드 전에는 알 수 없으므로 여기서 검사하지 않고,
+ *   완료 후처리에서 최종 업로드의 앞부분을 검사한다.
+ */
+@Slf4j
+public class ContentSniffingUploadStorageService extends DelegatingUploadStorageService {
+
+    private final Path uploadDirectory;
+    private final int headBytes;
+    private final Inspector inspector;
+
+    /**
+     * 앞부분 검사 (거절 시 TusException)
+     */
+    @FunctionalInterface
+    public interface Inspector {
+        void inspect(UploadInfo upload, byte[] head, int length) throws TusException;
+    }
+
+    public ContentSniffingUploadStorageService(UploadStorageService delegate, Path uploadDirectory, int headBytes,
+                                               Inspector inspector) {
+        super(delegate);
+        this.uploadDirectory = uploadDirectory;
+        this.headBytes = headBytes;
+        this.inspector = inspector;
+    }
+
+    @Override
+    public UploadInfo append(UploadInfo upload, InputStream inputStream) throws IOException, TusException {
+        if (upload == null || upload.getUploadType() == UploadType.PARTIAL || upload.getUploadType() == UploadType.CONCATENATED
+                || upload.getOffset() == null || upload.getOffset() >= headBytes) {
+            return delegate.append(upload, inputStream);
+        }
+
+        SniffingInputStream sniffing = new SniffingInputStream(inputStream, upload);
+        if (upload.getOffset() > 0) {
+            sniffing.prefill(dataPath(upload), upload.getOffset());
+        }
+        UploadInfo result;
+        try {
+            result = delegate.append(upload, sniffing);
+        } catch (IOException | TusException e) {
+            ContentRejectedIOException rejected = findRejection(e);
+            if (rejected == null) {
+                throw e;
+            }
+            throw reject(upload, rejected.rejection);
+        }
+
+        // 본문 끝을 보기 전에 저장소가 읽기를 멈춘 경우 (Upload-Length 도달 등)
+        try {
+            sniffing.inspectIfPending();
+        } catch (TusException e) {
+            throw reject(upload, e);
+        }
+        return result;
+    }
+
+    private TusException reject(UploadInfo upload, TusException rejection) throws IOException {
+        log.warn("Upload content rejected, terminating upload. id={}, reason={}", upload.getId(), rejection.getMessage());
+        try {
+            terminateUpload(upload);
+        } catch (TusException e) {
+            log.warn("Failed to terminate rejected upload. id={}, error={}", upload.getId(), e.getMessage());
+        }
+        return rejection;
+    }
+
+    private static ContentRejectedIOException findRejection(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ContentRejectedIOException rejected) {
+                return rejected;
+            }
+        }
+        return null;
+    }
+
+    private Path dataPath(UploadInfo upload) {
+        return NioUploadStorageService.dataPath(uploadDirectory, upload.getId());
+    }
+
+    /**
+     * 스트림 안에서 거절을 알리는 예외 (read 는 IOException 만 던질 수 있음)
+     */
+    private static class ContentRejectedIOException extends IOException {
+
+        private final transient TusException rejection;
+
+        ContentRejectedIOException(TusException rejection) {
+            super(rejection.getMessage(), rejection);
+            this.rejection = rejection;
+        }
+    }
+
+    /**
+     * 읽은 바이트 중 앞 headBytes 만 복사해 두는 스트림 (읽기 버퍼는 그대로 사용)
+     */
+    private class SniffingInputStream extends FilterInputStream {
+
+        private final UploadInfo upload;
+        private final byte[] head = new byte[headBytes];
+        private int filled;
+        private boolean inspected;
+
+        SniffingInputStream(InputStream in, UploadInfo upload) {
+            super(in);
+            this.upload = upload;
+        }
+
+        void prefill(Path dataPath, long storedBytes) throws IOException {
+            try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.wrap(head, 0, (int) Math.min(storedBytes, headBytes));
+                while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+                    // 저장된 앞부분을 채운다.
+                }
+                filled = buffer.position();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (!inspected) {
+                if (b >= 0) {
+                    head[filled++] = (byte) b;
+                }
+                if (b < 0 || filled == head.length) {
+                    inspect();
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (!inspected) {
+                if (n > 0) {
+                    int copied = Math.min(n, head.length - filled);
+                    System.arraycopy(b, off, head, filled, copied);
+                    filled += copied;
+                }
+                if (n < 0 || filled == head.length) {
+                    inspect();
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // 건너뛴 바이트는 검사할 수 없으므로 읽어서 버린다.
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        void inspectIfPending() throws TusException {
+            if (inspected || filled == 0) {
+                return;
+            }
+            inspected = true;
+            inspector.inspect(upload, head, filled);
+        }
+
+        private void inspect() throws ContentRejectedIOException {
+            inspected = true;
+            if (filled == 0) {
+                return;
+            }
+            try {
+                inspector.inspect(upload, head, filled);
+            } catch (TusException e) {
+                throw new ContentRejectedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.exception.UploadNotFoundException;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadLockingService;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.concatenation.UploadConcatenationService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * UploadStorageService 데코레이터 공통 부분 (모든 호출을 delegate 로 넘긴다)
+ */
+public abstract class DelegatingUploadStorageService implements UploadStorageService {
+
+    protected final UploadStorageService delegate;
+
+    protected DelegatingUploadStorageService(UploadStorageService delegate) {
+        this.delegate = delegate;
+    }
+
+    public UploadStorageService getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public UploadInfo getUploadInfo(String uploadUrl, String ownerKey) throws IOException {
+        return delegate.getUploadInfo(uploadUrl, ownerKey);
+    }
+
+    @Override
+    public UploadInfo getUploadInfo(UploadId id) throws IOException {
+        return delegate.getUploadInfo(id);
+    }
+
+    @Override
+    public String getUploadUri() {
+        return delegate.getUploadUri();
+    }
+
+    @Override
+    public UploadInfo create(UploadInfo info, String ownerKey) throws IOException {
+        return delegate.create(info, ownerKey);
+    }
+
+    @Override
+    public void update(UploadInfo uploadInfo) throws IOException, UploadNotFoundException {
+        delegate.update(uploadInfo);
+    }
+
+    @Override
+    public UploadInfo append(UploadInfo upload, InputStream inputStream) throws IOException, TusException {
+        return delegate.append(upload, inputStream);
+    }
+
+    @Override
+    public void setMaxUploadSize(Long maxUploadSize) {
+        delegate.setMaxUploadSize(maxUploadSize);
+    }
+
+    @Override
+    public long getMaxUploadSize() {
+        return delegate.getMaxUploadSize();
+    }
+
+    @Override
+    public InputStream getUploadedBytes(String uploadUri, String ownerKey) throws IOException, UploadNotFoundException {
+        return delegate.getUploadedBytes(uploadUri, ownerKey);
+    }
+
+    @Override
+    public InputStream getUploadedBytes(UploadId id) throws IOException, UploadNotFoundException {
+        return delegate.getUploadedBytes(id);
+    }
+
+    @Override
+    public void copyUploadTo(UploadInfo info, OutputStream outputStream) throws UploadNotFoundException, IOException {
+        delegate.copyUploadTo(info, outputStream);
+    }
+
+    @Override
+    public void cleanupExpiredUploads(UploadLockingService uploadLockingService) throws IOException {
+        delegate.cleanupExpiredUploads(uploadLockingService);
+    }
+
+    @Override
+    public void removeLastNumberOfBytes(UploadInfo uploadInfo, long byteCount) throws UploadNotFoundException, IOException {
+        delegate.removeLastNumberOfBytes(uploadInfo, byteCount);
+    }
+
+    @Override
+    public void terminateUpload(UploadInfo uploadInfo) throws UploadNotFoundException, IOException {
+        delegate.terminateUpload(uploadInfo);
+    }
+
+    @Override
+    public Long getUploadExpirationPeriod() {
+        return delegate.getUploadExpirationPeriod();
+    }
+
+    @Override
+    public void setUploadExpirationPeriod(Long uploadExpirationPeriod) {
+        delegate.setUploadExpirationPeriod(uploadExpirationPeriod);
+    }
+
+    @Override
+    public void setUploadConcatenationService(UploadConcatenationService concatenationService) {
+        delegate.setUploadConcatenationService(concatenationService);
+    }
+
+    @Override
+    public UploadConcatenationService getUploadConcatenationService() {
+        return delegate.getUploadConcatenationService();
+    }
+
+    @Override
+    public void setIdFactory(UploadIdFactory idFactory) {
+        delegate.setIdFactory(idFactory);
+    }
+}
@@ -0,0 +1,287 @@
+package com.furence.tus.demo.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.exception.UploadNotFoundException;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.UploadType;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PATCH 로 들어오는 바이트를 그대로 SHA-256 에 흘려 전체 파일 다이제스트를 계산하는 데코레이터
+ * - 업로드별 다이제스트 상태를 메모리에 두고 이어 올리기 시 이어서 계산한다.
+ * - 직전 PATCH 시작 시점의 상태를 보관해, 청크 체크섬 불일치로 마지막 청크가 잘리면 되돌린다.
+ * - 상태가 없으면(재기동 등) 이미 기록된 data 앞부분을 한 번 읽어 복원한다.
+ * - 상태는 이 노드의 메모리에만 있으므로 단일 노드 저장소(disk, nio)에서만 쓴다.
+ *   cluster 저장소는 PATCH 마다 노드가 바뀔 수 있어 매번 앞부분을 다시 읽게 되므로 감싸지 않고,
+ *   완료 후처리에서 배치된 파일로 한 번 계산한다.
+ * - 업로드가 끝나면 다이제스트(hex)를 메타데이터 DIGEST_METADATA_KEY 로 저장한다.
+ * - 연결(병렬) 업로드의 최종 업로드는 계산하지 않는다. (부분 업로드 다이제스트는 합칠 수 없음)
+ */
+@Slf4j
+public class DigestingUploadStorageService extends DelegatingUploadStorageService {
+
+    public static final String DIGEST_METADATA_KEY = "contentSha256";
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final int REBUILD_BUFFER_SIZE = 256 * 1024;
+
+    private final Path uploadDirectory;
+    private final Map<String, DigestState> states = new ConcurrentHashMap<>();
+
+    public DigestingUploadStorageService(UploadStorageService delegate, Path uploadDirectory) {
+        super(delegate);
+        this.uploadDirectory = uploadDirectory;
+    }
+
+    @Override
+    public UploadInfo create(UploadInfo info, String ownerKey) throws IOException {
+        // 클라이언트가 보낸 같은 키는 버린다 (서버가 계산한 값만 신뢰)
+        info.setEncodedMetadata(withoutDigest(info.getEncodedMetadata()));
+        return delegate.create(info, ownerKey);
+    }
+
+    @Override
+    public UploadInfo append(UploadInfo upload, InputStream inputStream) throws IOException, TusException {
+        if (upload == null || upload.getUploadType() == UploadType.CONCATENATED) {
+            return delegate.append(upload, inputStream);
+        }
+
+        long start = upload.getOffset();
+        DigestState state = stateAt(upload, start);
+        MessageDigest snapshot = copy(state.digest);
+
+        DigestingInputStream digesting = new DigestingInputStream(inputStream, state.digest);
+        try {
+            return delegate.append(upload, digesting);
+        } finally {
+            long end = upload.getOffset();
+            if (commit(upload, state, snapshot, start, end, digesting.count)
+                    && upload.hasLength() && end == upload.getLength()) {
+                String digest = HexFormat.of().formatHex(copy(state.digest).digest());
+                upload.setEncodedMetadata(withDigest(upload.getEncodedMetadata(), digest));
+                delegate.update(upload);
+            }
+        }
+    }
+
+    /**
+     * PATCH 결과 반영 (읽은 바이트와 기록된 바이트가 다르면 기록된 부분만으로 다시 계산)
+     */
+    private boolean commit(UploadInfo upload, DigestState state, MessageDigest snapshot,
+                           long start, long end, long digested) {
+        String key = upload.getId().toString();
+        if (end < start) {
+            // offset 이 뒤로 간 경우 (데이터 파일과 정보 불일치), 다음 요청에서 data 파일로 복원
+            states.remove(key);
+            return false;
+        }
+        if (digested != end - start) {
+            try {
+                MessageDigest recomputed = copy(snapshot);
+                update(recomputed, dataPath(upload), start, end);
+                state.digest = recomputed;
+            } catch (IOException e) {
+                log.warn("Failed to recompute upload digest, will rebuild on next request. id={}", upload.getId(), e);
+                states.remove(key);
+                return false;
+            }
+        }
+        state.previous = snapshot;
+        state.previousOffset = start;
+        state.offset = end;
+        states.put(key, state);
+        return true;
+    }
+
+    @Override
+    public void removeLastNumberOfBytes(UploadInfo uploadInfo, long byteCount) throws UploadNotFoundException, IOException {
+        if (uploadInfo != null) {
+            // 마지막 청크가 잘리므로 완료 다이제스트도 무효
+            uploadInfo.setEncodedMetadata(withoutDigest(uploadInfo.getEncodedMetadata()));
+        }
+        delegate.removeLastNumberOfBytes(uploadInfo, byteCount);
+
+        if (uploadInfo == null || uploadInfo.getId() == null) {
+            return;
+        }
+        DigestState state = states.get(uploadInfo.getId().toString());
+        if (state != null && state.previous != null && uploadInfo.getOffset() == state.previousOffset) {
+            state.digest = state.previous;
+            state.offset = state.previousOffset;
+            state.previous = null;
+        } else {
+            // 되돌릴 상태가 없으면 다음 PATCH 에서 data 파일로 복원
+            states.remove(uploadInfo.getId().toString());
+        }
+    }
+
+    @Override
+    public void terminateUpload(UploadInfo uploadInfo) throws UploadNotFoundException, IOException {
+        delegate.terminateUpload(uploadInfo);
+        if (uploadInfo != null && uploadInfo.getId() != null) {
+            states.remove(uploadInfo.getId().toString());
+        }
+    }
+
+    /**
+     * offset 시점의 다이제스트 상태 (없거나 어긋나면 data 파일 앞부분으로 복원)
+     */
+    private DigestState stateAt(UploadInfo upload, long offset) throws IOException {
+        DigestState state = states.get(upload.getId().toString());
+        if (state != null && state.offset == offset) {
+            return state;
+        }
+        if (state != null && state.previous != null && state.previousOffset == offset) {
+            state.digest = copy(state.previous);
+            state.offset = offset;
+            return state;
+        }
+
+        if (offset > 0) {
+            log.info("Rebuilding upload digest from stored bytes. id={}, offset={}", upload.getId(), offset);
+        }
+        DigestState rebuilt = new DigestState();
+        rebuilt.digest = newDigest();
+        rebuilt.offset = offset;
+        update(rebuilt.digest, dataPath(upload), 0, offset);
+        return rebuilt;
+    }
+
+    private void update(MessageDigest digest, Path dataPath, long from, long to) throws IOException {
+        if (to <= from) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(REBUILD_BUFFER_SIZE);
+            long position = from;
+            while (position < to) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Upload data is shorter than expected. path=" + dataPath + ", offset=" + to);
+                }
+                buffer.flip();
+                digest.update(buffer);
+                position += read;
+            }
+        }
+    }
+
+    private Path dataPath(UploadInfo upload) {
+        return NioUploadStorageService.dataPath(uploadDirectory, upload.getId());
+    }
+
+    private static String withDigest(String encodedMetadata, String digest) {
+        String entry = DIGEST_METADATA_KEY + " "
+                + Base64.getEncoder().encodeToString(digest.getBytes(StandardCharsets.UTF_8));
+        String rest = withoutDigest(encodedMetadata);
+        return rest == null || rest.isBlank() ? entry : rest + "," + entry;
+    }
+
+    private static String withoutDigest(String encodedMetadata) {
+        if (encodedMetadata == null || !encodedMetadata.contains(DIGEST_METADATA_KEY)) {
+            return encodedMetadata;
+        }
+        StringBuilder result = new StringBuilder(encodedMetadata.length());
+        for (String pair : encodedMetadata.split(",")) {
+            String trimmed = pair.trim();
+            if (trimmed.equals(DIGEST_METADATA_KEY) || trimmed.startsWith(DIGEST_METADATA_KEY + " ")) {
+                continue;
+            }
+            if (!result.isEmpty()) {
+                result.append(',');
+            }
+            result.append(trimmed);
+        }
+        return result.toString();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " digest is not cloneable", e);
+        }
+    }
+
+    private static class DigestState {
+        MessageDigest digest;
+        long offset;
+        // 직전 PATCH 시작 시점 상태 (마지막 청크 되돌리기용)
+        MessageDigest previous;
+        long previousOffset;
+    }
+
+    /**
+     * 읽은 바이트를 다이제스트에 반영하는 스트림 (읽기 버퍼를 그대로 사용, 추가 할당 없음)
+     */
+    private static class DigestingInputStream extends FilterInputStream {
+
+        private final MessageDigest digest;
+        private long count;
+
+        DigestingInputStream(InputStream in, MessageDigest digest) {
+            super(in);
+            this.digest = digest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                digest.update((byte) b);
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                digest.update(b, off, n);
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // 건너뛴 바이트는 다이제스트에 반영할 수 없으므로 읽어서 버린다.
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.furence.tus.demo.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.exception.UploadNotFoundException;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadLockingService;
+import me.desair.tus.server.upload.UploadStorageService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 만료 인덱스를 유지하는 저장소 데코레이터 (가장 바깥에 둔다)
+ * - 업로드 정보가 기록될 때마다 만료 시각을 인덱스에 반영한다.
+ * - 만료 정리는 업로드 디렉토리 전체를 훑지 않고 만료 시각이 지난 항목만 처리한다.
+ *   한 번에 처리하는 건수/시간은 maxPerTick, maxTickDuration 으로 제한한다.
+ * - 보존 대상(완료 후처리를 기다리는 업로드 등)은 만료되어도 지우지 않고 뒤로 미룬다.
+ */
+@Slf4j
+public class ExpiryIndexedUploadStorageService extends DelegatingUploadStorageService {
+
+    private final UploadExpiryIndex expiryIndex = new UploadExpiryIndex();
+    private final Path uploadDirectory;
+    private final int maxPerTick;
+    private final Duration maxTickDuration;
+    // 잠겨 있는 업로드는 이만큼 뒤에 다시 확인
+    private final Duration lockedRetryDelay;
+    private volatile Predicate<UploadId> retention = id -> false;
+
+    public record CleanupResult(int reclaimed, long bytesFreed, int deferred, boolean exhausted) {
+    }
+
+    public ExpiryIndexedUploadStorageService(UploadStorageService delegate, Path uploadDirectory, int maxPerTick,
+                                             Duration maxTickDuration, Duration lockedRetryDelay) {
+        super(delegate);
+        this.uploadDirectory = uploadDirectory;
+        this.maxPerTick = maxPerTick;
+        this.maxTickDuration = maxTickDuration;
+        this.lockedRetryDelay = lockedRetryDelay;
+    }
+
+    /**
+     * 만료되어도 정리하지 않을 업로드 (잠긴 업로드와 같은 간격으로 다시 확인)
+     */
+    public void setRetention(Predicate<UploadId> retention) {
+        this.retention = retention;
+    }
+
+    public int getIndexSize() {
+        return expiryIndex.size();
+    }
+
+    @Override
+    public UploadInfo create(UploadInfo info, String ownerKey) throws IOException {
+        UploadInfo created = delegate.create(info, ownerKey);
+        index(created);
+        return created;
+    }
+
+    @Override
+    public void update(UploadInfo uploadInfo) throws IOException, UploadNotFoundException {
+        delegate.update(uploadInfo);
+        index(uploadInfo);
+    }
+
+    @Override
+    public UploadInfo append(UploadInfo upload, InputStream inputStream) throws IOException, TusException {
+        try {
+            return delegate.append(upload, inputStream);
+        } finally {
+            index(upload);
+        }
+    }
+
+    @Override
+    public void terminateUpload(UploadInfo uploadInfo) throws UploadNotFoundException, IOException {
+        delegate.terminateUpload(uploadInfo);
+        if (uploadInfo != null && uploadInfo.getId() != null) {
+            expiryIndex.remove(uploadInfo.getId().toString());
+        }
+    }
+
+    @Override
+    public void cleanupExpiredUploads(UploadLockingService uploadLockingService) throws IOException {
+        cleanupDue(uploadLockingService);
+    }
+
+    /**
+     * 만료 시각이 지난 업로드 정리 (건수/시간 한도 내에서)
+     */
+    public CleanupResult cleanupDue(UploadLockingService uploadLockingService) throws IOException {
+        long deadline = System.nanoTime() + maxTickDuration.toNanos();
+        long now = System.currentTimeMillis();
+        List<UploadExpiryIndex.Entry> due = expiryIndex.pollDue(now, maxPerTick);
+
+        int reclaimed = 0;
+        int deferred = 0;
+        long bytesFreed = 0;
+        for (int i = 0; i < due.size(); i++) {
+            UploadExpiryIndex.Entry entry = due.get(i);
+            if (System.nanoTime() > deadline) {
+                // 시간 한도 초과, 남은 항목은 다음 주기에 처리
+                due.subList(i, due.size()).forEach(rest -> expiryIndex.schedule(rest.id(), rest.expiresAt()));
+                return new CleanupResult(reclaimed, bytesFreed, deferred, false);
+            }
+
+            // 인덱스는 힌트일 뿐이므로 최신 정보로 다시 확인한다.
+            UploadInfo info = delegate.getUploadInfo(entry.id());
+            if (info == null) {
+                continue;
+            }
+            if (!info.isExpired()) {
+                index(info);
+                continue;
+            }
+            if (retention.test(info.getId()) || uploadLockingService.isLocked(info.getId())) {
+                expiryIndex.schedule(info.getId(), now + lockedRetryDelay.toMillis());
+                deferred++;
+                continue;
+            }
+
+            try {
+                long size = info.getOffset() != null ? info.getOffset() : 0;
+                terminateUpload(info);
+                reclaimed++;
+                bytesFreed += size;
+            } catch (TusException e) {
+                log.warn("Failed to terminate expired upload. id={}, error={}", info.getId(), e.getMessage());
+            }
+        }
+        return new CleanupResult(reclaimed, bytesFreed, deferred, due.size() < maxPerTick);
+    }
+
+    /**
+     * 기동 시 기존 업로드의 만료 시각을 인덱스에 채운다. (디렉토리 1회 조회)
+     */
+    public int rebuildIndex() throws IOException {
+        if (!Files.isDirectory(uploadDirectory)) {
+            return 0;
+        }
+
+        int indexed = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(uploadDirectory, Files::isDirectory)) {
+            for (Path directory : stream) {
+                UploadInfo info = delegate.getUploadInfo(new UploadId(directory.getFileName().toString()));
+                if (info != null && info.getExpirationTimestamp() != null) {
+                    expiryIndex.schedule(info.getId(), info.getExpirationTimestamp());
+                    indexed++;
+                }
+            }
+        }
+        return indexed;
+    }
+
+    private void index(UploadInfo info) {
+        if (info != null && info.getId() != null) {
+            expiryIndex.schedule(info.getId(), info.getExpirationTimestamp());
+        }
+    }
+}
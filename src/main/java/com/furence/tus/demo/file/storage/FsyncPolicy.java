@@ -0,0 +1,13 @@
+package com.furence.tus.demo.file.storage;
+
+/**
+ * 업로드 데이터/메타데이터 fsync 시점
+ */
+public enum FsyncPolicy {
+    /** PATCH 마다 fsync (기본 DiskStorageService 와 동일한 내구성) */
+    CHUNK,
+    /** 업로드가 끝나는 PATCH 에서만 fsync (재기동 시 offset 을 데이터 크기에 맞춰 복구) */
+    COMPLETION,
+    /** fsync 하지 않음 (OS 에 맡김) */
+    NONE
+}
@@ -0,0 +1,76 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.exception.UploadAlreadyLockedException;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadLock;
+import me.desair.tus.server.upload.UploadLockingService;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM 내부 업로드 락 (lock 파일 생성/삭제 없이 ConcurrentHashMap 으로 관리)
+ * 같은 스토리지 디렉토리를 여러 프로세스가 함께 쓰는 구성에서는 사용하지 않는다.
+ */
+public class InMemoryUploadLockingService implements UploadLockingService {
+
+    private final ConcurrentHashMap<String, LocalUploadLock> locks = new ConcurrentHashMap<>();
+
+    private UploadIdFactory idFactory;
+
+    @Override
+    public UploadLock lockUploadByUri(String requestURI) throws TusException {
+        UploadId id = idFactory.readUploadId(requestURI);
+        if (id == null) {
+            return null;
+        }
+
+        LocalUploadLock lock = new LocalUploadLock(requestURI, id.toString());
+        if (locks.putIfAbsent(lock.key, lock) != null) {
+            throw new UploadAlreadyLockedException("Upload " + requestURI + " is already locked");
+        }
+        return lock;
+    }
+
+    @Override
+    public void cleanupStaleLocks() {
+        // 프로세스가 죽으면 락도 함께 사라지므로 정리할 것이 없다.
+    }
+
+    @Override
+    public boolean isLocked(UploadId id) {
+        return id != null && locks.containsKey(id.toString());
+    }
+
+    @Override
+    public void setIdFactory(UploadIdFactory idFactory) {
+        this.idFactory = idFactory;
+    }
+
+    private class LocalUploadLock implements UploadLock {
+
+        private final String uploadUri;
+        private final String key;
+
+        LocalUploadLock(String uploadUri, String key) {
+            this.uploadUri = uploadUri;
+            this.key = key;
+        }
+
+        @Override
+        public String getUploadUri() {
+            return uploadUri;
+        }
+
+        @Override
+        public void release() {
+            locks.remove(key, this);
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.furence.tus.demo.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.upload.UploadInfo;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 단일 인덱스 파일 기반 UploadInfo 저장소 (append-only 로그 + 메모리 맵)
+ * - 레코드: [length:int][crc32:int][type:byte][keyLength:short][key][serialized UploadInfo]
+ * - 조회는 메모리에서 처리하고, 변경은 파일 끝에 레코드를 덧붙인다.
+ *   역직렬화한 UploadInfo 를 함께 두어 조회마다 Java 역직렬화를 하지 않고 필드 복사한 사본을 돌려준다.
+ *   (기동 시 읽은 레코드는 처음 조회할 때 역직렬화)
+ * - 기동 시 로그를 재생하며, 마지막에 잘린 레코드는 버린다.
+ * - 죽은 레코드가 많아지면 살아있는 레코드만 새 파일로 옮겨 압축한다.
+ * - fsync 는 writeLock 밖에서 하며, 그동안 다른 요청이 덧붙인 레코드는 다음 fsync 한 번으로 함께 반영한다. (group commit)
+ */
+@Slf4j
+public class IndexFileUploadInfoStore implements UploadInfoStore {
+
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_REMOVE = 2;
+    // crc32 + type + keyLength
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Short.BYTES;
+    private static final long COMPACT_MIN_BYTES = 8L * 1024 * 1024;
+
+    private final Path indexPath;
+    private final Map<String, Entry> infos = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile FileChannel channel;
+    private long fileBytes;
+    private long liveBytes;
+
+    // 덧붙인 레코드 수 / fsync 로 반영된 레코드 수 (fsync 중인 스레드 하나가 그때까지 덧붙인 레코드를 한 번에 반영)
+    private volatile long appendedRecords;
+    private volatile long forcedRecords;
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final Condition forceDone = forceLock.newCondition();
+    private boolean forcing;
+
+    public IndexFileUploadInfoStore(Path indexPath) throws IOException {
+        this.indexPath = indexPath;
+        Files.createDirectories(indexPath.getParent());
+        load();
+    }
+
+    @Override
+    public UploadInfo get(String key) {
+        Entry entry = key != null ? infos.get(key) : null;
+        // 호출 측에서 수정해도 저장본에 영향이 없도록 사본을 돌려준다.
+        return entry != null ? UploadInfoCopier.copy(entry.info()) : null;
+    }
+
+    @Override
+    public void put(UploadInfo info, boolean sync) throws IOException {
+        String key = info.getId().toString();
+        byte[] serialized = SerializationUtils.serialize(info);
+        Entry entry = new Entry(serialized, UploadInfoCopier.copy(info));
+
+        long record;
+        writeLock.lock();
+        try {
+            int recordSize = append(TYPE_PUT, key, serialized);
+            record = appendedRecords;
+            Entry previous = infos.put(key, entry);
+            liveBytes += recordSize - (previous != null ? recordSize(key, previous.serialized()) : 0);
+            compactIfNeeded();
+        } finally {
+            writeLock.unlock();
+        }
+        if (sync) {
+            force(record);
+        }
+    }
+
+    @Override
+    public void remove(String key) throws IOException {
+        writeLock.lock();
+        try {
+            Entry previous = infos.remove(key);
+            if (previous == null) {
+                return;
+            }
+            append(TYPE_REMOVE, key, new byte[0]);
+            liveBytes -= recordSize(key, previous.serialized());
+            compactIfNeeded();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Collection<String> keys() {
+        return new ArrayList<>(infos.keySet());
+    }
+
+    @Override
+    public void sync() throws IOException {
+        force(appendedRecords);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            awaitForce();
+            try {
+                if (channel != null && channel.isOpen()) {
+                    channel.force(false);
+                    channel.close();
+                }
+            } finally {
+                forceLock.unlock();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * record 번호까지 디스크에 반영될 때까지 대기
+     * fsync 중인 스레드가 없으면 직접 그때까지 덧붙인 레코드 전체를 fsync 하고, 있으면 끝나기를 기다렸다가 다시 확인한다.
+     */
+    private void force(long record) throws IOException {
+        if (forcedRecords >= record) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            while (forcedRecords < record) {
+                if (forcing) {
+                    forceDone.awaitUninterruptibly();
+                    continue;
+                }
+                forcing = true;
+                long target = appendedRecords;
+                FileChannel forced = channel;
+                boolean done = false;
+                forceLock.unlock();
+                try {
+                    forced.force(false);
+                    done = true;
+                } finally {
+                    forceLock.lock();
+                    forcing = false;
+                    if (done && forcedRecords < target) {
+                        forcedRecords = target;
+                    }
+                    forceDone.signalAll();
+                }
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * 진행 중인 fsync 가 끝날 때까지 기다린 뒤 forceLock 을 잡은 채 반환 (채널 교체/닫기 전)
+     */
+    private void awaitForce() {
+        forceLock.lock();
+        while (forcing) {
+            forceDone.awaitUninterruptibly();
+        }
+    }
+
+    private int append(byte type, String key, byte[] payload) throws IOException {
+        ByteBuffer record = encode(type, key, payload);
+        int recordSize = record.remaining();
+        long position = fileBytes;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        fileBytes = position;
+        appendedRecords++;
+        return recordSize;
+    }
+
+    private ByteBuffer encode(byte type, String key, byte[] payload) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = Byte.BYTES + Short.BYTES + keyBytes.length + payload.length;
+
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + Integer.BYTES + bodyLength);
+        record.putInt(Integer.BYTES + bodyLength);
+        record.putInt(0);
+        record.put(type);
+        record.putShort((short) keyBytes.length);
+        record.put(keyBytes);
+        record.put(payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), Integer.BYTES * 2, bodyLength);
+        record.putInt(Integer.BYTES, (int) crc.getValue());
+        return record.flip();
+    }
+
+    private int recordSize(String key, byte[] payload) {
+        return Integer.BYTES + RECORD_HEADER_SIZE + key.getBytes(StandardCharsets.UTF_8).length + payload.length;
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long validBytes = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(indexPath), 64 * 1024);
+             DataInputStream data = new DataInputStream(in)) {
+            while (true) {
+                int length;
+                try {
+                    length = data.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < RECORD_HEADER_SIZE) {
+                    break;
+                }
+
+                byte[] body = new byte[length];
+                try {
+                    data.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (!replay(body)) {
+                    break;
+                }
+                validBytes += Integer.BYTES + length;
+            }
+        }
+
+        if (validBytes < channel.size()) {
+            // 기록 도중 종료되어 잘린 레코드
+            log.warn("Truncating torn tail of upload info index. path={}, validBytes={}, size={}",
+                    indexPath, validBytes, channel.size());
+            channel.truncate(validBytes);
+            channel.force(false);
+        }
+
+        fileBytes = validBytes;
+        liveBytes = 0;
+        infos.forEach((key, entry) -> liveBytes += recordSize(key, entry.serialized()));
+        log.info("Loaded upload info index. path={}, uploads={}, bytes={}", indexPath, infos.size(), fileBytes);
+    }
+
+    private boolean replay(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        int storedCrc = buffer.getInt();
+
+        CRC32 crc = new CRC32();
+        crc.update(body, Integer.BYTES, body.length - Integer.BYTES);
+        if ((int) crc.getValue() != storedCrc) {
+            return false;
+        }
+
+        byte type = buffer.get();
+        byte[] keyBytes = new byte[buffer.getShort()];
+        buffer.get(keyBytes);
+        String key = new String(keyBytes, StandardCharsets.UTF_8);
+
+        if (type == TYPE_PUT) {
+            byte[] payload = new byte[buffer.remaining()];
+            buffer.get(payload);
+            infos.put(key, new Entry(payload, null));
+        } else if (type == TYPE_REMOVE) {
+            infos.remove(key);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (fileBytes < COMPACT_MIN_BYTES || fileBytes < liveBytes * 2) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long before = fileBytes;
+        Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, Entry> entry : infos.entrySet()) {
+                ByteBuffer record = encode(TYPE_PUT, entry.getKey(), entry.getValue().serialized());
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+
+        awaitForce();
+        try {
+            channel.close();
+            Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // 새 파일은 살아있는 레코드 전체를 fsync 했으므로 이전 레코드는 모두 반영된 것으로 본다.
+            forcedRecords = appendedRecords;
+        } finally {
+            forceLock.unlock();
+        }
+        fileBytes = channel.size();
+        liveBytes = fileBytes;
+
+        log.info("Compacted upload info index. before={}, after={}, took={}ms",
+                before, fileBytes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 저장된 레코드 (직렬화 값 + 역직렬화한 UploadInfo, 호출 측에 그대로 넘기지 않는다)
+     */
+    private static final class Entry {
+
+        private final byte[] serialized;
+        private volatile UploadInfo info;
+
+        Entry(byte[] serialized, UploadInfo info) {
+            this.serialized = serialized;
+            this.info = info;
+        }
+
+        byte[] serialized() {
+            return serialized;
+        }
+
+        UploadInfo info() {
+            UploadInfo decoded = info;
+            if (decoded == null) {
+                // 동시에 처음 조회되면 각자 역직렬화할 수 있지만 결과는 같다.
+                decoded = SerializationUtils.deserialize(serialized);
+                info = decoded;
+            }
+            return decoded;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.furence.tus.demo.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.exception.UploadAlreadyLockedException;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadLock;
+import me.desair.tus.server.upload.UploadLockingService;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DB(tus_upload_lock) 기반 업로드 락 (cluster 구성)
+ * - 락은 만료 시각이 있는 lease 행이다. 행이 없거나 만료된 경우에만 upsert 로 가져온다.
+ * - 잡고 있는 동안 lease 의 1/3 주기로 만료 시각을 연장하고, 노드가 죽으면 lease 만료 후 다른 노드가 가져간다.
+ * - PATCH 는 수 분간 락을 잡으므로 커넥션에 묶이는 세션 advisory lock 대신 행 단위 lease 를 쓴다.
+ *   (락을 잡는 동안 커넥션을 점유하지 않는다.)
+ * - 시각 비교는 모두 DB 의 now() 로 하므로 노드 간 시계 차이에 영향받지 않는다.
+ * - lease 를 잃으면(연장 실패, GC 중단 등으로 만료 후 다른 노드가 가져감) PATCH 는 기록을 멈추고
+ *   offset 을 반영하지 않는다. (UploadLeaseGuard)
+ */
+@Slf4j
+public class JdbcLeaseUploadLockingService implements UploadLockingService, UploadLeaseGuard, Closeable {
+
+    private static final String CREATE_TABLE = """
+            create table if not exists tus_upload_lock (
+                upload_key varchar(128) primary key,
+                owner_id varchar(255) not null,
+                expires_at timestamp not null
+            )""";
+    private static final String ACQUIRE_LOCK = """
+            insert into tus_upload_lock (upload_key, owner_id, expires_at)
+            values (?, ?, now() + make_interval(secs => ?))
+            on conflict (upload_key) do update set owner_id = excluded.owner_id, expires_at = excluded.expires_at
+            where tus_upload_lock.expires_at < now()""";
+    private static final String RENEW_LOCK = """
+            update tus_upload_lock set expires_at = now() + make_interval(secs => ?)
+            where upload_key = ? and owner_id = ?""";
+    private static final String RELEASE_LOCK = "delete from tus_upload_lock where upload_key = ? and owner_id = ?";
+    private static final String IS_LOCKED = "select count(*) from tus_upload_lock where upload_key = ? and expires_at > now()";
+    private static final String DELETE_STALE_LOCKS = "delete from tus_upload_lock where expires_at < now()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String ownerId;
+    private final double leaseSeconds;
+    private final Map<String, LeaseUploadLock> heldLocks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer;
+
+    private UploadIdFactory idFactory;
+
+    public JdbcLeaseUploadLockingService(JdbcTemplate jdbcTemplate, String nodeId, long leaseMillis,
+                                         ThreadFactory threadFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        // 재기동한 노드가 이전 프로세스의 락을 자기 것으로 보지 않도록 실행마다 다른 값을 붙인다.
+        this.ownerId = nodeId + ":" + UUID.randomUUID();
+        this.leaseSeconds = leaseMillis / 1000.0;
+        jdbcTemplate.execute(CREATE_TABLE);
+
+        long renewMillis = Math.max(1, leaseMillis / 3);
+        this.renewer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.renewer.scheduleWithFixedDelay(this::renewHeldLocks, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public UploadLock lockUploadByUri(String requestURI) throws TusException {
+        UploadId id = idFactory.readUploadId(requestURI);
+        if (id == null) {
+            return null;
+        }
+
+        String key = id.toString();
+        if (jdbcTemplate.update(ACQUIRE_LOCK, key, ownerId, leaseSeconds) == 0) {
+            throw new UploadAlreadyLockedException("Upload " + requestURI + " is already locked");
+        }
+        LeaseUploadLock lock = new LeaseUploadLock(requestURI, key);
+        heldLocks.put(key, lock);
+        return lock;
+    }
+
+    @Override
+    public void cleanupStaleLocks() {
+        int deleted = jdbcTemplate.update(DELETE_STALE_LOCKS);
+        if (deleted > 0) {
+            log.info("Deleted {} expired upload locks", deleted);
+        }
+    }
+
+    @Override
+    public boolean isLocked(UploadId id) {
+        if (id == null) {
+            return false;
+        }
+        Integer count = jdbcTemplate.queryForObject(IS_LOCKED, Integer.class, id.toString());
+        return count != null && count > 0;
+    }
+
+    @Override
+    public boolean isHeld(UploadId id) {
+        return id != null && heldLocks.containsKey(id.toString());
+    }
+
+    @Override
+    public boolean confirmHeld(UploadId id) {
+        if (id == null) {
+            return false;
+        }
+        LeaseUploadLock lock = heldLocks.get(id.toString());
+        if (lock == null) {
+            return false;
+        }
+        // 연장은 owner 가 같을 때만 되므로, 성공하면 지금 이 노드의 락이다.
+        if (jdbcTemplate.update(RENEW_LOCK, leaseSeconds, lock.key, ownerId) == 0) {
+            log.warn("Lost upload lock lease. uploadKey={}", lock.key);
+            heldLocks.remove(lock.key, lock);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void setIdFactory(UploadIdFactory idFactory) {
+        this.idFactory = idFactory;
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+        for (LeaseUploadLock lock : heldLocks.values()) {
+            lock.release();
+        }
+    }
+
+    private void renewHeldLocks() {
+        for (LeaseUploadLock lock : heldLocks.values()) {
+            try {
+                if (jdbcTemplate.update(RENEW_LOCK, leaseSeconds, lock.key, ownerId) == 0) {
+                    // lease 가 만료되어 다른 노드가 가져간 경우, 이 노드의 PATCH 는 다음 기록에서 멈춘다. (isHeld)
+                    log.warn("Lost upload lock lease. uploadKey={}", lock.key);
+                    heldLocks.remove(lock.key, lock);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Failed to renew upload lock lease. uploadKey={}, error={}", lock.key, e.getMessage());
+            }
+        }
+    }
+
+    private class LeaseUploadLock implements UploadLock {
+
+        private final String uploadUri;
+        private final String key;
+
+        LeaseUploadLock(String uploadUri, String key) {
+            this.uploadUri = uploadUri;
+            this.key = key;
+        }
+
+        @Override
+        public String getUploadUri() {
+            return uploadUri;
+        }
+
+        @Override
+        public void release() {
+            if (heldLocks.remove(key, this)) {
+                try {
+                    jdbcTemplate.update(RELEASE_LOCK, key, ownerId);
+                } catch (DataAccessException e) {
+                    // 지우지 못한 락은 lease 만료 후 정리된다.
+                    log.warn("Failed to release upload lock. uploadKey={}, error={}", key, e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadInfo;
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * DB(tus_upload_info) 기반 UploadInfo 저장소 (cluster 구성)
+ * - 여러 노드가 같은 업로드 정보를 보도록 UploadInfo 를 직렬화해 한 행으로 둔다.
+ * - 변경은 upsert 한 번이며, 트랜잭션 커밋으로 반영되므로 sync 는 할 일이 없다.
+ */
+public class JdbcUploadInfoStore implements UploadInfoStore {
+
+    private static final String CREATE_TABLE = """
+            create table if not exists tus_upload_info (
+                upload_key varchar(128) primary key,
+                info bytea not null,
+                updated_at timestamp not null default now()
+            )""";
+    private static final String SELECT_INFO = "select info from tus_upload_info where upload_key = ?";
+    private static final String UPSERT_INFO = """
+            insert into tus_upload_info (upload_key, info, updated_at) values (?, ?, now())
+            on conflict (upload_key) do update set info = excluded.info, updated_at = excluded.updated_at""";
+    private static final String DELETE_INFO = "delete from tus_upload_info where upload_key = ?";
+    private static final String SELECT_KEYS = "select upload_key from tus_upload_info";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcUploadInfoStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public UploadInfo get(String key) {
+        if (key == null) {
+            return null;
+        }
+        List<byte[]> rows = jdbcTemplate.query(SELECT_INFO, (rs, rowNum) -> rs.getBytes(1), key);
+        return rows.isEmpty() ? null : SerializationUtils.deserialize(rows.get(0));
+    }
+
+    @Override
+    public void put(UploadInfo info, boolean sync) {
+        jdbcTemplate.update(UPSERT_INFO, info.getId().toString(), SerializationUtils.serialize(info));
+    }
+
+    @Override
+    public void remove(String key) {
+        jdbcTemplate.update(DELETE_INFO, key);
+    }
+
+    @Override
+    public Collection<String> keys() {
+        return jdbcTemplate.queryForList(SELECT_KEYS, String.class);
+    }
+
+    @Override
+    public void sync() {
+        // 매 변경이 커밋되므로 따로 반영할 것이 없다.
+    }
+
+    @Override
+    public void close() {
+        // 커넥션은 DataSource 가 관리한다.
+    }
+}
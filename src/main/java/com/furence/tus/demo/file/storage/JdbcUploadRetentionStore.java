@@ -0,0 +1,59 @@
+package com.furence.tus.demo.file.storage;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+
+/**
+ * DB(tus_upload_retention) 기반 보존 목록 (cluster 구성)
+ * - 완료 후처리가 끝날 때까지 TUS 데이터를 남겨야 하는 업로드를 모든 노드가 보도록 한 행씩 둔다.
+ *   (만료 정리는 어느 노드에서든 돌 수 있으므로 노드별 저널만으로는 다른 노드의 진행 중 작업을 알 수 없다)
+ * - 행의 주인은 작업을 기록한 노드(node-id)이며, 노드가 재기동하면 저널에 남은 작업 기준으로 자기 행을 다시 맞춘다.
+ */
+public class JdbcUploadRetentionStore {
+
+    private static final String CREATE_TABLE = """
+            create table if not exists tus_upload_retention (
+                upload_key varchar(128) primary key,
+                owner_id varchar(255) not null,
+                created_at timestamp not null default now()
+            )""";
+    private static final String INSERT_RETENTION = """
+            insert into tus_upload_retention (upload_key, owner_id) values (?, ?)
+            on conflict do nothing""";
+    private static final String DELETE_RETENTION = "delete from tus_upload_retention where upload_key = ? and owner_id = ?";
+    private static final String DELETE_OWNED = "delete from tus_upload_retention where owner_id = ?";
+    private static final String IS_RETAINED = "select count(*) from tus_upload_retention where upload_key = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String ownerId;
+
+    public JdbcUploadRetentionStore(JdbcTemplate jdbcTemplate, String nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownerId = nodeId;
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    public void retain(Collection<String> keys) {
+        jdbcTemplate.batchUpdate(INSERT_RETENTION, keys.stream().map(key -> new Object[]{key, ownerId}).toList());
+    }
+
+    public void release(Collection<String> keys) {
+        jdbcTemplate.batchUpdate(DELETE_RETENTION, keys.stream().map(key -> new Object[]{key, ownerId}).toList());
+    }
+
+    /**
+     * 이 노드의 행을 keys 로 교체 (재기동 시 저널 재생 후, 기록 도중 중단되어 남은 행 정리)
+     */
+    public void reset(Collection<String> keys) {
+        jdbcTemplate.update(DELETE_OWNED, ownerId);
+        if (!keys.isEmpty()) {
+            retain(keys);
+        }
+    }
+
+    public boolean isRetained(String key) {
+        Integer count = jdbcTemplate.queryForObject(IS_RETAINED, Integer.class, key);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,449 @@
+package com.furence.tus.demo.file.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import me.desair.tus.server.exception.InvalidUploadOffsetException;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.exception.UploadAlreadyLockedException;
+import me.desair.tus.server.exception.UploadNotFoundException;
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadLockingService;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.UploadType;
+import me.desair.tus.server.upload.concatenation.UploadConcatenationService;
+import me.desair.tus.server.upload.concatenation.VirtualConcatenationService;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * FileChannel 기반 업로드 저장소
+ * - PATCH 본문을 풀링된 direct 버퍼로 받아 위치 지정 FileChannel.write 로 기록한다.
+ *   본문이 ReadableByteChannel 이면 direct 버퍼로 바로 읽는다. (tus-java-server 는 PATCH 본문을 commons-io
+ *   CountingInputStream 으로 감싸 넘기므로 이 경우는 heap 배열로 읽은 뒤 direct 버퍼로 한 번 복사한다)
+ * - fsync 시점은 FsyncPolicy 로 지정한다. (기본 DiskStorageService 는 PATCH 마다 force(true))
+ * - UploadInfo 는 업로드별 info 파일 대신 UploadInfoStore(단일 인덱스 파일)에 둔다.
+ * - 데이터 파일 위치는 기본 저장소와 같다. ({storage}/uploads/{id}/data)
+ * - sharedStorage 이면 여러 노드가 같은 디렉토리/저장소를 쓰므로 기동 시 offset 보정과 info 파일 이관을 하지 않는다.
+ *   (다른 노드가 기록 중인 업로드를 잘라낼 수 있다.) 어긋난 offset 은 다음 PATCH 의 offset 검사에서 데이터 크기로 맞춰진다.
+ * - leaseGuard 가 있으면 락(lease)을 잃은 PATCH 는 기록을 멈추고 offset 을 반영하지 않는다. (423)
+ */
+@Slf4j
+public class NioUploadStorageService implements UploadStorageService, Closeable {
+
+    private static final String UPLOAD_SUB_DIRECTORY = "uploads";
+    private static final String DATA_FILE = "data";
+    private static final String LEGACY_INFO_FILE = "info";
+
+    private final Path uploadDirectory;
+    private final UploadInfoStore infoStore;
+    private final FsyncPolicy fsyncPolicy;
+    private final ChunkBufferPool bufferPool;
+    private final UploadLeaseGuard leaseGuard;
+    private final ReentrantLock idLock = new ReentrantLock();
+
+    private Long maxUploadSize;
+    private Long uploadExpirationPeriod;
+    private UploadIdFactory idFactory;
+    private UploadConcatenationService uploadConcatenationService;
+
+    public NioUploadStorageService(String storagePath, UploadInfoStore infoStore, FsyncPolicy fsyncPolicy,
+                                   int bufferSize) throws IOException {
+        this(storagePath, infoStore, fsyncPolicy, bufferSize, false, null);
+    }
+
+    /**
+     * @param sharedStorage 여러 노드가 함께 쓰는 저장소인지
+     * @param leaseGuard    PATCH 중 락 보유 확인 (없으면 null)
+     */
+    public NioUploadStorageService(String storagePath, UploadInfoStore infoStore, FsyncPolicy fsyncPolicy,
+                                   int bufferSize, boolean sharedStorage, UploadLeaseGuard leaseGuard)
+            throws IOException {
+        this.uploadDirectory = uploadDirectory(storagePath);
+        this.infoStore = infoStore;
+        this.fsyncPolicy = fsyncPolicy;
+        this.leaseGuard = leaseGuard;
+        this.bufferPool = new ChunkBufferPool(bufferSize, Runtime.getRuntime().availableProcessors() * 4);
+        this.uploadConcatenationService = new VirtualConcatenationService(this);
+
+        Files.createDirectories(uploadDirectory);
+        if (!sharedStorage) {
+            importLegacyInfoFiles();
+            reconcileOffsets();
+        }
+    }
+
+    /**
+     * 업로드 디렉토리 ({storage}/uploads, 기본 DiskStorageService 와 같은 구성)
+     */
+    public static Path uploadDirectory(String storagePath) {
+        return Paths.get(storagePath, UPLOAD_SUB_DIRECTORY);
+    }
+
+    /**
+     * 업로드 data 파일 경로 ({storage}/uploads/{id}/data)
+     * - data 파일을 직접 읽는 데코레이터와 완료 후처리도 이 경로를 쓴다.
+     */
+    public static Path dataPath(Path uploadDirectory, UploadId id) {
+        return uploadDirectory.resolve(id.toString()).resolve(DATA_FILE);
+    }
+
+    @Override
+    public void setIdFactory(UploadIdFactory idFactory) {
+        this.idFactory = Objects.requireNonNull(idFactory, "The IdFactory cannot be null");
+    }
+
+    @Override
+    public void setMaxUploadSize(Long maxUploadSize) {
+        this.maxUploadSize = (maxUploadSize != null && maxUploadSize > 0) ? maxUploadSize : 0L;
+    }
+
+    @Override
+    public long getMaxUploadSize() {
+        return maxUploadSize == null ? 0 : maxUploadSize;
+    }
+
+    @Override
+    public UploadInfo getUploadInfo(String uploadUrl, String ownerKey) throws IOException {
+        UploadInfo uploadInfo = getUploadInfo(idFactory.readUploadId(uploadUrl));
+        if (uploadInfo == null || !Objects.equals(uploadInfo.getOwnerKey(), ownerKey)) {
+            return null;
+        }
+        return uploadInfo;
+    }
+
+    @Override
+    public UploadInfo getUploadInfo(UploadId id) throws IOException {
+        return id != null ? infoStore.get(id.toString()) : null;
+    }
+
+    @Override
+    public String getUploadUri() {
+        return idFactory.getUploadUri();
+    }
+
+    @Override
+    public UploadInfo create(UploadInfo info, String ownerKey) throws IOException {
+        UploadId id = createNewId();
+
+        Path dataPath = dataPath(id);
+        Files.createDirectories(dataPath.getParent());
+        Files.createFile(dataPath);
+
+        info.setId(id);
+        info.setOffset(0L);
+        info.setOwnerKey(ownerKey);
+        infoStore.put(info, fsyncPolicy == FsyncPolicy.CHUNK);
+        return info;
+    }
+
+    @Override
+    public void update(UploadInfo info) throws IOException, UploadNotFoundException {
+        if (info == null || info.getId() == null) {
+            throw new UploadNotFoundException("The upload cannot be found");
+        }
+        infoStore.put(info, fsyncPolicy == FsyncPolicy.CHUNK);
+    }
+
+    @Override
+    public UploadInfo append(UploadInfo info, InputStream inputStream) throws IOException, TusException {
+        if (info == null) {
+            return null;
+        }
+
+        long offset = info.getOffset();
+        long limit = getMaxUploadSize() > 0 ? getMaxUploadSize() : Long.MAX_VALUE;
+        if (info.hasLength()) {
+            limit = Math.min(limit, info.getLength());
+        }
+
+        long position = offset;
+        boolean leaseLost = false;
+        ChunkBufferPool.ChunkBuffer buffer = bufferPool.acquire();
+        try (FileChannel channel = FileChannel.open(existingDataPath(info.getId()), StandardOpenOption.WRITE)) {
+            try {
+                if (channel.size() != offset) {
+                    throw new InvalidUploadOffsetException("The upload offset does not correspond to the written"
+                            + " bytes. You can only append to the end of an upload");
+                }
+
+                byte[] array = buffer.array();
+                ByteBuffer direct = buffer.direct();
+                // 채널로 읽을 수 있는 본문은 direct 버퍼로 바로 읽고, 그 외(InputStream)는 heap 배열을 거친다.
+                ReadableByteChannel source = inputStream instanceof ReadableByteChannel readable ? readable : null;
+                while (position < limit) {
+                    direct.clear().limit((int) Math.min(direct.capacity(), limit - position));
+                    int read;
+                    if (source != null) {
+                        read = source.read(direct);
+                    } else {
+                        read = inputStream.read(array, 0, direct.limit());
+                        if (read > 0) {
+                            direct.put(array, 0, read);
+                        }
+                    }
+                    if (read < 0) {
+                        break;
+                    }
+                    if (leaseGuard != null && !leaseGuard.isHeld(info.getId())) {
+                        throw new UploadAlreadyLockedException("Lost the lock of upload " + info.getId());
+                    }
+                    direct.flip();
+                    while (direct.hasRemaining()) {
+                        position += channel.write(direct, position);
+                    }
+                }
+
+                if (shouldSync(info, position)) {
+                    channel.force(false);
+                }
+            } catch (Exception e) {
+                // 기록된 만큼은 offset 에 반영해 이어 올리기가 가능하도록 한다.
+                position = channel.size();
+                throw e;
+            } finally {
+                info.setOffset(position);
+                // 다른 노드가 이어받은 업로드라면 그 노드의 offset/정보를 덮어쓰지 않는다.
+                if (leaseGuard == null || leaseGuard.confirmHeld(info.getId())) {
+                    infoStore.put(info, shouldSync(info, position));
+                } else {
+                    leaseLost = true;
+                }
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        if (leaseLost) {
+            throw new UploadAlreadyLockedException("Lost the lock of upload " + info.getId());
+        }
+        return info;
+    }
+
+    @Override
+    public void removeLastNumberOfBytes(UploadInfo info, long byteCount) throws UploadNotFoundException, IOException {
+        if (info == null || byteCount <= 0) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(existingDataPath(info.getId()), StandardOpenOption.WRITE)) {
+            channel.truncate(Math.max(0, channel.size() - byteCount));
+            channel.force(false);
+            info.setOffset(channel.size());
+        }
+        infoStore.put(info, fsyncPolicy != FsyncPolicy.NONE);
+    }
+
+    @Override
+    public void terminateUpload(UploadInfo info) throws IOException {
+        if (info == null || info.getId() == null) {
+            return;
+        }
+        FileUtils.deleteDirectory(dataPath(info.getId()).getParent().toFile());
+        infoStore.remove(info.getId().toString());
+    }
+
+    @Override
+    public Long getUploadExpirationPeriod() {
+        return uploadExpirationPeriod;
+    }
+
+    @Override
+    public void setUploadExpirationPeriod(Long uploadExpirationPeriod) {
+        this.uploadExpirationPeriod = uploadExpirationPeriod;
+    }
+
+    @Override
+    public void setUploadConcatenationService(UploadConcatenationService concatenationService) {
+        this.uploadConcatenationService = Objects.requireNonNull(concatenationService);
+    }
+
+    @Override
+    public UploadConcatenationService getUploadConcatenationService() {
+        return uploadConcatenationService;
+    }
+
+    @Override
+    public InputStream getUploadedBytes(String uploadUri, String ownerKey) throws IOException, UploadNotFoundException {
+        UploadId id = idFactory.readUploadId(uploadUri);
+        UploadInfo uploadInfo = getUploadInfo(id);
+        if (uploadInfo == null || !Objects.equals(uploadInfo.getOwnerKey(), ownerKey)) {
+            throw new UploadNotFoundException("The upload with id " + id + " could not be found for owner " + ownerKey);
+        }
+        return getUploadedBytes(id);
+    }
+
+    @Override
+    public InputStream getUploadedBytes(UploadId id) throws IOException, UploadNotFoundException {
+        UploadInfo uploadInfo = getUploadInfo(id);
+        if (uploadInfo == null) {
+            return null;
+        }
+        if (uploadInfo.getUploadType() == UploadType.CONCATENATED && uploadConcatenationService != null) {
+            return uploadConcatenationService.getConcatenatedBytes(uploadInfo);
+        }
+        if (uploadInfo.isUploadInProgress()) {
+            return null;
+        }
+        return Channels.newInputStream(FileChannel.open(existingDataPath(id), StandardOpenOption.READ));
+    }
+
+    @Override
+    public void copyUploadTo(UploadInfo info, OutputStream outputStream) throws UploadNotFoundException, IOException {
+        List<UploadInfo> uploads = info.getUploadType() == UploadType.CONCATENATED && uploadConcatenationService != null
+                ? uploadConcatenationService.getPartialUploads(info)
+                : Collections.singletonList(info);
+
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        for (UploadInfo upload : uploads) {
+            if (upload == null || upload.isUploadInProgress()) {
+                log.warn("Skipping unfinished upload part while copying. uploadId={}", info.getId());
+                continue;
+            }
+            try (FileChannel source = FileChannel.open(existingDataPath(upload.getId()), StandardOpenOption.READ)) {
+                long position = 0;
+                long length = upload.getLength();
+                while (position < length) {
+                    position += source.transferTo(position, length - position, target);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void cleanupExpiredUploads(UploadLockingService uploadLockingService) throws IOException {
+        for (String key : infoStore.keys()) {
+            UploadInfo info = infoStore.get(key);
+            if (info != null && info.isExpired() && !uploadLockingService.isLocked(info.getId())) {
+                terminateUpload(info);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        infoStore.close();
+    }
+
+    private boolean shouldSync(UploadInfo info, long position) {
+        return switch (fsyncPolicy) {
+            case CHUNK -> true;
+            case COMPLETION -> info.hasLength() && position == info.getLength();
+            case NONE -> false;
+        };
+    }
+
+    private UploadId createNewId() throws IOException {
+        // 저장소 조회(I/O) 중에 잡으므로 가상 스레드를 carrier 에 고정하지 않는 ReentrantLock 을 쓴다.
+        idLock.lock();
+        try {
+            UploadId id;
+            do {
+                id = idFactory.createId();
+            } while (getUploadInfo(id) != null);
+            return id;
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private Path dataPath(UploadId id) {
+        return dataPath(uploadDirectory, id);
+    }
+
+    private Path existingDataPath(UploadId id) throws UploadNotFoundException {
+        Path dataPath = id != null ? dataPath(id) : null;
+        if (dataPath == null || !Files.exists(dataPath)) {
+            throw new UploadNotFoundException("The upload for id " + id + " was not found.");
+        }
+        return dataPath;
+    }
+
+    /**
+     * 기본 저장소에서 전환한 경우 업로드별 info 파일을 인덱스로 옮긴다.
+     */
+    private void importLegacyInfoFiles() throws IOException {
+        int imported = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(uploadDirectory)) {
+            for (Path directory : stream) {
+                Path infoPath = directory.resolve(LEGACY_INFO_FILE);
+                if (!Files.isRegularFile(infoPath)) {
+                    continue;
+                }
+                try {
+                    UploadInfo info = SerializationUtils.deserialize(Files.readAllBytes(infoPath));
+                    if (infoStore.get(info.getId().toString()) == null) {
+                        infoStore.put(info, false);
+                        imported++;
+                    }
+                    Files.delete(infoPath);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to import legacy upload info. path={}", infoPath, e);
+                }
+            }
+        }
+        if (imported > 0) {
+            infoStore.sync();
+            log.info("Imported {} upload infos from per-upload info files", imported);
+        }
+    }
+
+    /**
+     * 재기동 시 인덱스의 offset 과 데이터 파일 크기를 맞춘다.
+     * (fsync 를 미룬 경우 둘 중 하나만 디스크에 남았을 수 있다.)
+     */
+    private void reconcileOffsets() throws IOException {
+        int fixed = 0;
+        for (String key : infoStore.keys()) {
+            UploadInfo info = infoStore.get(key);
+            if (info == null || info.getUploadType() == UploadType.CONCATENATED) {
+                continue;
+            }
+
+            Path dataPath = dataPath(info.getId());
+            if (!Files.exists(dataPath)) {
+                infoStore.remove(key);
+                fixed++;
+                continue;
+            }
+
+            long offset = info.getOffset() == null ? 0 : info.getOffset();
+            try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.WRITE)) {
+                long size = channel.size();
+                if (size == offset) {
+                    continue;
+                }
+                // 인덱스에 반영되지 않은 뒷부분은 버리고, 데이터가 모자라면 offset 을 줄인다.
+                if (size > offset) {
+                    channel.truncate(offset);
+                } else {
+                    info.setOffset(size);
+                    infoStore.put(info, false);
+                }
+                fixed++;
+            }
+        }
+        if (fixed > 0) {
+            infoStore.sync();
+            log.warn("Reconciled {} upload offsets with data files", fixed);
+        }
+    }
+}
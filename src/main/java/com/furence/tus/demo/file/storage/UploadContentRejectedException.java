@@ -0,0 +1,13 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.exception.TusException;
+
+/**
+ * 업로드 내용(앞부분 바이트)이 허용되지 않는 형식 (415 Unsupported Media Type)
+ */
+public class UploadContentRejectedException extends TusException {
+
+    public UploadContentRejectedException(String message) {
+        super(415, message);
+    }
+}
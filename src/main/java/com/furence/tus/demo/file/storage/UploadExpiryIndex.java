@@ -0,0 +1,76 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadId;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 업로드 만료 시각 인덱스 (만료 시각 순으로 정렬)
+ * 정리 시 전체 업로드를 훑지 않고 만료 시각이 지난 항목만 꺼낸다.
+ */
+public class UploadExpiryIndex {
+
+    private final NavigableSet<Entry> byExpiration = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Entry::expiresAt).thenComparing(Entry::key));
+    private final ConcurrentHashMap<String, Entry> byKey = new ConcurrentHashMap<>();
+
+    public record Entry(long expiresAt, String key, UploadId id) {
+    }
+
+    /**
+     * 만료 시각 등록/갱신 (expiresAt 이 null 이면 인덱스에서 제거)
+     */
+    public void schedule(UploadId id, Long expiresAt) {
+        String key = id.toString();
+        if (expiresAt == null) {
+            remove(key);
+            return;
+        }
+
+        Entry entry = new Entry(expiresAt, key, id);
+        byKey.compute(key, (k, previous) -> {
+            if (previous != null) {
+                byExpiration.remove(previous);
+            }
+            byExpiration.add(entry);
+            return entry;
+        });
+    }
+
+    public void remove(String key) {
+        byKey.computeIfPresent(key, (k, previous) -> {
+            byExpiration.remove(previous);
+            return null;
+        });
+    }
+
+    /**
+     * now 이전에 만료되는 항목을 최대 limit 건까지 꺼낸다. (인덱스에서 제거됨)
+     */
+    public List<Entry> pollDue(long now, int limit) {
+        List<Entry> due = new ArrayList<>(Math.min(limit, 256));
+        Iterator<Entry> iterator = byExpiration.iterator();
+        while (due.size() < limit && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.expiresAt() > now) {
+                break;
+            }
+            // 동시에 갱신된 항목은 건너뛴다 (새 만료 시각으로 다시 정렬되어 있음)
+            if (byKey.remove(entry.key(), entry)) {
+                due.add(entry);
+            }
+            byExpiration.remove(entry);
+        }
+        return due;
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+}
@@ -0,0 +1,42 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadInfo;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * UploadInfo 사본 생성 (Java 직렬화 왕복 없이 필드 단위 복사)
+ * - 캐시해 둔 UploadInfo 를 호출 측이 수정해도 캐시 값이 바뀌지 않도록 조회마다 사본을 돌려줄 때 쓴다.
+ * - UploadInfo 는 일부 필드(생성 시각, 만료 시각 등)에 setter 가 없어 필드를 직접 복사한다.
+ *   값은 불변 객체(String, Long, enum, UploadId)이고, 목록(concatenationPartIds)만 새로 만든다.
+ */
+public final class UploadInfoCopier {
+
+    private static final Field[] FIELDS = Arrays.stream(UploadInfo.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .peek(field -> field.setAccessible(true))
+            .toArray(Field[]::new);
+
+    private UploadInfoCopier() {
+    }
+
+    public static UploadInfo copy(UploadInfo info) {
+        if (info == null) {
+            return null;
+        }
+        UploadInfo copy = new UploadInfo();
+        try {
+            for (Field field : FIELDS) {
+                Object value = field.get(info);
+                field.set(copy, value instanceof List<?> list ? new ArrayList<>(list) : value);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to copy upload info. id=" + info.getId(), e);
+        }
+        return copy;
+    }
+}
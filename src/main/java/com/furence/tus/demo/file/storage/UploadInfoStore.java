@@ -0,0 +1,36 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadInfo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * 업로드 정보(UploadInfo) 저장소
+ * key 는 UploadId.toString() (URL-safe 값) 이다.
+ */
+public interface UploadInfoStore extends Closeable {
+
+    /**
+     * 저장된 정보의 사본 (없으면 null)
+     */
+    UploadInfo get(String key) throws IOException;
+
+    /**
+     * 저장 (sync 가 true 면 반환 전에 디스크에 반영)
+     */
+    void put(UploadInfo info, boolean sync) throws IOException;
+
+    void remove(String key) throws IOException;
+
+    /**
+     * 현재 저장된 key 목록 (스냅샷)
+     */
+    Collection<String> keys();
+
+    /**
+     * 지금까지의 기록을 디스크에 반영
+     */
+    void sync() throws IOException;
+}
@@ -0,0 +1,22 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadId;
+
+/**
+ * 업로드 락 보유 확인 (cluster 구성)
+ * lease 를 잃은 노드가 다른 노드가 이어받은 업로드에 계속 쓰거나 offset 을 덮어쓰지 않게 한다.
+ */
+public interface UploadLeaseGuard {
+
+    /**
+     * 이 노드가 아직 락을 잡고 있다고 알고 있는지 (메모리 확인, 기록 중 수시로 호출)
+     */
+    boolean isHeld(UploadId id);
+
+    /**
+     * DB 에서 락이 이 노드의 것인지 확인하고 lease 를 연장 (offset/업로드 정보 반영 직전에 호출)
+     *
+     * @return 다른 노드가 가져갔거나 락이 없으면 false
+     */
+    boolean confirmHeld(UploadId id);
+}
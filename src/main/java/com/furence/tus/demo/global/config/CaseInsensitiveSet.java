@@ -0,0 +1,102 @@
+package com.furence.tus.demo.global.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 대소문자 무시 문자열 집합 (생성 후 불변)
+ * - 소문자로 바꾼 값을 open addressing 해시 테이블에 넣어 두고,
+ *   조회 시 입력을 소문자로 바꾸지 않고 문자 단위로 비교한다. (조회 중 할당 없음)
+ * - 문자열의 일부 구간(from, to)만으로도 조회할 수 있다. (확장자를 substring 없이 조회)
+ */
+final class CaseInsensitiveSet {
+
+    private static final CaseInsensitiveSet EMPTY = new CaseInsensitiveSet(List.of());
+
+    private final String[] table;
+    private final int mask;
+    private final List<String> values;
+
+    private CaseInsensitiveSet(Collection<String> source) {
+        List<String> lowered = new ArrayList<>(source.size());
+        for (String value : source) {
+            if (value != null && !value.isBlank()) {
+                String entry = lowerCase(value.trim());
+                if (!lowered.contains(entry)) {
+                    lowered.add(entry);
+                }
+            }
+        }
+
+        // 적재율 0.5 이하 (빈 슬롯에서 조회가 끝나도록)
+        int capacity = Integer.highestOneBit(Math.max(2, lowered.size() * 2 - 1)) << 1;
+        this.table = new String[capacity];
+        this.mask = capacity - 1;
+        for (String entry : lowered) {
+            int slot = hash(entry, 0, entry.length()) & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry;
+        }
+        this.values = Collections.unmodifiableList(lowered);
+    }
+
+    static CaseInsensitiveSet of(Collection<String> values) {
+        return values == null || values.isEmpty() ? EMPTY : new CaseInsensitiveSet(values);
+    }
+
+    boolean contains(CharSequence value) {
+        return value != null && contains(value, 0, value.length());
+    }
+
+    boolean contains(CharSequence value, int from, int to) {
+        int slot = hash(value, from, to) & mask;
+        String entry;
+        while ((entry = table[slot]) != null) {
+            if (matches(entry, value, from, to)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 오류 메시지용 (소문자로 정규화된 값)
+     */
+    List<String> values() {
+        return values;
+    }
+
+    private static boolean matches(String entry, CharSequence value, int from, int to) {
+        if (entry.length() != to - from) {
+            return false;
+        }
+        for (int i = 0; i < entry.length(); i++) {
+            if (entry.charAt(i) != Character.toLowerCase(value.charAt(from + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence value, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + Character.toLowerCase(value.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static String lowerCase(String value) {
+        // 조회와 같은 규칙 (문자 단위 Character.toLowerCase)으로 정규화
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
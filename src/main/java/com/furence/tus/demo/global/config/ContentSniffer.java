@@ -0,0 +1,88 @@
+package com.furence.tus.demo.global.config;
+
+/**
+ * 파일 앞부분 바이트(매직 넘버)로 실제 형식 판별
+ * 클라이언트가 보낸 filetype/확장자와 상관없이 실행 파일이 음성 파일로 위장해 올라오는 것을 막는다.
+ */
+public final class ContentSniffer {
+
+    public enum SniffedType {
+        WAV(true),
+        MP3(true),
+        MP4(true),
+        AAC(true),
+        OGG(true),
+        FLAC(true),
+        EXECUTABLE(false),
+        UNKNOWN(false);
+
+        private final boolean audio;
+
+        SniffedType(boolean audio) {
+            this.audio = audio;
+        }
+
+        public boolean isAudio() {
+            return audio;
+        }
+    }
+
+    private ContentSniffer() {
+    }
+
+    /**
+     * head[0, length) 로 형식 판별 (판별에 필요한 바이트가 모자라면 UNKNOWN)
+     */
+    public static SniffedType sniff(byte[] head, int length) {
+        if (isExecutable(head, length)) {
+            return SniffedType.EXECUTABLE;
+        }
+        if (startsWith(head, length, 0, "RIFF") && startsWith(head, length, 8, "WAVE")) {
+            return SniffedType.WAV;
+        }
+        if (startsWith(head, length, 4, "ftyp")) {
+            return SniffedType.MP4;
+        }
+        if (startsWith(head, length, 0, "ID3")) {
+            return SniffedType.MP3;
+        }
+        if (startsWith(head, length, 0, "OggS")) {
+            return SniffedType.OGG;
+        }
+        if (startsWith(head, length, 0, "fLaC")) {
+            return SniffedType.FLAC;
+        }
+        if (length >= 2 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xE0) == 0xE0) {
+            // 프레임 동기화 비트, layer 00 은 ADTS(AAC), 그 외는 MPEG 오디오
+            return (head[1] & 0x06) == 0 ? SniffedType.AAC : SniffedType.MP3;
+        }
+        return SniffedType.UNKNOWN;
+    }
+
+    private static boolean isExecutable(byte[] head, int length) {
+        return startsWith(head, length, 0, "MZ")                      // Windows PE
+                || startsWith(head, length, 0, "\u007FELF")            // ELF
+                || startsWith(head, length, 0, "#!")                   // 스크립트
+                || startsWith(head, length, 0, "<?php")
+                || matchesInt(head, length, 0xFEEDFACE) || matchesInt(head, length, 0xFEEDFACF)
+                || matchesInt(head, length, 0xCEFAEDFE) || matchesInt(head, length, 0xCFFAEDFE)
+                || matchesInt(head, length, 0xCAFEBABE);               // Mach-O (fat), Java class
+    }
+
+    private static boolean startsWith(byte[] head, int length, int offset, String signature) {
+        if (length < offset + signature.length()) {
+            return false;
+        }
+        for (int i = 0; i < signature.length(); i++) {
+            if (head[offset + i] != (byte) signature.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesInt(byte[] head, int length, int magic) {
+        return length >= 4
+                && ((head[0] & 0xFF) << 24 | (head[1] & 0xFF) << 16 | (head[2] & 0xFF) << 8 | (head[3] & 0xFF)) == magic;
+    }
+}
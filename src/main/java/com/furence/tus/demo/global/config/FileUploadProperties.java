@@ -1,11 +1,16 @@
 package com.furence.tus.demo.global.config;
 
+import com.furence.tus.demo.file.service.UploadFileFinalizer;
+import com.furence.tus.demo.file.service.UploadFilePlacement;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
 
 @Getter
 @Setter
@@ -20,4 +25,171 @@ public class FileUploadProperties {
     private List<String> restrictedFileContentType;
     private List<String> voiceAllowedExtensions;
     private List<String> voiceAllowedContentTypes;
-}
\ No newline at end of file
+    private UploadFileFinalizer.Strategy finalizeStrategy = UploadFileFinalizer.Strategy.LINK;
+    private Completion completion = new Completion();
+    private Persistence persistence = new Persistence();
+    private Metrics metrics = new Metrics();
+    private ContentSniffing contentSniffing = new ContentSniffing();
+    private Download download = new Download();
+    private Storage storage = new Storage();
+    private Throttle throttle = new Throttle();
+    private Dedupe dedupe = new Dedupe();
+    private Compression compression = new Compression();
+    private Partition partition = new Partition();
+    private ChunkSize chunkSize = new ChunkSize();
+    private Batch batch = new Batch();
+
+    /**
+     * 업로드 완료 후처리 큐 설정
+     */
+    @Getter
+    @Setter
+    public static class Completion {
+        private int workers = 4;
+        private int queueCapacity = 1000;
+        private int maxAttempts = 5;
+        private long retryBackoffMs = 1000;
+        private String spoolPath;   // 기본값: {tus.server.data.directory}/completions
+        private long journalCompactBytes = 1024 * 1024;    // 저널이 이보다 커지면 진행 중 작업만 남겨 다시 쓴다
+    }
+
+    /**
+     * 메타데이터(upload_file, rs4_ser_recfile) 일괄 저장 설정
+     */
+    @Getter
+    @Setter
+    public static class Persistence {
+        private int batchSize = 100;
+        private long flushIntervalMs = 50;
+        private int queueCapacity = 10000;
+        private long flushTimeoutMs = 30000;
+    }
+
+    /**
+     * 업로드 지표 설정
+     */
+    @Getter
+    @Setter
+    public static class Metrics {
+        private int maxTenantTags = 100;        // 초과한 tenant 는 "other" 로 집계
+        private long stallThresholdMs = 30000;  // 이 시간 동안 PATCH 가 없으면 정체로 집계
+        private int maxTrackedUploads = 100000;
+    }
+
+    /**
+     * 첫 PATCH 앞부분(매직 넘버) 검사 설정
+     */
+    @Getter
+    @Setter
+    public static class ContentSniffing {
+        private boolean enabled = true;
+        private int headBytes = 4096;
+        private boolean requireAudio = false;   // true 이면 음성 형식으로 판별되지 않는 파일도 거절
+    }
+
+    /**
+     * 저장된 파일 다운로드(재생) 설정
+     */
+    @Getter
+    @Setter
+    public static class Download {
+        private int maxStreamsPerTenant = 8;    // tenant 별 동시 스트림 수, 초과 시 429 (0 이하면 제한 없음)
+        private long retryAfterSeconds = 1;
+        private int maxTenants = 10000;         // 초과한 tenant 는 하나의 한도를 함께 쓴다
+        private boolean sendfile = false;       // Tomcat sendfile 사용 (동시 스트림 제한이 없을 때만)
+    }
+
+    /**
+     * 완료 파일 저장 위치 설정 (볼륨 선택, 디렉토리 분산)
+     */
+    @Getter
+    @Setter
+    public static class Storage {
+        private List<String> volumes;           // 기본값: [file.path]
+        private UploadFilePlacement.Layout layout = UploadFilePlacement.Layout.SHARDED;
+        private long minFreeBytes = 1024L * 1024 * 1024;
+        private long loadUnitBytes = 1024L * 1024 * 1024;  // 최근 배치량이 이만큼이면 선택 가중치 1/2
+        private long refreshIntervalMs = 5000;
+    }
+
+    /**
+     * tenant(X-Tenant-Id) 별 PATCH 대역폭 / 동시 업로드 제한 (0 이면 제한 없음)
+     */
+    @Getter
+    @Setter
+    public static class Throttle {
+        private boolean enabled = true;
+        private long bytesPerSecond = 0;
+        private long burstBytes = 8L * 1024 * 1024;
+        private int maxConcurrentUploads = 0;
+        private long maxDebtMs = 30000;         // 대역폭 부채가 이보다 크면 새 PATCH 는 429
+        private long retryAfterSeconds = 1;
+        private int maxTenants = 10000;         // 초과한 tenant 는 하나의 한도를 함께 쓴다
+        private Map<String, Long> tenantBytesPerSecond = new HashMap<>();
+        private Map<String, Integer> tenantMaxConcurrentUploads = new HashMap<>();
+    }
+
+    /**
+     * 같은 내용(SHA-256) 파일 중복 저장 방지 설정
+     */
+    @Getter
+    @Setter
+    public static class Dedupe {
+        private boolean enabled = true;         // PATCH 중 계산한 SHA-256 이 있는 업로드만 대상
+    }
+
+    /**
+     * 완료 파일 무손실 압축 설정 (블록 단위 병렬 gzip)
+     */
+    @Getter
+    @Setter
+    public static class Compression {
+        private boolean enabled = false;
+        private List<String> extensions = List.of("wav");
+        private int level = Deflater.DEFAULT_COMPRESSION;
+        private int blockSize = 1024 * 1024;
+        private int threads = 0;                // 0 이면 CPU 코어 수
+        private int maxBlocksInFlight = 16;     // 파일당 동시에 메모리에 올리는 블록 수
+        private int minSavingsPercent = 5;      // 이보다 덜 줄면 원본 유지
+    }
+
+    /**
+     * 녹취/업로드 메타데이터 월 단위 파티셔닝 설정 (PostgreSQL)
+     */
+    @Getter
+    @Setter
+    public static class Partition {
+        private boolean enabled = false;
+        private int monthsAhead = 3;            // 이번 달 이후 미리 만들어 둘 파티션 수
+        private int retentionMonths = 0;        // 이번 달 외에 보관할 개월 수 (0 이면 삭제하지 않음)
+        private String maintenanceCron = "0 0 3 * * *";
+    }
+
+    /**
+     * PATCH 크기(chunk) 권장값 설정 (tenant 별 PATCH 처리량 / 오류율 기반)
+     */
+    @Getter
+    @Setter
+    public static class ChunkSize {
+        private boolean enabled = true;
+        private long minBytes = 1024L * 1024;
+        private long maxBytes = 64L * 1024 * 1024;
+        private long initialBytes = 8L * 1024 * 1024;   // 측정 전 권장값
+        private long targetPatchMs = 2000;              // PATCH 하나가 이 시간 안에 끝나는 크기를 권장 (실패 시 다시 보낼 양)
+        private long minSampleBytes = 256 * 1024;       // 이보다 작은 PATCH(마지막 조각 등)는 처리량 측정에서 제외
+        private double smoothing = 0.2;                 // 새 측정값 가중치 (EWMA)
+        private int maxTenants = 10000;                 // 초과한 tenant 는 하나의 측정값을 함께 쓴다
+    }
+
+    /**
+     * 묶음 업로드(zip 한 개에 여러 녹취 파일) 설정
+     */
+    @Getter
+    @Setter
+    public static class Batch {
+        private boolean enabled = true;
+        private int maxEntries = 10000;
+        private long maxExtractedBytes = 10L * 1024 * 1024 * 1024;   // 풀어낸 전체 크기 한도 (압축 폭탄 방지)
+        private int maxManifestBytes = 16 * 1024 * 1024;              // manifest.json 크기 한도 (메모리에 읽음)
+    }
+}
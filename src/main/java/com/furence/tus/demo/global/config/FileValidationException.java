@@ -0,0 +1,27 @@
+package com.furence.tus.demo.global.config;
+
+import lombok.Getter;
+
+/**
+ * 파일 검증 실패 (사유별 집계를 위해 reason 을 함께 담는다)
+ */
+@Getter
+public class FileValidationException extends IllegalArgumentException {
+
+    private final Reason reason;
+
+    public enum Reason {
+        MISSING_EXTENSION,
+        RESTRICTED_EXTENSION,
+        EXTENSION_NOT_ALLOWED,
+        RESTRICTED_CONTENT_TYPE,
+        CONTENT_TYPE_NOT_ALLOWED,
+        FILE_TOO_LARGE,
+        CONTENT_NOT_ALLOWED
+    }
+
+    public FileValidationException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,24 @@
+package com.furence.tus.demo.global.config;
+
+/**
+ * FileUploadProperties 로부터 한 번 만들어 두는 검증 규칙 (불변, 설정이 바뀌면 새로 만든다)
+ */
+record FileValidationRules(CaseInsensitiveSet voiceExtensions,
+                           CaseInsensitiveSet voiceContentTypes,
+                           CaseInsensitiveSet smsExtensions,
+                           CaseInsensitiveSet restrictedExtensions,
+                           CaseInsensitiveSet restrictedContentTypes,
+                           long maxSize,
+                           boolean requireAudio) {
+
+    static FileValidationRules compile(FileUploadProperties properties) {
+        return new FileValidationRules(
+                CaseInsensitiveSet.of(properties.getVoiceAllowedExtensions()),
+                CaseInsensitiveSet.of(properties.getVoiceAllowedContentTypes()),
+                CaseInsensitiveSet.of(properties.getSmsAllowedExtensions()),
+                CaseInsensitiveSet.of(properties.getRestrictedFileExtensions()),
+                CaseInsensitiveSet.of(properties.getRestrictedFileContentType()),
+                properties.getMaxSize() != null ? properties.getMaxSize() : Long.MAX_VALUE,
+                properties.getContentSniffing().isRequireAudio());
+    }
+}
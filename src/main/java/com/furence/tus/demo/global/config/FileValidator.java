@@ -1,9 +1,18 @@
 package com.furence.tus.demo.global.config;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+/**
+ * 업로드 파일 검증
+ * - 설정 목록은 기동 시 대소문자 무시 해시 집합으로 만들어 두고, 검증 중에는 문자열을 만들지 않는다.
+ *   (오류 메시지는 거절할 때만 만든다)
+ * - /actuator/refresh 로 file.* 설정이 다시 바인딩되면 규칙도 새로 만든다.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -11,17 +20,31 @@ public class FileValidator {
 
     private final FileUploadProperties fileUploadProperties;
 
+    private volatile FileValidationRules rules;
+
+    @PostConstruct
+    public void reload() {
+        rules = FileValidationRules.compile(fileUploadProperties);
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        reload();
+        log.info("File validation rules reloaded. restrictedExtensions={}, voiceExtensions={}",
+                rules.restrictedExtensions().values(), rules.voiceExtensions().values());
+    }
+
     /**
      * 음성 파일 확장자 검증
      */
     public void validateVoiceFileExtension(String fileName) {
-        String extension = extractExtension(fileName);
+        CaseInsensitiveSet allowed = rules.voiceExtensions();
 
-        if (!fileUploadProperties.getVoiceAllowedExtensions().contains(extension.toLowerCase())) {
-            throw new IllegalArgumentException(
+        if (!allowed.contains(fileName, extensionStart(fileName), fileName.length())) {
+            throw new FileValidationException(FileValidationException.Reason.EXTENSION_NOT_ALLOWED,
                     String.format("허용되지 않은 음성 파일 확장자입니다. 파일명: %s, 허용 확장자: %s",
                             fileName,
-                            fileUploadProperties.getVoiceAllowedExtensions())
+                            allowed.values())
             );
         }
     }
@@ -35,11 +58,12 @@ public class FileValidator {
             return;
         }
 
-        if (!fileUploadProperties.getVoiceAllowedContentTypes().contains(contentType.toLowerCase())) {
-            throw new IllegalArgumentException(
+        CaseInsensitiveSet allowed = rules.voiceContentTypes();
+        if (!allowed.contains(contentType)) {
+            throw new FileValidationException(FileValidationException.Reason.CONTENT_TYPE_NOT_ALLOWED,
                     String.format("허용되지 않은 음성 파일 타입입니다. Content-Type: %s, 허용 타입: %s",
                             contentType,
-                            fileUploadProperties.getVoiceAllowedContentTypes())
+                            allowed.values())
             );
         }
     }
@@ -48,13 +72,13 @@ public class FileValidator {
      * SMS 파일 확장자 검증 (이미지 등)
      */
     public void validateSmsFileExtension(String fileName) {
-        String extension = extractExtension(fileName);
+        CaseInsensitiveSet allowed = rules.smsExtensions();
 
-        if (!fileUploadProperties.getSmsAllowedExtensions().contains(extension.toLowerCase())) {
-            throw new IllegalArgumentException(
+        if (!allowed.contains(fileName, extensionStart(fileName), fileName.length())) {
+            throw new FileValidationException(FileValidationException.Reason.EXTENSION_NOT_ALLOWED,
                     String.format("허용되지 않은 SMS 파일 확장자입니다. 파일명: %s, 허용 확장자: %s",
                             fileName,
-                            fileUploadProperties.getSmsAllowedExtensions())
+                            allowed.values())
             );
         }
     }
@@ -63,13 +87,13 @@ public class FileValidator {
      * 제한된 확장자 검증
      */
     public void validateRestrictedExtension(String fileName) {
-        String extension = extractExtension(fileName);
+        CaseInsensitiveSet restricted = rules.restrictedExtensions();
 
-        if (fileUploadProperties.getRestrictedFileExtensions().contains(extension.toLowerCase())) {
-            throw new IllegalArgumentException(
+        if (restricted.contains(fileName, extensionStart(fileName), fileName.length())) {
+            throw new FileValidationException(FileValidationException.Reason.RESTRICTED_EXTENSION,
                     String.format("업로드가 금지된 파일 확장자입니다. 파일명: %s, 금지 확장자: %s",
                             fileName,
-                            fileUploadProperties.getRestrictedFileExtensions())
+                            restricted.values())
             );
         }
     }
@@ -82,8 +106,8 @@ public class FileValidator {
             return;
         }
 
-        if (fileUploadProperties.getRestrictedFileContentType().contains(contentType.toLowerCase())) {
-            throw new IllegalArgumentException(
+        if (rules.restrictedContentTypes().contains(contentType)) {
+            throw new FileValidationException(FileValidationException.Reason.RESTRICTED_CONTENT_TYPE,
                     String.format("업로드가 금지된 파일 타입입니다. Content-Type: %s",
                             contentType)
             );
@@ -94,28 +118,47 @@ public class FileValidator {
      * 파일 크기 검증
      */
     public void validateFileSize(long fileSize) {
-        if (fileSize > fileUploadProperties.getMaxSize()) {
-            throw new IllegalArgumentException(
+        long maxSize = rules.maxSize();
+        if (fileSize > maxSize) {
+            throw new FileValidationException(FileValidationException.Reason.FILE_TOO_LARGE,
                     String.format("파일 크기가 제한을 초과했습니다. 현재: %d bytes, 최대: %d bytes",
                             fileSize,
-                            fileUploadProperties.getMaxSize())
+                            maxSize)
             );
         }
     }
 
     /**
-     * 파일명에서 확장자 추출
+     * 파일 앞부분 바이트로 판별한 실제 형식 검증
+     * - 실행 파일은 항상 거절한다.
+     * - requireAudio 이면 음성 형식으로 판별되지 않는 파일도 거절한다.
+     *   (executableOnly: 묶음 업로드 zip 처럼 음성 파일이 아닌 것이 정상인 경우 실행 파일 여부만 본다)
+     */
+    public void validateSniffedContent(byte[] head, int length, boolean executableOnly) {
+        ContentSniffer.SniffedType type = ContentSniffer.sniff(head, length);
+        if (type == ContentSniffer.SniffedType.EXECUTABLE) {
+            throw new FileValidationException(FileValidationException.Reason.CONTENT_NOT_ALLOWED,
+                    "실행 파일은 업로드할 수 없습니다.");
+        }
+        if (!executableOnly && !type.isAudio() && rules.requireAudio()) {
+            throw new FileValidationException(FileValidationException.Reason.CONTENT_NOT_ALLOWED,
+                    "음성 파일 형식이 아닙니다.");
+        }
+    }
+
+    /**
+     * 파일명에서 확장자 시작 위치 (substring 없이 구간으로 조회)
      */
-    private String extractExtension(String fileName) {
+    private int extensionStart(String fileName) {
         if (fileName == null || fileName.isBlank()) {
-            throw new IllegalArgumentException("파일명이 비어있습니다.");
+            throw new FileValidationException(FileValidationException.Reason.MISSING_EXTENSION, "파일명이 비어있습니다.");
         }
 
         int lastDotIndex = fileName.lastIndexOf('.');
         if (lastDotIndex == -1 || lastDotIndex == fileName.length() - 1) {
-            throw new IllegalArgumentException("파일 확장자를 찾을 수 없습니다: " + fileName);
+            throw new FileValidationException(FileValidationException.Reason.MISSING_EXTENSION, "파일 확장자를 찾을 수 없습니다: " + fileName);
         }
 
-        return fileName.substring(lastDotIndex + 1);
+        return lastDotIndex + 1;
     }
 }
\ No newline at end of file
@@ -0,0 +1,327 @@
+package com.furence.tus.demo.global.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 녹취/업로드 메타데이터 테이블 월 단위 range 파티셔닝 (PostgreSQL)
+ * - rs4_ser_recfile 은 r_rec_date(yyyyMMdd), upload_file 은 create_timestamp 기준으로 한 달에 파티션 하나를 둔다.
+ * - 파티션 테이블은 만들 때만 지정할 수 있으므로 Hibernate 스키마 갱신(ddl-auto) 전에 먼저 만든다.
+ *   이미 있는 일반 테이블은 {table}_legacy 로 이름을 바꾸고, 기존 행 전체를 덮는 범위의 파티션으로 붙인다.
+ * - 파티션 키가 기본 키에 들어가야 하므로 기본 키는 (일련번호, 파티션 키) 이고 upload_id 는 일반 인덱스로 둔다.
+ *   upload_id 중복 저장은 파티셔닝하지 않는 upload_id_registry 의 기본 키로 막는다.
+ * - 범위 밖의 값(잘못된 녹취 일자 등)은 {table}_default 파티션에 저장되며, 보관 기간 삭제 대상이 아니다.
+ */
+@Slf4j
+@Component
+public class RecordPartitionSchema {
+
+    // 여러 노드가 파티션 DDL / 삭제를 동시에 실행하지 않도록 트랜잭션 동안 잡는 advisory lock
+    public static final String LOCK_PARTITIONS = "select pg_advisory_xact_lock(7815264011418001)";
+
+    private static final String SELECT_RELKIND = "select relkind from pg_class where oid = to_regclass(?)";
+    private static final String SELECT_PARTITIONS = """
+            select c.relname, pg_get_expr(c.relpartbound, c.oid) from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            where i.inhparent = to_regclass(?)""";
+    private static final String SELECT_INDEXES = """
+            select c.relname from pg_index i join pg_class c on c.oid = i.indexrelid
+            where i.indrelid = to_regclass(?)""";
+    private static final Pattern RANGE_BOUND =
+            Pattern.compile("FROM \\((?:MINVALUE|'([^']*)')\\) TO \\((?:MAXVALUE|'([^']*)')\\)");
+
+    private final FileUploadProperties fileUploadProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // 기동 시 준비가 끝난 테이블 (이후 변경하지 않는다)
+    private final Set<Table> activeTables = EnumSet.noneOf(Table.class);
+
+    public RecordPartitionSchema(DataSource dataSource, FileUploadProperties fileUploadProperties) {
+        this.fileUploadProperties = fileUploadProperties;
+        // EntityManagerFactory 보다 먼저 초기화되므로 JPA 트랜잭션 매니저 대신 DataSource 트랜잭션으로 실행
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!fileUploadProperties.getPartition().isEnabled()) {
+            return;
+        }
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(database)) {
+            log.warn("Table partitioning requires PostgreSQL, skipped. database={}", database);
+            return;
+        }
+
+        for (Table table : Table.values()) {
+            try {
+                inLock(() -> {
+                    prepare(table);
+                    return null;
+                });
+                activeTables.add(table);
+            } catch (RuntimeException e) {
+                // 한 테이블 변환이 실패해도 기동은 계속하고, 그 테이블은 일반 테이블로 둔다.
+                log.error("Failed to prepare partitioned table, left as is. table={}", table.getName(), e);
+            }
+        }
+        createPartitions(LocalDate.now());
+    }
+
+    public boolean isActive() {
+        return !activeTables.isEmpty();
+    }
+
+    public Set<Table> getActiveTables() {
+        return Collections.unmodifiableSet(activeTables);
+    }
+
+    /**
+     * 지난달부터 months-ahead 달 뒤까지 월 파티션 생성 (이미 다른 파티션이 덮는 달은 건너뜀)
+     *
+     * @return 새로 만든 파티션 수
+     */
+    public int createPartitions(LocalDate today) {
+        int created = 0;
+        YearMonth current = YearMonth.from(today);
+        for (Table table : getActiveTables()) {
+            for (int i = -1; i <= fileUploadProperties.getPartition().getMonthsAhead(); i++) {
+                YearMonth month = current.plusMonths(i);
+                try {
+                    if (Boolean.TRUE.equals(inLock(() -> createPartition(table, month)))) {
+                        created++;
+                    }
+                } catch (DataAccessException e) {
+                    log.warn("Failed to create partition. table={}, month={}, error={}", table.getName(), month, e.getMessage());
+                }
+            }
+        }
+        return created;
+    }
+
+    /**
+     * 테이블의 현재 파티션 목록
+     */
+    public List<Partition> partitions(Table table) {
+        return jdbcTemplate.query(SELECT_PARTITIONS,
+                (rs, rowNum) -> Partition.of(table, rs.getString(1), rs.getString(2)), table.getName());
+    }
+
+    private void prepare(Table table) {
+        List<String> relkind = jdbcTemplate.queryForList(SELECT_RELKIND, String.class, table.getName());
+        if (relkind.isEmpty()) {
+            jdbcTemplate.execute(table.getCreateDdl());
+            log.info("Created partitioned table. table={}", table.getName());
+        } else if (!"p".equals(relkind.get(0))) {
+            convert(table);
+        }
+        jdbcTemplate.execute("create table if not exists " + table.defaultPartitionName()
+                + " partition of " + table.getName() + " default");
+        for (String ddl : table.getIndexDdl()) {
+            jdbcTemplate.execute(ddl);
+        }
+    }
+
+    /**
+     * 기존 일반 테이블을 파티션 테이블의 첫 파티션으로 전환 (행을 옮기지 않는다)
+     */
+    private void convert(Table table) {
+        String name = table.getName();
+        String legacy = name + "_legacy";
+        String maxKey = jdbcTemplate.queryForObject(
+                "select max(" + table.getKeyColumn() + ")::text from " + name, String.class);
+        // 기존 행이 모두 들어가고, 이번 달 이후 월 파티션과 겹치지 않도록 다음 달 1일(또는 가장 늦은 키의 다음 달)까지
+        LocalDate upper = YearMonth.now().plusMonths(1).atDay(1);
+        if (maxKey != null) {
+            LocalDate latest = table.parse(maxKey);
+            if (!latest.isBefore(upper)) {
+                upper = YearMonth.from(latest).plusMonths(1).atDay(1);
+            }
+        }
+
+        // 인덱스 이름은 스키마 안에서 유일하므로, 부모 테이블에 같은 이름의 인덱스를 만들 수 있게 바꿔 둔다.
+        for (String index : jdbcTemplate.queryForList(SELECT_INDEXES, String.class, name)) {
+            String renamed = (index.length() > 56 ? index.substring(0, 56) : index) + "_legacy";
+            jdbcTemplate.execute("alter index " + index + " rename to " + renamed);
+        }
+        jdbcTemplate.execute("alter table " + name + " rename to " + legacy);
+        jdbcTemplate.execute("create table " + name + " (like " + legacy + " including defaults)"
+                + " partition by range (" + table.getKeyColumn() + ")");
+        jdbcTemplate.execute("alter table " + name + " add primary key (" + table.getPrimaryKey() + ")");
+        jdbcTemplate.execute("alter table " + name + " attach partition " + legacy
+                + " for values from (minvalue) to (" + table.literal(upper) + ")");
+        log.info("Converted table to partitioned table. table={}, legacyPartition={}, upperBound={}", name, legacy, upper);
+    }
+
+    private boolean createPartition(Table table, YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        List<Partition> partitions = partitions(table);
+        if (partitions.stream().anyMatch(partition -> partition.overlaps(from, to))) {
+            return false;
+        }
+
+        // default 파티션에 이미 그 달의 행이 있으면 파티션을 만들 수 없다.
+        Boolean conflict = jdbcTemplate.queryForObject("select exists (select 1 from " + table.defaultPartitionName()
+                + " where " + table.getKeyColumn() + " >= " + table.literal(from)
+                + " and " + table.getKeyColumn() + " < " + table.literal(to) + ")", Boolean.class);
+        if (Boolean.TRUE.equals(conflict)) {
+            log.warn("Default partition has rows for the month, partition not created. table={}, month={}",
+                    table.getName(), month);
+            return false;
+        }
+
+        String partition = table.partitionName(month);
+        jdbcTemplate.execute("create table " + partition + " partition of " + table.getName()
+                + " for values from (" + table.literal(from) + ") to (" + table.literal(to) + ")");
+        log.info("Created partition. table={}, partition={}", table.getName(), partition);
+        return true;
+    }
+
+    private <T> T inLock(Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(LOCK_PARTITIONS);
+            return work.get();
+        });
+    }
+
+    /**
+     * 파티셔닝 대상 테이블 (컬럼 정의는 엔티티와 같게 유지, 이후 추가 컬럼은 ddl-auto 가 부모 테이블에 더한다)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Table {
+        REC_FILE("rs4_ser_recfile", "r_rec_date", "r_sequence, r_rec_date", """
+                create table rs4_ser_recfile (
+                    r_sequence bigint not null,
+                    r_tenant_id bigint not null,
+                    r_rec_date varchar(8) not null,
+                    r_rec_htime varchar(2) not null,
+                    r_rec_time varchar(8) not null,
+                    r_ext_no varchar(255) not null,
+                    r_file_name varchar(255) not null,
+                    primary key (r_sequence, r_rec_date)
+                ) partition by range (r_rec_date)""",
+                List.of("create index if not exists idx_rs4_ser_recfile_file_name on rs4_ser_recfile (r_file_name, r_tenant_id)")),
+        UPLOAD_FILE("upload_file", "create_timestamp", "seq, create_timestamp", """
+                create table upload_file (
+                    seq bigint not null,
+                    upload_id varchar(64),
+                    path varchar(256) not null,
+                    url varchar(256),
+                    file_name varchar(256) not null,
+                    client_file_name varchar(256) not null,
+                    file_size bigint,
+                    content_sha256 varchar(64),
+                    original_size bigint,
+                    stored_size bigint,
+                    content_encoding varchar(16),
+                    create_timestamp timestamp(6) not null,
+                    primary key (seq, create_timestamp)
+                ) partition by range (create_timestamp)""",
+                // 파티션 테이블에는 파티션 키 없는 unique 제약을 둘 수 없다. (중복 저장은 upload_id_registry 로 막는다)
+                List.of("create index if not exists idx_upload_file_upload_id on upload_file (upload_id)"));
+
+        private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+        private final String name;
+        private final String keyColumn;
+        private final String primaryKey;
+        private final String createDdl;
+        private final List<String> indexDdl;
+
+        public String partitionName(YearMonth month) {
+            return name + "_p" + month.format(MONTH);
+        }
+
+        public String defaultPartitionName() {
+            return name + "_default";
+        }
+
+        /**
+         * 날짜를 파티션 키 상수로 (DDL 에는 바인드 변수를 쓸 수 없다)
+         */
+        String literal(LocalDate date) {
+            return this == REC_FILE
+                    ? "'" + date.format(DateTimeFormatter.BASIC_ISO_DATE) + "'"
+                    : "'" + date.atStartOfDay().format(TIMESTAMP) + "'";
+        }
+
+        /**
+         * 파티션 키 값(텍스트)의 날짜
+         */
+        LocalDate parse(String value) {
+            try {
+                return this == REC_FILE
+                        ? LocalDate.parse(value.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE)
+                        : LocalDate.parse(value.substring(0, 10));
+            } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalStateException("Unexpected partition key value. table=" + name + ", value=" + value, e);
+            }
+        }
+    }
+
+    /**
+     * 파티션 하나 (from 이 null 이면 MINVALUE, to 가 null 이면 MAXVALUE)
+     */
+    public record Partition(String name, LocalDate from, LocalDate to, boolean isDefault) {
+
+        static Partition of(Table table, String name, String bound) {
+            Matcher matcher = RANGE_BOUND.matcher(bound);
+            if (!matcher.find()) {
+                return new Partition(name, null, null, true);
+            }
+            return new Partition(name,
+                    matcher.group(1) == null ? null : table.parse(matcher.group(1)),
+                    matcher.group(2) == null ? null : table.parse(matcher.group(2)),
+                    false);
+        }
+
+        boolean overlaps(LocalDate start, LocalDate end) {
+            return !isDefault && (from == null || from.isBefore(end)) && (to == null || to.isAfter(start));
+        }
+
+        /**
+         * cutoff 이전 값만 담는 파티션인지 (default 파티션은 항상 false)
+         */
+        public boolean endsOnOrBefore(LocalDate cutoff) {
+            return !isDefault && to != null && !to.isAfter(cutoff);
+        }
+    }
+
+    /**
+     * Hibernate 스키마 갱신보다 먼저 파티션 테이블을 만들도록 EntityManagerFactory 가 이 빈을 기다리게 한다.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class PartitionSchemaEntityManagerFactoryDependsOnPostProcessor extends EntityManagerFactoryDependsOnPostProcessor {
+
+        PartitionSchemaEntityManagerFactoryDependsOnPostProcessor() {
+            super(RecordPartitionSchema.class);
+        }
+    }
+}
@@ -1,34 +1,189 @@
 package com.furence.tus.demo.global.config;
 
+import com.furence.tus.demo.file.service.UploadBatchExtractor;
+import com.furence.tus.demo.file.service.UploadMetrics;
+import com.furence.tus.demo.file.storage.CachingUploadStorageService;
+import com.furence.tus.demo.file.storage.ContentSniffingUploadStorageService;
+import com.furence.tus.demo.file.storage.DelegatingUploadStorageService;
+import com.furence.tus.demo.file.storage.DigestingUploadStorageService;
+import com.furence.tus.demo.file.storage.ExpiryIndexedUploadStorageService;
+import com.furence.tus.demo.file.storage.FsyncPolicy;
+import com.furence.tus.demo.file.storage.InMemoryUploadLockingService;
+import com.furence.tus.demo.file.storage.IndexFileUploadInfoStore;
+import com.furence.tus.demo.file.storage.JdbcLeaseUploadLockingService;
+import com.furence.tus.demo.file.storage.JdbcUploadInfoStore;
+import com.furence.tus.demo.file.storage.NioUploadStorageService;
+import com.furence.tus.demo.file.storage.UploadContentRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadLockingService;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.disk.DiskLockingService;
+import me.desair.tus.server.upload.disk.DiskStorageService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 @Configuration
+@RequiredArgsConstructor
 public class TusConfig {
 
+    private final MeterRegistry meterRegistry;
+    private final FileUploadProperties fileUploadProperties;
+    private final FileValidator fileValidator;
+    private final UploadMetrics uploadMetrics;
+    private final JdbcTemplate jdbcTemplate;
+    private final UploadThreadFactory uploadThreadFactory;
+
     @Value("${tus.server.data.directory}")
     String tusStoragePath;
 
     @Value("${tus.server.data.expiration}")
     Long tusExpirationPeriod;
 
+    // disk: 라이브러리 기본 저장소, nio: FileChannel + 단일 인덱스 파일 저장소
+    // cluster: FileChannel + DB(UploadInfo, 락) 저장소, 공유 디렉토리를 여러 노드가 함께 사용
+    @Value("${tus.server.storage.type:disk}")
+    String storageType;
+
+    @Value("${tus.server.storage.fsync:chunk}")
+    FsyncPolicy fsyncPolicy;
+
+    @Value("${tus.server.storage.buffer-size:262144}")
+    int bufferSize;
+
+    // disk 저장소의 UploadInfo 캐시 (단일 인스턴스 구성에서만 사용)
+    @Value("${tus.server.storage.cache.enabled:true}")
+    boolean cacheEnabled;
+
+    @Value("${tus.server.storage.cache.max-weight-bytes:67108864}")
+    long cacheMaxWeightBytes;
+
+    // PATCH 중 전체 파일 SHA-256 계산 (upload_file.content_sha256), 다이제스트 상태가 노드 메모리에 있으므로 cluster 저장소에서는 쓰지 않는다.
+    @Value("${tus.server.storage.content-digest:true}")
+    boolean contentDigestEnabled;
+
+    // 만료 정리 1회당 처리 한도
+    @Value("${tus.server.cleanup.max-per-tick:1000}")
+    int cleanupMaxPerTick;
+
+    @Value("${tus.server.cleanup.max-tick-millis:2000}")
+    long cleanupMaxTickMillis;
+
+    @Value("${tus.server.cleanup.locked-retry-ms:60000}")
+    long cleanupLockedRetryMs;
+
+    @Value("${tus.server.cluster.node-id:node}")
+    String clusterNodeId;
+
+    @Value("${tus.server.cluster.lock-lease-ms:30000}")
+    long clusterLockLeaseMs;
+
     @PreDestroy
     public void exit() throws IOException {
         // cleanup any expired uploads and stale locks
         tus().cleanup();
+
+        // 정리가 끝난 뒤 인덱스 파일을 닫는다.
+        UploadStorageService storageService = uploadStorageService();
+        while (storageService instanceof DelegatingUploadStorageService delegating) {
+            storageService = delegating.getDelegate();
+        }
+        if (storageService instanceof Closeable closeable) {
+            closeable.close();
+        }
     }
 
     @Bean
     public TusFileUploadService tus() {
         return new TusFileUploadService()
-                .withStoragePath(tusStoragePath)
+                .withUploadStorageService(uploadStorageService())
+                .withUploadLockingService(uploadLockingService())
                 .withDownloadFeature()
                 .withUploadExpirationPeriod(tusExpirationPeriod)
                 .withUploadUri("/api/tus/file/upload");
     }
+
+    @Bean(destroyMethod = "")
+    public ExpiryIndexedUploadStorageService uploadStorageService() {
+        UploadStorageService storageService = baseStorageService();
+        Path uploadDirectory = NioUploadStorageService.uploadDirectory(tusStoragePath);
+        if (contentDigestEnabled && !isClusterStorage()) {
+            storageService = new DigestingUploadStorageService(storageService, uploadDirectory);
+        }
+        FileUploadProperties.ContentSniffing contentSniffing = fileUploadProperties.getContentSniffing();
+        if (contentSniffing.isEnabled()) {
+            storageService = new ContentSniffingUploadStorageService(storageService, uploadDirectory,
+                    contentSniffing.getHeadBytes(), this::inspectUploadHead);
+        }
+        return new ExpiryIndexedUploadStorageService(storageService, uploadDirectory,
+                cleanupMaxPerTick, Duration.ofMillis(cleanupMaxTickMillis), Duration.ofMillis(cleanupLockedRetryMs));
+    }
+
+    private UploadStorageService baseStorageService() {
+        if (!isNioStorage()) {
+            DiskStorageService diskStorageService = new DiskStorageService(tusStoragePath);
+            if (!cacheEnabled) {
+                return diskStorageService;
+            }
+            // nio 저장소는 인덱스가 역직렬화한 UploadInfo 를 메모리에 두므로 disk 저장소만 캐시로 감싼다.
+            CachingUploadStorageService cachingStorageService = new CachingUploadStorageService(
+                    diskStorageService, cacheMaxWeightBytes, Duration.ofMillis(tusExpirationPeriod));
+            GuavaCacheMetrics.monitor(meterRegistry, cachingStorageService.getCache(), "tus.upload.info.cache");
+            return cachingStorageService;
+        }
+        try {
+            if (isClusterStorage()) {
+                return new NioUploadStorageService(tusStoragePath, new JdbcUploadInfoStore(jdbcTemplate),
+                        fsyncPolicy, bufferSize, true, (JdbcLeaseUploadLockingService) uploadLockingService());
+            }
+            IndexFileUploadInfoStore infoStore = new IndexFileUploadInfoStore(Paths.get(tusStoragePath, "upload-info.idx"));
+            return new NioUploadStorageService(tusStoragePath, infoStore, fsyncPolicy, bufferSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open TUS upload storage. path=" + tusStoragePath, e);
+        }
+    }
+
+    /**
+     * 첫 PATCH 앞부분 검사 (거절 시 415)
+     */
+    private void inspectUploadHead(UploadInfo upload, byte[] head, int length) throws UploadContentRejectedException {
+        try {
+            // 묶음 업로드(zip)는 실행 파일 여부만 보고, 항목 형식은 후처리에서 하나씩 검사한다.
+            boolean batch = upload.getMetadata() != null
+                    && UploadBatchExtractor.isBatch(upload.getMetadata().get(UploadBatchExtractor.METADATA_KEY));
+            fileValidator.validateSniffedContent(head, length, batch);
+        } catch (FileValidationException e) {
+            uploadMetrics.validationRejected(e.getReason());
+            throw new UploadContentRejectedException(e.getMessage());
+        }
+    }
+
+    @Bean
+    public UploadLockingService uploadLockingService() {
+        if (isClusterStorage()) {
+            return new JdbcLeaseUploadLockingService(jdbcTemplate, clusterNodeId, clusterLockLeaseMs,
+                    uploadThreadFactory.create("tus-lock-renewal-"));
+        }
+        return isNioStorage() ? new InMemoryUploadLockingService() : new DiskLockingService(tusStoragePath);
+    }
+
+    private boolean isNioStorage() {
+        return "nio".equalsIgnoreCase(storageType) || isClusterStorage();
+    }
+
+    private boolean isClusterStorage() {
+        return "cluster".equalsIgnoreCase(storageType);
+    }
 }
@@ -0,0 +1,84 @@
+package com.furence.tus.demo.global.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ddl-auto(update) 가 바꾸지 않는 기존 스키마 보정
+ * - upload_file.file_size 를 integer 에서 bigint 로 넓힌다. (2GB 이상 파일 저장 시 overflow)
+ * - IDENTITY 에서 SEQUENCE 로 바꾼 일련번호의 시퀀스를 기존 최대값 뒤로 옮긴다. (PostgreSQL)
+ *   ddl-auto 가 새로 만든 시퀀스는 1 부터 시작하므로 그대로 두면 첫 insert 부터 기본 키가 겹친다.
+ * - 새로 만든 upload_id_registry 에 기존 upload_file 의 upload_id 를 채운다. (PostgreSQL)
+ * - Hibernate 스키마 갱신 이후에 실행되도록 entityManagerFactory 뒤에 초기화한다.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class UploadFileSchemaMigration {
+
+    private static final String SELECT_COLUMN_TYPE = """
+            select data_type from information_schema.columns
+            where table_schema = current_schema() and lower(table_name) = ? and lower(column_name) = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        widenToBigint("upload_file", "file_size");
+
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equalsIgnoreCase(database)) {
+            syncSequence("upload_file", "seq", "upload_file_seq");
+            syncSequence("rs4_ser_recfile", "r_sequence", "rs4_ser_recfile_seq");
+            backfillUploadIdRegistry();
+        }
+    }
+
+    /**
+     * 시퀀스가 테이블의 최대 일련번호보다 뒤에 있도록 맞춘다. (앞서 있으면 그대로 둔다)
+     */
+    private void syncSequence(String table, String column, String sequence) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, sequence))) {
+            return;
+        }
+        List<Long> synced = jdbcTemplate.queryForList(
+                "select setval('" + sequence + "', max_id) from (select max(" + column + ") as max_id from " + table + ") t"
+                        + " where max_id > (select last_value from " + sequence + ")", Long.class);
+        if (!synced.isEmpty()) {
+            log.info("Moved id sequence past existing rows. sequence={}, value={}", sequence, synced.get(0));
+        }
+    }
+
+    /**
+     * registry 가 비어 있을 때만 기존 upload_id 를 옮긴다. (registry 도입 전에 저장된 행)
+     */
+    private void backfillUploadIdRegistry() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select exists (select 1 from upload_id_registry)", Boolean.class))) {
+            return;
+        }
+        int backfilled = jdbcTemplate.update("""
+                insert into upload_id_registry (upload_id, create_timestamp)
+                select upload_id, min(create_timestamp) from upload_file where upload_id is not null group by upload_id
+                on conflict do nothing""");
+        if (backfilled > 0) {
+            log.info("Backfilled upload id registry. rows={}", backfilled);
+        }
+    }
+
+    private void widenToBigint(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList(SELECT_COLUMN_TYPE, String.class, table, column);
+        if (types.isEmpty() || !"integer".equalsIgnoreCase(types.get(0))) {
+            return;
+        }
+        jdbcTemplate.execute("alter table " + table + " alter column " + column + " set data type bigint");
+        log.info("Widened column to bigint. table={}, column={}", table, column);
+    }
+}
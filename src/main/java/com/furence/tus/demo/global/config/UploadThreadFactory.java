@@ -0,0 +1,39 @@
+package com.furence.tus.demo.global.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 업로드 후처리용 스레드 생성
+ * spring.threads.virtual.enabled=true 이면 가상 스레드, 아니면 플랫폼 스레드를 만든다.
+ * (같은 설정으로 Tomcat 요청 처리도 가상 스레드로 전환된다.)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UploadThreadFactory {
+
+    private final Environment environment;
+
+    public boolean isVirtual() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    public ThreadFactory create(String namePrefix) {
+        if (isVirtual()) {
+            return Thread.ofVirtual().name(namePrefix, 0).factory();
+        }
+        return Thread.ofPlatform().name(namePrefix, 0).factory();
+    }
+
+    public Thread newThread(String name, Runnable task) {
+        return isVirtual()
+                ? Thread.ofVirtual().name(name).unstarted(task)
+                : Thread.ofPlatform().name(name).unstarted(task);
+    }
+}
@@ -4,7 +4,17 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "rs4_ser_recfile")
+@Table(name = "rs4_ser_recfile", indexes = {
+        // 녹취 조회 (tenant + 녹취 일시, 최신순 keyset 페이지), r_sequence 는 같은 시각 안의 정렬/seek 기준
+        // 조회 정렬(최신순)과 같은 방향으로 두어 정렬 없이 인덱스 순서대로 limit 건만 읽는다.
+        @Index(name = "idx_rs4_ser_recfile_tenant_rec_date",
+                columnList = "r_tenant_id, r_rec_date desc, r_rec_htime desc, r_sequence desc"),
+        // 내선 번호 조건 조회
+        @Index(name = "idx_rs4_ser_recfile_tenant_ext_no",
+                columnList = "r_tenant_id, r_ext_no, r_rec_date desc, r_rec_htime desc, r_sequence desc"),
+        // 다운로드 시 파일의 tenant 확인
+        @Index(name = "idx_rs4_ser_recfile_file_name", columnList = "r_file_name, r_tenant_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,7 +24,8 @@ public class RecFile {
 
     @Id
     @Column(name = "r_sequence")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rs4_ser_recfile_seq_generator")
+    @SequenceGenerator(name = "rs4_ser_recfile_seq_generator", sequenceName = "rs4_ser_recfile_seq", allocationSize = 50)
     private Long sequence;
 
     @Column(name = "r_tenant_id", nullable = false)
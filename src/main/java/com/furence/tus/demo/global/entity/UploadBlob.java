@@ -0,0 +1,51 @@
+package com.furence.tus.demo.global.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용(SHA-256) 기준 저장 파일
+ * 같은 내용의 upload_file 행들이 path 하나를 함께 참조하며, refCount 가 0 이 되면 파일을 지운다.
+ */
+@Entity
+@Table(name = "upload_blob")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class UploadBlob {
+
+    @Id
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    @Column(nullable = false, length = 256)
+    private String path;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "create_timestamp", nullable = false)
+    private LocalDateTime createTimestamp;
+
+    @PrePersist
+    public void onCreate() {
+        this.createTimestamp = LocalDateTime.now();
+    }
+
+    public void addReference() {
+        refCount++;
+    }
+
+    /**
+     * 참조 하나 제거 후 남은 참조 수
+     */
+    public int removeReference() {
+        return --refCount;
+    }
+}
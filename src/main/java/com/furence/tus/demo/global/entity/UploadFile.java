@@ -6,7 +6,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "upload_file")
+@Table(name = "upload_file", indexes = {
+        @Index(name = "idx_upload_file_file_name", columnList = "file_name"),
+        // 파티션 테이블에는 upload_id unique 제약을 둘 수 없다. (중복 저장은 upload_id_registry 로 막는다)
+        @Index(name = "idx_upload_file_upload_id", columnList = "upload_id"),
+        @Index(name = "idx_upload_file_content_sha256", columnList = "content_sha256")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -14,9 +19,13 @@ import java.time.LocalDateTime;
 public class UploadFile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "upload_file_seq_generator")
+    @SequenceGenerator(name = "upload_file_seq_generator", sequenceName = "upload_file_seq", allocationSize = 50)
     private Long seq;
 
+    @Column(name = "upload_id", length = 64)
+    private String uploadId;
+
     @Column(nullable = false, length = 256)
     private String path;
 
@@ -30,7 +39,21 @@ public class UploadFile {
     private String clientFileName;
 
     @Column(name = "file_size")
-    private Integer fileSize;
+    private Long fileSize;
+
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
+    // 업로드된 원본 크기 / 디스크에 저장된 크기 (압축 시 다름)
+    @Column(name = "original_size")
+    private Long originalSize;
+
+    @Column(name = "stored_size")
+    private Long storedSize;
+
+    // 저장 파일 인코딩 (gzip, 압축하지 않았으면 null)
+    @Column(name = "content_encoding", length = 16)
+    private String contentEncoding;
 
     @Column(name = "create_timestamp", nullable = false)
     private LocalDateTime createTimestamp = LocalDateTime.now();
@@ -0,0 +1,24 @@
+package com.furence.tus.demo.global.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 저장된 upload_id 목록 (파티셔닝하지 않는 테이블)
+ * upload_file 은 파티션 테이블이라 upload_id 에 unique 제약을 둘 수 없으므로, 이 테이블의 기본 키로 중복 저장을 막는다.
+ */
+@Entity
+@Table(name = "upload_id_registry")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UploadIdRegistry {
+
+    @Id
+    @Column(name = "upload_id", length = 64)
+    private String uploadId;
+
+    @Column(name = "create_timestamp", nullable = false)
+    private LocalDateTime createTimestamp;
+}
@@ -0,0 +1,61 @@
+package com.furence.tus.demo.scheduler;
+
+import com.furence.tus.demo.file.service.RecordPartitionRetentionService;
+import com.furence.tus.demo.global.config.RecordPartitionSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 녹취/업로드 메타데이터 파티션 관리
+ * 앞으로 쓸 월 파티션을 미리 만들고, 보관 기간이 지난 파티션을 저장 파일과 함께 지운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecordPartitionScheduler {
+
+    private final RecordPartitionSchema recordPartitionSchema;
+    private final RecordPartitionRetentionService recordPartitionRetentionService;
+    private final MeterRegistry meterRegistry;
+
+    private Counter createdCounter;
+    private Counter droppedCounter;
+    private Counter filesDeletedCounter;
+
+    @PostConstruct
+    public void init() {
+        createdCounter = Counter.builder("file.partition.created")
+                .description("Monthly partitions created ahead")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("file.partition.dropped")
+                .description("Expired partitions dropped")
+                .register(meterRegistry);
+        filesDeletedCounter = Counter.builder("file.partition.files.deleted")
+                .description("Stored files removed with expired partitions")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${file.partition.maintenance-cron:0 0 3 * * *}")
+    public void maintain() {
+        if (!recordPartitionSchema.isActive()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+
+        int created = recordPartitionSchema.createPartitions(today);
+        RecordPartitionRetentionService.Result result = recordPartitionRetentionService.dropExpired(today);
+
+        createdCounter.increment(created);
+        droppedCounter.increment(result.droppedPartitions());
+        filesDeletedCounter.increment(result.deletedFiles());
+        log.info("partition maintenance: created={}, dropped={}, deletedFiles={}",
+                created, result.droppedPartitions(), result.deletedFiles());
+    }
+}
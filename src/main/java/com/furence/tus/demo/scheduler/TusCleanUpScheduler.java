@@ -1,27 +1,97 @@
 package com.furence.tus.demo.scheduler;
 
+import com.furence.tus.demo.file.service.UploadCompletionJournal;
+import com.furence.tus.demo.file.storage.ExpiryIndexedUploadStorageService;
+import com.furence.tus.demo.global.config.UploadThreadFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.upload.UploadLockingService;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * 만료 업로드 정리
+ * 전체 업로드 디렉토리를 훑지 않고 만료 인덱스에서 기한이 지난 업로드만 꺼내 처리한다.
+ * 완료 후처리를 기다리는 업로드는 만료되어도 후처리가 끝날 때까지 남겨 둔다.
+ */
 @Slf4j
 @Component
 @EnableScheduling
 @RequiredArgsConstructor
 public class TusCleanUpScheduler {
 
-    private final TusFileUploadService tus;
+    private final ExpiryIndexedUploadStorageService uploadStorageService;
+    private final UploadLockingService uploadLockingService;
+    private final UploadCompletionJournal uploadCompletionJournal;
+    private final UploadThreadFactory uploadThreadFactory;
+    private final MeterRegistry meterRegistry;
 
-    @Scheduled(fixedRate = 60 * 1000)
+    private Counter reclaimedCounter;
+    private Counter bytesFreedCounter;
+    private Counter deferredCounter;
+    private Timer tickTimer;
+
+    @PostConstruct
+    public void init() {
+        // 큐 대기/재시도 백오프/압축 중 만료된 업로드의 data 를 지우면 후처리가 되돌려지므로 제외한다.
+        // cluster 구성에서는 다른 노드가 진행 중인 작업도 저널의 공유 보존 목록(DB)으로 확인한다.
+        uploadStorageService.setRetention(id -> uploadCompletionJournal.isRetained(id.toString()));
+
+        reclaimedCounter = Counter.builder("tus.cleanup.reclaimed")
+                .description("Expired uploads removed")
+                .register(meterRegistry);
+        bytesFreedCounter = Counter.builder("tus.cleanup.bytes.freed")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        deferredCounter = Counter.builder("tus.cleanup.deferred")
+                .description("Expired uploads skipped because they were locked or awaiting completion")
+                .register(meterRegistry);
+        tickTimer = Timer.builder("tus.cleanup.tick")
+                .description("Expired upload cleanup duration")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gauge("tus.cleanup.index.size", uploadStorageService,
+                ExpiryIndexedUploadStorageService::getIndexSize);
+
+        // 기존 업로드의 만료 시각은 기동을 막지 않도록 별도 스레드에서 채운다.
+        uploadThreadFactory.newThread("tus-expiry-index-rebuild", () -> {
+            try {
+                long start = System.nanoTime();
+                int indexed = uploadStorageService.rebuildIndex();
+                log.info("Rebuilt upload expiry index. uploads={}, took={}ms",
+                        indexed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (IOException e) {
+                log.error("Failed to rebuild upload expiry index", e);
+            }
+        }).start();
+    }
+
+    @Scheduled(fixedRateString = "${tus.server.cleanup.interval-ms:60000}")
     public void cleanup() throws IOException {
-        log.info("clean up");
+        long start = System.nanoTime();
+
+        uploadLockingService.cleanupStaleLocks();
+        ExpiryIndexedUploadStorageService.CleanupResult result = uploadStorageService.cleanupDue(uploadLockingService);
+
+        tickTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        reclaimedCounter.increment(result.reclaimed());
+        bytesFreedCounter.increment(result.bytesFreed());
+        deferredCounter.increment(result.deferred());
 
-        tus.cleanup();
+        if (result.reclaimed() > 0 || result.deferred() > 0) {
+            log.info("clean up: reclaimed={}, bytesFreed={}, deferred={}, backlog={}",
+                    result.reclaimed(), result.bytesFreed(), result.deferred(), !result.exhausted());
+        } else {
+            log.debug("clean up: nothing due");
+        }
     }
 
 }
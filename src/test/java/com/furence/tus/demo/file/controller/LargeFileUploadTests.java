@@ -0,0 +1,248 @@
+package com.furence.tus.demo.file.controller;
+
+import com.furence.tus.demo.file.repository.UploadFileRepository;
+import com.furence.tus.demo.global.entity.UploadFile;
+import io.tus.java.client.TusClient;
+import io.tus.java.client.TusUpload;
+import io.tus.java.client.TusUploader;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 2GB 를 넘는 파일 업로드 (내장 서버 + H2 PostgreSQL 호환 모드)
+ * - 힙보다 훨씬 큰 파일을 TUS / multipart 로 올려 크기(64비트)와 내용(SHA-256)이 그대로 저장되는지 확인한다.
+ * - 작은 힙(-Xmx128m)에서 실행되므로 어느 구간이든 파일 전체를 메모리에 올리면 OutOfMemoryError 로 실패한다.
+ * 실행: ./gradlew largeFileTest -Dlarge.file.size.mb=2200
+ */
+@Tag("large-file")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:tus;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "file.throttle.enabled=false"
+})
+class LargeFileUploadTests {
+
+    private static final long FILE_SIZE = Long.getLong("large.file.size.mb", 2200) * 1024 * 1024;
+    // tus-java-client 는 재전송용으로 PATCH 한 번 분량을 BufferedInputStream 에 mark 해 두므로 힙에 맞게 작게 둔다.
+    private static final int PATCH_SIZE = 8 * 1024 * 1024;
+
+    private static final Path DATA_DIR = createTempDirectory();
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    UploadFileRepository uploadFileRepository;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("tus.server.data.directory", () -> DATA_DIR.resolve("tus").toString());
+        registry.add("file.path", () -> DATA_DIR.resolve("files").toString());
+    }
+
+    @AfterAll
+    static void deleteData() throws IOException {
+        FileUtils.deleteDirectory(DATA_DIR.toFile());
+    }
+
+    @Test
+    void tusUploadLargerThanHeap() throws Exception {
+        assumeTrue(Runtime.getRuntime().maxMemory() < FILE_SIZE, "heap must be smaller than the file");
+        String serverFileName = UUID.randomUUID() + ".mp4";
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(URI.create("http://localhost:" + port + "/api/tus/file/upload").toURL());
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Tenant-Id", "1000");
+        headers.put("X-Rec-Date", LocalDateTime.now().format(DateTimeFormatter.BASIC_ISO_DATE));
+        headers.put("X-Rec-Htime", LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH")));
+        headers.put("X-Rec-Time", "01:00:00");
+        headers.put("X-Ext-No", "1234");
+        headers.put("X-Client-File-Name", "conference.mp4");
+        headers.put("X-Server-File-Name", serverFileName);
+        client.setHeaders(headers);
+
+        PatternInputStream content = new PatternInputStream(FILE_SIZE);
+        TusUpload upload = new TusUpload();
+        upload.setSize(FILE_SIZE);
+        upload.setInputStream(content);
+        upload.setFingerprint(serverFileName);
+        upload.setMetadata(Map.of("filename", "conference.mp4", "filetype", "audio/mp4",
+                "serverFileName", serverFileName));
+
+        TusUploader uploader = client.createUpload(upload);
+        uploader.setChunkSize(1024 * 1024);
+        uploader.setRequestPayloadSize(PATCH_SIZE);
+        while (uploader.getOffset() < upload.getSize()) {
+            uploader.uploadChunk();
+        }
+        uploader.finish();
+
+        UploadFile saved = awaitSaved(serverFileName);
+        assertThat(saved.getFileSize()).isEqualTo(FILE_SIZE);
+        assertThat(saved.getOriginalSize()).isEqualTo(FILE_SIZE);
+        assertThat(Files.size(Path.of(saved.getPath()))).isEqualTo(FILE_SIZE);
+        assertThat(saved.getContentSha256()).isEqualTo(content.sha256());
+        printPeakHeap("tus");
+    }
+
+    @Test
+    void multipartUploadLargerThanHeap() throws Exception {
+        assumeTrue(Runtime.getRuntime().maxMemory() < FILE_SIZE, "heap must be smaller than the file");
+        String fileName = UUID.randomUUID() + ".mp4";
+        String boundary = "----" + UUID.randomUUID();
+        byte[] head = ("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: audio/mp4\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        HttpURLConnection connection = (HttpURLConnection) URI.create("http://localhost:" + port + "/upload").toURL()
+                .openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
+        // 본문 전체를 클라이언트 메모리에 모으지 않도록 길이를 고정해 바로 전송
+        connection.setFixedLengthStreamingMode(head.length + FILE_SIZE + tail.length);
+
+        PatternInputStream content = new PatternInputStream(FILE_SIZE);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(head);
+            content.transferTo(out);
+            out.write(tail);
+        }
+        assertThat(connection.getResponseCode()).isEqualTo(200);
+        connection.disconnect();
+
+        Path saved = DATA_DIR.resolve("files").resolve(fileName);
+        assertThat(Files.size(saved)).isEqualTo(FILE_SIZE);
+        assertThat(sha256(saved)).isEqualTo(content.sha256());
+        printPeakHeap("multipart");
+    }
+
+    private UploadFile awaitSaved(String serverFileName) throws InterruptedException {
+        long deadline = System.nanoTime() + 5L * 60 * 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            UploadFile saved = uploadFileRepository.findFirstByFileNameOrderBySeqDesc(serverFileName).orElse(null);
+            if (saved != null) {
+                return saved;
+            }
+            Thread.sleep(200);
+        }
+        throw new AssertionError("Upload was not saved. serverFileName=" + serverFileName);
+    }
+
+    private static void printPeakHeap(String label) {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        System.out.printf("%s: file=%d MB, max heap=%d MB, peak heap (sum of pools)=%d MB%n", label,
+                FILE_SIZE >> 20, Runtime.getRuntime().maxMemory() >> 20, peak >> 20);
+    }
+
+    private static String sha256(Path path) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[1024 * 1024];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("tus-large-file");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 메모리에 두지 않고 생성하는 size 바이트짜리 본문 (읽은 내용의 SHA-256 을 함께 계산)
+     */
+    private static final class PatternInputStream extends InputStream {
+
+        private final long size;
+        private final MessageDigest digest = newSha256();
+        private long position;
+
+        PatternInputStream(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= size) {
+                return -1;
+            }
+            int count = (int) Math.min(length, size - position);
+            for (int i = 0; i < count; i++) {
+                long p = position + i;
+                buffer[offset + i] = (byte) (p * 31 + (p >>> 11) + (p >>> 29));
+            }
+            digest.update(buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        String sha256() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+}
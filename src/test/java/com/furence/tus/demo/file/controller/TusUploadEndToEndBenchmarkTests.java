@@ -0,0 +1,221 @@
+package com.furence.tus.demo.file.controller;
+
+import io.tus.java.client.TusClient;
+import io.tus.java.client.TusUpload;
+import io.tus.java.client.TusUploader;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 업로드 경로 end-to-end 부하 측정 (내장 서버 + H2 PostgreSQL 호환 모드)
+ * tus-java-client 로 POST/PATCH 를 보내 PATCH 크기 x 동시 업로드 수 조합마다
+ * uploads/s, MB/s, PATCH 지연(p50/p99)을 출력한다. (PATCH 지연은 클라이언트 기준, 요청 전송 ~ 응답 수신)
+ * 실행: ./gradlew benchmark --tests '*TusUploadEndToEndBenchmarkTests'
+ *       -Dbenchmark.e2e.chunk.sizes.kb=64,256,1024 -Dbenchmark.e2e.concurrency=1,8,32
+ *       -Dbenchmark.e2e.file.size.kb=4096 -Dbenchmark.e2e.uploads.per.client=4
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:tus;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "file.throttle.enabled=false"
+})
+class TusUploadEndToEndBenchmarkTests {
+
+    private static final int[] CHUNK_SIZES_KB = intList("benchmark.e2e.chunk.sizes.kb", "64,256,1024");
+    private static final int[] CONCURRENCY = intList("benchmark.e2e.concurrency", "1,8,32");
+    private static final int FILE_SIZE_KB = Integer.getInteger("benchmark.e2e.file.size.kb", 4096);
+    private static final int UPLOADS_PER_CLIENT = Integer.getInteger("benchmark.e2e.uploads.per.client", 4);
+
+    private static final Path DATA_DIR = createTempDirectory();
+
+    // 모든 업로드가 같은 본문을 읽되 앞 16바이트를 업로드마다 바꿔 중복 제거(같은 SHA-256)를 피한다.
+    private static final byte[] PAYLOAD = payload(FILE_SIZE_KB * 1024);
+    private static final int UNIQUE_PREFIX = 16;
+
+    @LocalServerPort
+    int port;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("tus.server.data.directory", () -> DATA_DIR.resolve("tus").toString());
+        registry.add("file.path", () -> DATA_DIR.resolve("files").toString());
+    }
+
+    @AfterAll
+    static void deleteData() throws IOException {
+        FileUtils.deleteDirectory(DATA_DIR.toFile());
+    }
+
+    @Test
+    void uploadMatrix() throws Exception {
+        URL endpoint = URI.create("http://localhost:" + port + "/api/tus/file/upload").toURL();
+
+        // JIT / 커넥션 워밍업
+        runCell(endpoint, CHUNK_SIZES_KB[0], 1, 2);
+
+        System.out.printf("%-10s %-12s %8s %10s %8s %10s %10s%n",
+                "chunk(KB)", "concurrency", "uploads", "uploads/s", "MB/s", "p50(ms)", "p99(ms)");
+        for (int chunkSizeKb : CHUNK_SIZES_KB) {
+            for (int concurrency : CONCURRENCY) {
+                Result result = runCell(endpoint, chunkSizeKb, concurrency, UPLOADS_PER_CLIENT);
+                assertThat(result.failures()).isZero();
+                System.out.printf("%-10d %-12d %8d %10.1f %8.1f %10.2f %10.2f%n",
+                        chunkSizeKb, concurrency, result.uploads(), result.uploads() / result.seconds(),
+                        result.uploads() * (PAYLOAD.length / 1024.0 / 1024.0) / result.seconds(),
+                        percentileMillis(result.patchNanos(), 0.50), percentileMillis(result.patchNanos(), 0.99));
+            }
+        }
+    }
+
+    private Result runCell(URL endpoint, int chunkSizeKb, int concurrency, int uploadsPerClient) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger uploads = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Long> patchNanos = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < concurrency; i++) {
+            clients.submit(() -> {
+                startGate.await();
+                for (int n = 0; n < uploadsPerClient; n++) {
+                    try {
+                        uploadOnce(endpoint, chunkSizeKb * 1024, patchNanos);
+                        uploads.incrementAndGet();
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        clients.shutdown();
+        assertThat(clients.awaitTermination(30, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long[] sorted = patchNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(uploads.get(), failures.get(), seconds, sorted);
+    }
+
+    private void uploadOnce(URL endpoint, int chunkSize, List<Long> patchNanos) throws Exception {
+        String serverFileName = UUID.randomUUID() + ".wav";
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(endpoint);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Tenant-Id", "1000");
+        headers.put("X-Rec-Date", LocalDateTime.now().format(DateTimeFormatter.BASIC_ISO_DATE));
+        headers.put("X-Rec-Htime", LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH")));
+        headers.put("X-Rec-Time", "00:01:00");
+        headers.put("X-Ext-No", "1234");
+        headers.put("X-Client-File-Name", "benchmark.wav");
+        headers.put("X-Server-File-Name", serverFileName);
+        client.setHeaders(headers);
+
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("filename", "benchmark.wav");
+        metadata.put("filetype", "audio/wav");
+        metadata.put("serverFileName", serverFileName);
+
+        TusUpload upload = new TusUpload();
+        upload.setSize(PAYLOAD.length);
+        upload.setInputStream(new SequenceInputStream(new ByteArrayInputStream(uniquePrefix()),
+                new ByteArrayInputStream(PAYLOAD, UNIQUE_PREFIX, PAYLOAD.length - UNIQUE_PREFIX)));
+        upload.setFingerprint(serverFileName);
+        upload.setMetadata(metadata);
+
+        TusUploader uploader = client.createUpload(upload);
+        // chunk 크기 = PATCH 본문 크기, uploadChunk 한 번이 PATCH 한 번 (응답까지)
+        uploader.setChunkSize(chunkSize);
+        uploader.setRequestPayloadSize(chunkSize);
+        while (uploader.getOffset() < upload.getSize()) {
+            long start = System.nanoTime();
+            uploader.uploadChunk();
+            patchNanos.add(System.nanoTime() - start);
+        }
+        uploader.finish();
+    }
+
+    private static byte[] uniquePrefix() {
+        UUID id = UUID.randomUUID();
+        return ByteBuffer.allocate(UNIQUE_PREFIX)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    private static int[] intList(String property, String defaultValue) {
+        return Arrays.stream(System.getProperty(property, defaultValue).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("tus-e2e-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] payload(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) (i * 31 + (i >>> 8));
+        }
+        return payload;
+    }
+
+    private record Result(int uploads, int failures, double seconds, long[] patchNanos) {
+    }
+}
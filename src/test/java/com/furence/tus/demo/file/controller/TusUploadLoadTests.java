@@ -0,0 +1,169 @@
+package com.furence.tus.demo.file.controller;
+
+import io.tus.java.client.TusClient;
+import io.tus.java.client.TusURLMemoryStore;
+import io.tus.java.client.TusUpload;
+import io.tus.java.client.TusUploader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 동시 업로드 부하 테스트 (실행 중인 서버 대상)
+ * 서버를 spring.threads.virtual.enabled=true/false 로 각각 띄운 뒤 같은 조건으로 비교한다.
+ * 실행: ./gradlew benchmark -Dbenchmark.loadtest.endpoint=http://localhost:8080/api/tus/file/upload
+ *       -Dbenchmark.loadtest.concurrency=500 -Dbenchmark.loadtest.file.size.kb=1024
+ *       -Dbenchmark.loadtest.payload.size.kb=256 -Dbenchmark.loadtest.throttle.ms=20
+ */
+@Tag("benchmark")
+class TusUploadLoadTests {
+
+    private static final String ENDPOINT = System.getProperty("benchmark.loadtest.endpoint");
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.loadtest.concurrency", 100);
+    private static final int FILE_SIZE_KB = Integer.getInteger("benchmark.loadtest.file.size.kb", 1024);
+    private static final int PAYLOAD_SIZE_KB = Integer.getInteger("benchmark.loadtest.payload.size.kb", 256);
+    // 느린 클라이언트 흉내: 읽기마다 지연을 넣어 서버 스레드를 오래 점유하게 한다.
+    private static final int THROTTLE_MS = Integer.getInteger("benchmark.loadtest.throttle.ms", 0);
+
+    @Test
+    void concurrentUploads() throws Exception {
+        assumeTrue(ENDPOINT != null, "benchmark.loadtest.endpoint is not set");
+
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < CONCURRENCY; i++) {
+            clients.submit(() -> {
+                try {
+                    startGate.await();
+                    long start = System.nanoTime();
+                    uploadOnce();
+                    latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+                return null;
+            });
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        clients.shutdown();
+        assertThat(clients.awaitTermination(30, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int succeeded = sorted.size();
+        System.out.printf("concurrency=%d, succeeded=%d, failed=%d, elapsed=%.1fs, uploads/s=%.1f, MB/s=%.1f, p50=%dms, p99=%dms%n",
+                CONCURRENCY, succeeded, failures.get(), seconds,
+                succeeded / seconds,
+                succeeded * (FILE_SIZE_KB / 1024.0) / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99));
+    }
+
+    private void uploadOnce() throws Exception {
+        String serverFileName = UUID.randomUUID() + ".wav";
+
+        TusClient client = new TusClient();
+        client.setUploadCreationURL(URI.create(ENDPOINT).toURL());
+        client.enableResuming(new TusURLMemoryStore());
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Tenant-Id", "1000");
+        headers.put("X-Rec-Date", LocalDateTime.now().format(DateTimeFormatter.BASIC_ISO_DATE));
+        headers.put("X-Rec-Htime", LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH")));
+        headers.put("X-Rec-Time", "00:01:00");
+        headers.put("X-Ext-No", "1234");
+        headers.put("X-Client-File-Name", "loadtest.wav");
+        headers.put("X-Server-File-Name", serverFileName);
+        client.setHeaders(headers);
+
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("filename", "loadtest.wav");
+        metadata.put("filetype", "audio/wav");
+        metadata.put("serverFileName", serverFileName);
+
+        TusUpload upload = new TusUpload();
+        upload.setSize(FILE_SIZE_KB * 1024L);
+        upload.setInputStream(new SlowZeroInputStream(upload.getSize()));
+        upload.setFingerprint(serverFileName);
+        upload.setMetadata(metadata);
+
+        TusUploader uploader = client.resumeOrCreateUpload(upload);
+        uploader.setChunkSize(64 * 1024);
+        uploader.setRequestPayloadSize(PAYLOAD_SIZE_KB * 1024);
+        while (uploader.uploadChunk() > -1) {
+            // 업로드 끝까지 전송
+        }
+        uploader.finish();
+    }
+
+    private long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    /**
+     * 지정 크기만큼 0 을 내보내는 스트림 (읽기마다 throttle.ms 지연)
+     */
+    private static class SlowZeroInputStream extends InputStream {
+
+        private long remaining;
+
+        SlowZeroInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            if (THROTTLE_MS > 0) {
+                try {
+                    Thread.sleep(THROTTLE_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int n = (int) Math.min(len, remaining);
+            Arrays.fill(b, off, off + n, (byte) 0);
+            remaining -= n;
+            return n;
+        }
+    }
+}
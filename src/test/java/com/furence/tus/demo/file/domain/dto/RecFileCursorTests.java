@@ -0,0 +1,37 @@
+package com.furence.tus.demo.file.domain.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * keyset cursor 인코딩 / 디코딩
+ */
+class RecFileCursorTests {
+
+    @Test
+    void encodedCursorDecodesToSameKey() {
+        RecFileSummary last = new RecFileSummary(12345L, 7L, "20240131", "235959", "60", "1001", "a.wav");
+        RecFileCursor cursor = RecFileCursor.of(last);
+
+        String encoded = cursor.encode();
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(RecFileCursor.decode(encoded)).isEqualTo(new RecFileCursor("20240131", "235959", 12345L));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> RecFileCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecFileCursor.decode(encode("20240131:235959"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecFileCursor.decode(encode("20240131:235959:abc"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecFileCursor.decode(encode("20240131:235959:-1"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,248 @@
+package com.furence.tus.demo.file.repository;
+
+import com.furence.tus.demo.file.domain.dto.RecFileCursor;
+import com.furence.tus.demo.file.domain.dto.RecFileSearchCondition;
+import com.furence.tus.demo.file.domain.dto.RecFileSummary;
+import com.furence.tus.demo.global.config.QueryDslConfig;
+import com.furence.tus.demo.global.entity.RecFile;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.furence.tus.demo.global.entity.QRecFile.recFile;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 녹취 파일 조회 OFFSET vs keyset 비교
+ * 생성한 대량 데이터에서 같은 페이지를 OFFSET + 엔티티 / OFFSET + DTO / keyset + DTO 로 읽어 페이지 깊이별 지연을 출력한다.
+ * 기본은 H2 파일 DB(PostgreSQL 호환 모드)이며, 실제 비교는 benchmark.recfile.url 로 PostgreSQL 을 지정해 실행한다.
+ * (H2 는 OFFSET 으로 건너뛰는 행을 인덱스에서만 넘기지만, PostgreSQL 은 건너뛰는 행도 테이블에서 읽는다.)
+ * 실행: ./gradlew benchmark --tests '*RecFileSearchBenchmarkTests'
+ *       -Dbenchmark.recfile.rows=1000000 -Dbenchmark.recfile.tenants=10 -Dbenchmark.recfile.pages=0,10,100,1000,1900
+ *       -Dbenchmark.recfile.url=jdbc:postgresql://localhost:5432/bench -Dbenchmark.recfile.username=... -Dbenchmark.recfile.password=...
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryDslConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RecFileSearchBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.recfile.rows", 1_000_000);
+    private static final int TENANTS = Integer.getInteger("benchmark.recfile.tenants", 10);
+    private static final int[] PAGES = Arrays.stream(System.getProperty("benchmark.recfile.pages", "0,10,100,1000,1900")
+            .split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP = 100;
+    private static final int ITERATIONS = 100;
+    private static final int INSERT_BATCH = 10_000;
+
+    private static final long TENANT_ID = 1000;
+    private static final Path DATA_DIR = createTempDirectory();
+
+    @Autowired
+    RecFileRepository recFileRepository;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    DataSource dataSource;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("benchmark.recfile.url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.datasource.username", () -> System.getProperty("benchmark.recfile.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("benchmark.recfile.password", ""));
+            return;
+        }
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + DATA_DIR.resolve("recfile")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+                // 같은 쿼리 결과 재사용을 꺼서 매번 실제로 읽게 한다.
+                + ";OPTIMIZE_REUSE_RESULTS=FALSE");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void deleteData() throws IOException {
+        FileUtils.deleteDirectory(DATA_DIR.toFile());
+    }
+
+    @Test
+    void offsetVersusKeyset() {
+        generate();
+
+        // 한 tenant, 1년 범위, 최신순
+        RecFileSearchCondition condition = RecFileSearchCondition.builder()
+                .tenantId(TENANT_ID)
+                .recDateFrom("20250101")
+                .recDateTo("20251231")
+                .build();
+
+        long total = recFileRepository.search(condition, null, Integer.MAX_VALUE).size();
+        List<Integer> pages = Arrays.stream(PAGES).filter(page -> (long) page * PAGE_SIZE < total).boxed().toList();
+        Map<Integer, RecFileCursor> cursors = new HashMap<>();
+        for (int page : pages) {
+            long offset = (long) page * PAGE_SIZE;
+            RecFileCursor cursor = page == 0 ? null : RecFileCursor.of(offsetDto(condition, offset - 1, 1).get(0));
+            cursors.put(page, cursor);
+
+            // 같은 페이지를 돌려주는지 먼저 확인
+            List<Long> expected = offsetEntity(condition, offset).stream().map(RecFile::getSequence).toList();
+            List<Long> actual = recFileRepository.search(condition, cursor, PAGE_SIZE).stream()
+                    .map(RecFileSummary::getSequence).toList();
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        // 측정 순서에 따라 JIT 이득이 한쪽으로 몰리지 않도록 세 방식 모두 먼저 데운다.
+        for (int i = 0; i < WARMUP; i++) {
+            for (int page : pages) {
+                offsetEntity(condition, (long) page * PAGE_SIZE);
+                offsetDto(condition, (long) page * PAGE_SIZE, PAGE_SIZE);
+                recFileRepository.search(condition, cursors.get(page), PAGE_SIZE);
+            }
+        }
+
+        System.out.printf("rows=%d, tenants=%d, rows per tenant=%d, page size=%d%n", ROWS, TENANTS, total, PAGE_SIZE);
+        System.out.printf("%-8s %-10s %16s %16s %16s%n", "page", "offset", "offset+entity", "offset+dto", "keyset+dto");
+        for (int page : pages) {
+            long offset = (long) page * PAGE_SIZE;
+            RecFileCursor cursor = cursors.get(page);
+            double offsetEntity = medianMicros(() -> offsetEntity(condition, offset));
+            double offsetDto = medianMicros(() -> offsetDto(condition, offset, PAGE_SIZE));
+            double keysetDto = medianMicros(() -> recFileRepository.search(condition, cursor, PAGE_SIZE));
+            System.out.printf("%-8d %-10d %13.0f us %13.0f us %13.0f us%n",
+                    page, offset, offsetEntity, offsetDto, keysetDto);
+        }
+    }
+
+    /**
+     * tenant 별로 고르게, 1년 동안의 녹취 행 생성 (JDBC batch insert)
+     */
+    private void generate() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        LocalDate lastDay = LocalDate.of(2025, 12, 31);
+        long start = System.nanoTime();
+        for (int from = 1; from <= ROWS; from += INSERT_BATCH) {
+            int first = from;
+            int count = Math.min(INSERT_BATCH, ROWS - from + 1);
+            jdbcTemplate.batchUpdate("""
+                    insert into rs4_ser_recfile (r_sequence, r_tenant_id, r_rec_date, r_rec_htime, r_rec_time, r_ext_no, r_file_name)
+                    values (?, ?, ?, ?, ?, ?, ?)""", new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    long x = first + i;
+                    ps.setLong(1, x);
+                    ps.setLong(2, TENANT_ID + x % TENANTS);
+                    ps.setString(3, lastDay.minusDays(x / TENANTS % 365).format(DateTimeFormatter.BASIC_ISO_DATE));
+                    ps.setString(4, String.format("%02d", x / 7 % 24));
+                    ps.setString(5, "00:03:00");
+                    ps.setString(6, String.valueOf(1000 + x * 31 % 500));
+                    ps.setString(7, "rec-" + x + ".wav");
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+        jdbcTemplate.execute("analyze");
+        System.out.printf("generated %d rows in %.1fs%n", ROWS, (System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private List<RecFile> offsetEntity(RecFileSearchCondition condition, long offset) {
+        List<RecFile> rows = queryFactory
+                .selectFrom(recFile)
+                .where(range(condition))
+                .orderBy(recFile.tenantId.asc(), recFile.recDate.desc(), recFile.recHtime.desc(), recFile.sequence.desc())
+                .offset(offset)
+                .limit(PAGE_SIZE)
+                .fetch();
+        em.clear();
+        return rows;
+    }
+
+    private List<RecFileSummary> offsetDto(RecFileSearchCondition condition, long offset, int limit) {
+        return queryFactory
+                .select(Projections.constructor(RecFileSummary.class,
+                        recFile.sequence, recFile.tenantId, recFile.recDate, recFile.recHtime,
+                        recFile.recTime, recFile.extNo, recFile.fileName))
+                .from(recFile)
+                .where(range(condition))
+                .orderBy(recFile.tenantId.asc(), recFile.recDate.desc(), recFile.recHtime.desc(), recFile.sequence.desc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+    }
+
+    private BooleanExpression range(RecFileSearchCondition condition) {
+        return recFile.tenantId.eq(condition.getTenantId())
+                .and(recFile.recDate.goe(condition.getRecDateFrom()))
+                .and(recFile.recDate.loe(condition.getRecDateTo()));
+    }
+
+    private static double medianMicros(Supplier<?> query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2] / 1_000.0;
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("recfile-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
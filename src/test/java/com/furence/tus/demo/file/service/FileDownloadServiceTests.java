@@ -0,0 +1,146 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.repository.UploadFileRepository;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.entity.UploadFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * tenant 범위 조회, Range / If-Range / ETag 조건부 응답
+ */
+class FileDownloadServiceTests {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+    private static final String SHA256 = "b".repeat(64);
+    private static final String ETAG = "\"" + SHA256 + "\"";
+
+    @TempDir
+    Path tempDir;
+
+    private final UploadFileRepository uploadFileRepository = mock(UploadFileRepository.class);
+    private final FileUploadProperties properties = new FileUploadProperties();
+    private FileDownloadService fileDownloadService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path stored = Files.writeString(tempDir.resolve("a.wav"), CONTENT, StandardCharsets.US_ASCII);
+        UploadFile uploadFile = UploadFile.builder()
+                .path(stored.toString())
+                .fileName("a.wav")
+                .clientFileName("a.wav")
+                .contentSha256(SHA256)
+                .build();
+        when(uploadFileRepository.findLatestByFileNameAndTenantId(eq("a.wav"), eq(1L), any(Limit.class)))
+                .thenReturn(List.of(uploadFile));
+        fileDownloadService = new FileDownloadService(uploadFileRepository, properties,
+                new UploadFileCompressor(properties));
+    }
+
+    @Test
+    void servesWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = download(request());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentLengthLong()).isEqualTo(CONTENT.length());
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void otherTenantsCannotReadFile() throws Exception {
+        MockHttpServletRequest otherTenant = request();
+        otherTenant.removeHeader("X-Tenant-Id");
+        otherTenant.addHeader("X-Tenant-Id", "2");
+        assertThat(download(otherTenant).getStatus()).isEqualTo(404);
+
+        MockHttpServletRequest noTenant = request();
+        noTenant.removeHeader("X-Tenant-Id");
+        assertThat(download(noTenant).getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void matchingEtagIsNotModified() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 5-9/20");
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+
+        MockHttpServletRequest suffix = request();
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        assertThat(download(suffix).getContentAsString()).isEqualTo("hij");
+    }
+
+    @Test
+    void ifRangeAppliesRangeOnlyForCurrentEtag() throws Exception {
+        MockHttpServletRequest current = request();
+        current.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        current.addHeader(HttpHeaders.IF_RANGE, ETAG);
+        MockHttpServletResponse partial = download(current);
+        assertThat(partial.getStatus()).isEqualTo(206);
+        assertThat(partial.getContentAsString()).isEqualTo("0123");
+
+        MockHttpServletRequest stale = request();
+        stale.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"" + "c".repeat(64) + "\"");
+        MockHttpServletResponse whole = download(stale);
+        assertThat(whole.getStatus()).isEqualTo(200);
+        assertThat(whole.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(whole.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */20");
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/a.wav");
+        request.addHeader("X-Tenant-Id", "1");
+        return request;
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileDownloadService.download("a.wav", request, response);
+        return response;
+    }
+}
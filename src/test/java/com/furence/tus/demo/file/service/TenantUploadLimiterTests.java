@@ -0,0 +1,112 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * tenant 동시 업로드 수 / GCRA 대역폭 제한
+ */
+class TenantUploadLimiterTests {
+
+    private final FileUploadProperties properties = new FileUploadProperties();
+
+    @Test
+    void rejectsUploadsOverConcurrencyLimitUntilPermitClosed() {
+        properties.getThrottle().setMaxConcurrentUploads(1);
+        properties.getThrottle().getTenantMaxConcurrentUploads().put("big", 2);
+        TenantUploadLimiter limiter = limiter();
+
+        TenantUploadLimiter.Permit permit = limiter.acquire("t1");
+        assertThatThrownBy(() -> limiter.acquire("t1")).isInstanceOf(UploadThrottledException.class);
+        // 다른 tenant 는 한도를 따로 쓴다.
+        limiter.acquire("t2").close();
+        limiter.acquire("big");
+        limiter.acquire("big").close();
+
+        permit.close();
+        permit.close();
+        limiter.acquire("t1").close();
+    }
+
+    @Test
+    void burstIsReadWithoutWaiting() throws Exception {
+        properties.getThrottle().setBytesPerSecond(1000);
+        properties.getThrottle().setBurstBytes(1000);
+        properties.getThrottle().setMaxDebtMs(100);
+        TenantUploadLimiter limiter = limiter();
+
+        long start = System.nanoTime();
+        try (TenantUploadLimiter.Permit permit = limiter.acquire("t1");
+             InputStream in = permit.wrap(request(1000)).getInputStream()) {
+            assertThat(in.readAllBytes()).hasSize(1000);
+        }
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+
+        // burst 를 다 썼지만 부채는 없으므로 새 PATCH 는 허용된다.
+        limiter.acquire("t1").close();
+    }
+
+    @Test
+    void rejectsNewUploadsWhileBandwidthDebtExceedsLimit() throws Exception {
+        properties.getThrottle().setBytesPerSecond(1000);
+        properties.getThrottle().setBurstBytes(0);
+        properties.getThrottle().setMaxDebtMs(100);
+        TenantUploadLimiter limiter = limiter();
+
+        // 2000 바이트 = 2초 분량을 예약하고 대기하는 PATCH
+        TenantUploadLimiter.Permit permit = limiter.acquire("t1");
+        HttpServletRequest throttled = permit.wrap(request(2000));
+        CompletableFuture<Throwable> read = new CompletableFuture<>();
+        Thread slow = new Thread(() -> {
+            try (InputStream in = throttled.getInputStream()) {
+                in.readAllBytes();
+                read.complete(null);
+            } catch (Throwable e) {
+                read.complete(e);
+            }
+        });
+        slow.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        UploadThrottledException rejected = null;
+        while (rejected == null && System.nanoTime() < deadline) {
+            try {
+                limiter.acquire("t1").close();
+                Thread.sleep(10);
+            } catch (UploadThrottledException e) {
+                rejected = e;
+            }
+        }
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.getRetryAfterSeconds()).isBetween(1L, 2L);
+        // 다른 tenant 는 영향이 없다.
+        limiter.acquire("t2").close();
+
+        slow.interrupt();
+        assertThat(read.get(5, TimeUnit.SECONDS)).isInstanceOf(InterruptedIOException.class);
+        permit.close();
+    }
+
+    private TenantUploadLimiter limiter() {
+        TenantUploadLimiter limiter = new TenantUploadLimiter(properties, new SimpleMeterRegistry());
+        limiter.init();
+        return limiter;
+    }
+
+    private static MockHttpServletRequest request(int bodyBytes) {
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/api/tus/file/upload/id");
+        request.setContent(new byte[bodyBytes]);
+        return request;
+    }
+}
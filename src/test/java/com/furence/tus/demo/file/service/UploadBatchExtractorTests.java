@@ -0,0 +1,144 @@
+package com.furence.tus.demo.file.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furence.tus.demo.file.domain.dto.RecFileSaveRequest;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.file.domain.dto.UploadFileSaveRequest;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.FileValidationException;
+import com.furence.tus.demo.global.config.FileValidator;
+import me.desair.tus.server.TusFileUploadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 묶음 업로드(zip) 항목 분리 / 거절 / 되돌리기
+ */
+class UploadBatchExtractorTests {
+
+    private static final String UPLOAD_URI = "/api/tus/file/upload/batch";
+
+    @TempDir
+    Path tempDir;
+
+    private final TusFileUploadService tusFileUploadService = mock(TusFileUploadService.class);
+    private final FileValidator fileValidator = mock(FileValidator.class);
+    private final UploadFilePlacement uploadFilePlacement = mock(UploadFilePlacement.class);
+    private final FileUploadProperties properties = new FileUploadProperties();
+
+    private UploadBatchExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        when(uploadFilePlacement.place(any(), any(), anyString(), any()))
+                .thenAnswer(invocation -> tempDir.resolve(invocation.getArgument(2, String.class)));
+        extractor = new UploadBatchExtractor(tusFileUploadService, fileValidator, uploadFilePlacement,
+                mock(UploadBlobService.class), mock(UploadFileCompressor.class), mock(UploadMetrics.class),
+                properties, new ObjectMapper());
+    }
+
+    @Test
+    void extractsEntriesUnderEntryIdsWithManifestValues() throws Exception {
+        upload(zip(
+                "manifest.json", """
+                        {"entries":[{"name":"day1/a.wav","serverFileName":"first.wav","tenantId":9}]}""",
+                "day1/a.wav", "first",
+                "day2/a.wav", "second"));
+
+        UploadBatchExtractor.Result result = extractor.extract(task());
+
+        assertThat(result.rejected()).isZero();
+        assertThat(result.uploadFiles()).extracting(UploadFileSaveRequest::getUploadId)
+                .containsExactly("batch.0", "batch.1");
+        assertThat(result.uploadFiles()).extracting(UploadFileSaveRequest::getFileName)
+                .containsExactly("first.wav", "batch.1.wav");
+        assertThat(result.recFiles()).extracting(RecFileSaveRequest::getTenantId).containsExactly(9L, 1L);
+        // 이름이 같은 항목도 항목 ID 로 따로 저장된다.
+        assertThat(Files.readString(tempDir.resolve("batch.0.wav"))).isEqualTo("first");
+        assertThat(Files.readString(tempDir.resolve("batch.1.wav"))).isEqualTo("second");
+    }
+
+    @Test
+    void skipsRejectedEntries() throws Exception {
+        doThrow(new FileValidationException(FileValidationException.Reason.RESTRICTED_EXTENSION, "restricted"))
+                .when(fileValidator).validateRestrictedExtension("run.exe");
+        upload(zip("run.exe", "MZ", "b.wav", "voice"));
+
+        UploadBatchExtractor.Result result = extractor.extract(task());
+
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.uploadFiles()).extracting(UploadFileSaveRequest::getUploadId).containsExactly("batch.1");
+        assertThat(Files.exists(tempDir.resolve("batch.0.exe"))).isFalse();
+    }
+
+    @Test
+    void rollsBackOversizedManifest() throws Exception {
+        properties.getBatch().setMaxManifestBytes(8);
+        upload(zip("manifest.json", "{\"entries\":[]}", "a.wav", "voice"));
+
+        assertThatThrownBy(() -> extractor.extract(task())).isInstanceOf(UploadCompletionRolledBackException.class);
+    }
+
+    @Test
+    void rollsBackTruncatedArchiveAndDeletesWrittenEntries() throws Exception {
+        // 압축되지 않는 내용으로 두 번째 항목 중간에서 잘리게 한다.
+        String noise = new Random(1).ints(10_000, 'a', 'z' + 1)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString();
+        byte[] zip = zip("a.wav", "voice", "b.wav", noise);
+        upload(Arrays.copyOf(zip, zip.length / 2));
+
+        assertThatThrownBy(() -> extractor.extract(task())).isInstanceOf(UploadCompletionRolledBackException.class);
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private void upload(byte[] zip) throws Exception {
+        when(tusFileUploadService.getUploadedBytes(UPLOAD_URI)).thenReturn(new ByteArrayInputStream(zip));
+    }
+
+    private static UploadCompletionTask task() {
+        return UploadCompletionTask.builder()
+                .uploadId("batch")
+                .uploadUri(UPLOAD_URI)
+                .tenantId(1L)
+                .recDate("20240131")
+                .batch(true)
+                .build();
+    }
+
+    /**
+     * 이름, 내용 순서의 항목으로 zip 생성
+     */
+    private static byte[] zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                out.putNextEntry(new ZipEntry(namesAndContents[i]));
+                out.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,101 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.repository.UploadBlobRepository;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.entity.UploadBlob;
+import com.furence.tus.demo.global.entity.UploadFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 참조 해제와 커밋 후 파일 삭제
+ */
+class UploadBlobServiceTests {
+
+    private static final String SHA256 = "a".repeat(64);
+
+    @TempDir
+    Path tempDir;
+
+    private final UploadBlobRepository uploadBlobRepository = mock(UploadBlobRepository.class);
+    private final UploadBlobService uploadBlobService =
+            new UploadBlobService(uploadBlobRepository, new FileUploadProperties());
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void lastReferenceDeletesFileOnlyAfterCommit() throws Exception {
+        Path stored = Files.writeString(tempDir.resolve("a.wav"), "data");
+        UploadBlob blob = blob(stored, 1);
+        when(uploadBlobRepository.findForUpdate(SHA256)).thenReturn(Optional.of(blob));
+
+        uploadBlobService.release(uploadFile(stored));
+
+        verify(uploadBlobRepository).delete(blob);
+        assertThat(stored).exists();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(stored).doesNotExist();
+    }
+
+    @Test
+    void rolledBackReleaseKeepsFile() throws Exception {
+        Path stored = Files.writeString(tempDir.resolve("b.wav"), "data");
+        when(uploadBlobRepository.findForUpdate(SHA256)).thenReturn(Optional.of(blob(stored, 1)));
+
+        uploadBlobService.release(uploadFile(stored));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(stored).exists();
+    }
+
+    @Test
+    void remainingReferencesKeepFile() throws Exception {
+        Path stored = Files.writeString(tempDir.resolve("c.wav"), "data");
+        UploadBlob blob = blob(stored, 2);
+        when(uploadBlobRepository.findForUpdate(SHA256)).thenReturn(Optional.of(blob));
+
+        uploadBlobService.release(uploadFile(stored));
+
+        assertThat(blob.getRefCount()).isEqualTo(1);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        assertThat(stored).exists();
+    }
+
+    private static UploadBlob blob(Path path, int refCount) {
+        return UploadBlob.builder()
+                .contentSha256(SHA256)
+                .path(path.toString())
+                .fileSize(4L)
+                .refCount(refCount)
+                .build();
+    }
+
+    private static UploadFile uploadFile(Path path) {
+        return UploadFile.builder()
+                .path(path.toString())
+                .contentSha256(SHA256)
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.furence.tus.demo.file.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furence.tus.demo.file.domain.UploadCompletionStatus;
+import com.furence.tus.demo.file.domain.UploadCompletionStep;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 완료 저널 재생 / 잘린 기록 / compaction
+ */
+class UploadCompletionJournalTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final FileUploadProperties properties = new FileUploadProperties();
+
+    @Test
+    void replayRestoresOnlyInFlightTasksAndSteps() throws Exception {
+        UploadCompletionJournal journal = open();
+        journal.begin(task("a"));
+        journal.begin(task("b"));
+        journal.record("a", UploadCompletionStep.PLACED);
+        journal.end("b", UploadCompletionStatus.COMPLETED);
+        journal.close();
+
+        UploadCompletionJournal reopened = open();
+        assertThat(reopened.inFlight()).extracting(UploadCompletionTask::getUploadId).containsExactly("a");
+        assertThat(reopened.isDone("a", UploadCompletionStep.PLACED)).isTrue();
+        assertThat(reopened.isDone("a", UploadCompletionStep.SAVED)).isFalse();
+        assertThat(reopened.contains("b")).isFalse();
+        reopened.close();
+    }
+
+    @Test
+    void replayIgnoresTruncatedLastRecord() throws Exception {
+        UploadCompletionJournal journal = open();
+        journal.begin(task("a"));
+        journal.close();
+        // fsync 전에 중단된 기록
+        Files.writeString(journalPath(), "{\"op\":\"BEGIN\",\"uploadId\":\"x\",\"ta", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        UploadCompletionJournal reopened = open();
+        assertThat(reopened.inFlight()).extracting(UploadCompletionTask::getUploadId).containsExactly("a");
+
+        // 기동 시 compaction 으로 잘린 줄이 사라져 이후 기록과 섞이지 않는다.
+        reopened.begin(task("c"));
+        reopened.close();
+        UploadCompletionJournal again = open();
+        assertThat(again.inFlight()).extracting(UploadCompletionTask::getUploadId).containsExactlyInAnyOrder("a", "c");
+        again.close();
+    }
+
+    @Test
+    void compactionKeepsOnlyInFlightRecords() throws Exception {
+        properties.getCompletion().setJournalCompactBytes(1);
+        UploadCompletionJournal journal = open();
+        journal.begin(task("a"));
+        journal.begin(task("b"));
+        journal.record("b", UploadCompletionStep.PLACED);
+        journal.end("a", UploadCompletionStatus.COMPLETED);
+        journal.close();
+
+        List<String> lines = Files.readAllLines(journalPath(), StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(2);
+        assertThat(lines).allMatch(line -> line.contains("\"uploadId\":\"b\""));
+
+        UploadCompletionJournal reopened = open();
+        assertThat(reopened.inFlight()).extracting(UploadCompletionTask::getUploadId).containsExactly("b");
+        assertThat(reopened.isDone("b", UploadCompletionStep.PLACED)).isTrue();
+        reopened.close();
+    }
+
+    @Test
+    void partialUploadsAreRetainedUntilTaskEnds() throws Exception {
+        UploadCompletionJournal journal = open();
+        UploadCompletionTask task = task("final");
+        task.setPartialUploadIds(List.of("p1", "p2"));
+        journal.begin(task);
+        journal.close();
+
+        UploadCompletionJournal reopened = open();
+        assertThat(reopened.isRetained("final")).isTrue();
+        assertThat(reopened.isRetained("p2")).isTrue();
+        assertThat(reopened.isRetained("other")).isFalse();
+
+        reopened.end("final", UploadCompletionStatus.COMPLETED);
+        assertThat(reopened.isRetained("final")).isFalse();
+        assertThat(reopened.isRetained("p1")).isFalse();
+        reopened.close();
+    }
+
+    @Test
+    void concurrentWritersShareForcesWithoutLosingRecords() throws Exception {
+        properties.getCompletion().setJournalCompactBytes(4096);
+        UploadCompletionJournal journal = open();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = IntStream.range(0, 200)
+                    .<Future<?>>mapToObj(i -> executor.submit(() -> {
+                        journal.begin(task("t" + i));
+                        journal.record("t" + i, UploadCompletionStep.PLACED);
+                        if (i % 2 == 0) {
+                            journal.end("t" + i, UploadCompletionStatus.COMPLETED);
+                        }
+                        return null;
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        journal.close();
+
+        UploadCompletionJournal reopened = open();
+        assertThat(reopened.inFlight()).hasSize(100);
+        assertThat(reopened.isDone("t1", UploadCompletionStep.PLACED)).isTrue();
+        assertThat(reopened.contains("t0")).isFalse();
+        reopened.close();
+    }
+
+    @Test
+    void clusterRetentionIsVisibleToOtherNodes() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:retention;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        UploadCompletionJournal node1 = openCluster(jdbcTemplate, "node1");
+        UploadCompletionTask task = task("final");
+        task.setPartialUploadIds(List.of("p1"));
+        node1.begin(task);
+        node1.begin(task("other"));
+
+        // 다른 노드의 만료 정리는 자기 저널에 없는 작업도 보존한다.
+        UploadCompletionJournal node2 = openCluster(jdbcTemplate, "node2");
+        assertThat(node2.isRetained("final")).isTrue();
+        assertThat(node2.isRetained("p1")).isTrue();
+        assertThat(node2.isRetained("unknown")).isFalse();
+
+        node1.end("final", UploadCompletionStatus.COMPLETED);
+        assertThat(node2.isRetained("final")).isFalse();
+        assertThat(node2.isRetained("p1")).isFalse();
+
+        // 저널 기록 전에 중단되어 남은 행은 그 노드가 재기동할 때 정리된다.
+        jdbcTemplate.update("insert into tus_upload_retention (upload_key, owner_id) values ('orphan', 'node1')");
+        node1.close();
+        UploadCompletionJournal restarted = openCluster(jdbcTemplate, "node1");
+        assertThat(node2.isRetained("orphan")).isFalse();
+        assertThat(node2.isRetained("other")).isTrue();
+        restarted.close();
+        node2.close();
+    }
+
+    private UploadCompletionJournal open() throws Exception {
+        properties.getCompletion().setSpoolPath(tempDir.toString());
+        UploadCompletionJournal journal = new UploadCompletionJournal(properties, new ObjectMapper(), null);
+        journal.open();
+        return journal;
+    }
+
+    private UploadCompletionJournal openCluster(JdbcTemplate jdbcTemplate, String nodeId) throws Exception {
+        properties.getCompletion().setSpoolPath(null);
+        UploadCompletionJournal journal = new UploadCompletionJournal(properties, new ObjectMapper(), jdbcTemplate);
+        journal.tusStoragePath = tempDir.toString();
+        journal.storageType = "cluster";
+        journal.clusterNodeId = nodeId;
+        journal.open();
+        return journal;
+    }
+
+    private Path journalPath() {
+        return tempDir.resolve("completion.journal");
+    }
+
+    private static UploadCompletionTask task(String uploadId) {
+        return UploadCompletionTask.builder()
+                .uploadId(uploadId)
+                .uploadUri("/api/tus/file/upload/" + uploadId)
+                .serverFileName(uploadId + ".wav")
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.furence.tus.demo.file.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furence.tus.demo.file.domain.UploadCompletionStatus;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.UploadThreadFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 큐가 가득 찼을 때 요청 스레드에서 처리하지 않고 저널에 남겨 다시 넣는지
+ */
+class UploadCompletionQueueTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UploadCompletionJournal journal;
+    private UploadCompletionQueue queue;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        queue.stop();
+        journal.close();
+    }
+
+    @Test
+    void fullQueueDefersToWorkersInsteadOfCaller() throws Exception {
+        FileUploadProperties properties = new FileUploadProperties();
+        properties.getCompletion().setWorkers(1);
+        properties.getCompletion().setQueueCapacity(1);
+        properties.getCompletion().setRetryBackoffMs(20);
+        properties.getCompletion().setSpoolPath(tempDir.toString());
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(3);
+        Set<Thread> completingThreads = ConcurrentHashMap.newKeySet();
+        UploadCompletionService completionService = mock(UploadCompletionService.class);
+        doAnswer(invocation -> {
+            completingThreads.add(Thread.currentThread());
+            release.await(10, TimeUnit.SECONDS);
+            completed.countDown();
+            return null;
+        }).when(completionService).complete(any());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        journal = new UploadCompletionJournal(properties, objectMapper, null);
+        journal.open();
+        queue = new UploadCompletionQueue(completionService, journal, properties, objectMapper,
+                new UploadThreadFactory(new MockEnvironment()), meterRegistry);
+        queue.start();
+
+        // 첫 작업은 워커에서 대기, 두 번째는 큐, 세 번째는 거절되어 뒤로 미뤄진다.
+        for (String id : new String[]{"a", "b", "c"}) {
+            assertThat(queue.submit(task(id))).isTrue();
+        }
+        assertThat(completingThreads).doesNotContain(Thread.currentThread());
+        assertThat(meterRegistry.counter("upload.completion.rejected").count()).isGreaterThanOrEqualTo(1);
+        assertThat(queue.getStatus("c")).isEqualTo(UploadCompletionStatus.PENDING);
+        assertThat(journal.contains("c")).isTrue();
+
+        release.countDown();
+        assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(completingThreads).doesNotContain(Thread.currentThread());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (queue.getStatus("c") != UploadCompletionStatus.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.getStatus("c")).isEqualTo(UploadCompletionStatus.COMPLETED);
+        assertThat(journal.inFlight()).isEmpty();
+    }
+
+    private static UploadCompletionTask task(String uploadId) {
+        return UploadCompletionTask.builder()
+                .uploadId(uploadId)
+                .uploadUri("/api/tus/file/upload/" + uploadId)
+                .serverFileName(uploadId + ".wav")
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import com.furence.tus.demo.global.config.FileValidator;
+import me.desair.tus.server.TusFileUploadService;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.UploadType;
+import me.desair.tus.server.upload.concatenation.UploadConcatenationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 병렬 업로드(최종 업로드)의 합쳐진 앞부분 검사
+ */
+class UploadCompletionServiceTests {
+
+    private static final String UPLOAD_URI = "/api/tus/file/upload/final";
+
+    private final TusFileUploadService tusFileUploadService = mock(TusFileUploadService.class);
+    private final UploadStorageService uploadStorageService = mock(UploadStorageService.class);
+    private final UploadFileFinalizer uploadFileFinalizer = mock(UploadFileFinalizer.class);
+    private final UploadBlobService uploadBlobService = mock(UploadBlobService.class);
+    private final UploadCompletionJournal uploadCompletionJournal = mock(UploadCompletionJournal.class);
+    private final UploadBatchExtractor uploadBatchExtractor = mock(UploadBatchExtractor.class);
+    private final FileUploadProperties properties = new FileUploadProperties();
+    private UploadCompletionService completionService;
+    private UploadInfo partial;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties.getContentSniffing().setRequireAudio(true);
+        FileValidator fileValidator = new FileValidator(properties);
+        fileValidator.reload();
+        completionService = new UploadCompletionService(tusFileUploadService, uploadStorageService,
+                uploadFileFinalizer, mock(UploadMetadataBatcher.class), properties, mock(UploadMetrics.class),
+                uploadBlobService, mock(UploadFileCompressor.class), uploadCompletionJournal, uploadBatchExtractor,
+                fileValidator);
+
+        partial = new UploadInfo();
+        UploadConcatenationService concatenationService = mock(UploadConcatenationService.class);
+        when(uploadStorageService.getUploadConcatenationService()).thenReturn(concatenationService);
+        when(concatenationService.getPartialUploads(any())).thenReturn(List.of(partial));
+    }
+
+    @Test
+    void executableConcatenatedBatchIsRejectedBeforeExtraction() throws Exception {
+        givenConcatenatedUpload("MZ\u0090\0");
+
+        assertThatThrownBy(() -> completionService.complete(task(true)))
+                .isInstanceOf(UploadCompletionRolledBackException.class);
+
+        verifyNoInteractions(uploadBatchExtractor);
+        verify(tusFileUploadService).deleteUpload(UPLOAD_URI);
+        verify(uploadStorageService).terminateUpload(partial);
+    }
+
+    @Test
+    void concatenatedBatchArchiveOnlyChecksForExecutables() throws Exception {
+        givenConcatenatedUpload("PK\u0003\u0004");
+        when(uploadBatchExtractor.extract(any())).thenReturn(new UploadBatchExtractor.Result(List.of(), List.of(), 0));
+
+        completionService.complete(task(true));
+
+        verify(uploadBatchExtractor).extract(any());
+    }
+
+    @Test
+    void nonAudioConcatenatedUploadIsRejectedBeforeDedupeAndPlacement() throws Exception {
+        givenConcatenatedUpload("plain text");
+        UploadCompletionTask task = task(false);
+        task.setContentSha256("a".repeat(64));
+
+        assertThatThrownBy(() -> completionService.complete(task))
+                .isInstanceOf(UploadCompletionRolledBackException.class);
+
+        verify(uploadBlobService, never()).findReusable(any(), any());
+        verifyNoInteractions(uploadFileFinalizer);
+        verify(tusFileUploadService).deleteUpload(UPLOAD_URI);
+    }
+
+    private void givenConcatenatedUpload(String head) throws Exception {
+        UploadInfo uploadInfo = new UploadInfo();
+        uploadInfo.setUploadType(UploadType.CONCATENATED);
+        uploadInfo.setLength(1024L);
+        when(tusFileUploadService.getUploadInfo(UPLOAD_URI)).thenReturn(uploadInfo);
+        when(tusFileUploadService.getUploadedBytes(UPLOAD_URI))
+                .thenReturn(new ByteArrayInputStream(head.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    private static UploadCompletionTask task(boolean batch) {
+        return UploadCompletionTask.builder()
+                .uploadId("final")
+                .uploadUri(UPLOAD_URI)
+                .serverFileName("final.wav")
+                .batch(batch)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.furence.tus.demo.file.service;
+
+import com.furence.tus.demo.global.config.FileUploadProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 블록 단위 gzip 압축 / 해제, member 단위 이동
+ */
+class UploadFileCompressorTests {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    private UploadFileCompressor compressor;
+
+    @BeforeEach
+    void setUp() {
+        FileUploadProperties properties = new FileUploadProperties();
+        properties.getCompression().setEnabled(true);
+        properties.getCompression().setBlockSize(BLOCK_SIZE);
+        properties.getCompression().setThreads(2);
+        properties.getCompression().setMaxBlocksInFlight(3);
+        compressor = new UploadFileCompressor(properties);
+        compressor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        compressor.stop();
+    }
+
+    @Test
+    void compressedFileIsStandardGzip() throws Exception {
+        byte[] original = compressible(10 * BLOCK_SIZE + 123);
+        File stored = compressor.compress(write("a.wav", original));
+
+        assertThat(stored.getName()).isEqualTo("a.wav.gz");
+        assertThat(tempDir.resolve("a.wav")).doesNotExist();
+        assertThat(compressor.contentEncoding(stored)).isEqualTo(UploadFileCompressor.CONTENT_ENCODING_GZIP);
+        // 표준 gzip 해제 (member 마다 헤더 extra 필드, CRC32/ISIZE trailer 검사)
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(stored.toPath()))) {
+            assertThat(in.readAllBytes()).isEqualTo(original);
+        }
+        try (InputStream in = compressor.openDecompressed(stored.toPath())) {
+            assertThat(in.readAllBytes()).isEqualTo(original);
+        }
+    }
+
+    @Test
+    void decompressesFromAnyPositionByMember() throws Exception {
+        byte[] original = compressible(10 * BLOCK_SIZE + 123);
+        Path stored = compressor.compress(write("b.wav", original)).toPath();
+
+        for (long position : new long[]{0, 1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 7L * BLOCK_SIZE + 17,
+                original.length - 1}) {
+            try (InputStream in = compressor.openDecompressed(stored, position)) {
+                assertThat(in.readAllBytes())
+                        .as("position %d", position)
+                        .isEqualTo(Arrays.copyOfRange(original, (int) position, original.length));
+            }
+        }
+
+        // 앞 member 를 풀지 않는지 확인하기 위해 첫 member 의 압축 데이터를 망가뜨린다.
+        byte[] bytes = Files.readAllBytes(stored);
+        Arrays.fill(bytes, 20, 40, (byte) 0xff);
+        Files.write(stored, bytes);
+        try (InputStream in = compressor.openDecompressed(stored, BLOCK_SIZE + 1)) {
+            assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(original, BLOCK_SIZE + 1, original.length));
+        }
+    }
+
+    @Test
+    void plainGzipFallsBackToSkipping() throws Exception {
+        byte[] original = compressible(3 * BLOCK_SIZE);
+        Path gzip = tempDir.resolve("plain.wav.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            out.write(original);
+        }
+
+        try (InputStream in = compressor.openDecompressed(gzip, BLOCK_SIZE + 5)) {
+            assertThat(in.readAllBytes()).isEqualTo(Arrays.copyOfRange(original, BLOCK_SIZE + 5, original.length));
+        }
+    }
+
+    @Test
+    void keepsOriginalWhenSavingsAreTooSmall() throws Exception {
+        byte[] original = new byte[3 * BLOCK_SIZE];
+        new Random(7).nextBytes(original);
+        File source = write("noise.wav", original);
+
+        File stored = compressor.compress(source);
+
+        assertThat(stored).isEqualTo(source);
+        assertThat(Files.readAllBytes(stored.toPath())).isEqualTo(original);
+        assertThat(compressor.compressedFile(source)).doesNotExist();
+        assertThat(compressor.temporaryFile(source)).doesNotExist();
+    }
+
+    private File write(String name, byte[] content) throws Exception {
+        Path path = tempDir.resolve(name);
+        Files.write(path, content);
+        return path.toFile();
+    }
+
+    /**
+     * 반복이 많은 (잘 줄어드는) 내용
+     */
+    private static byte[] compressible(int length) {
+        Random random = new Random(length);
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i % 64 == 0 ? random.nextInt() : i % 7);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,71 @@
+package com.furence.tus.demo.file.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Upload-Metadata 헤더 파싱 (키 대소문자, 빈 값, 중복 키, 잘못된 Base64)
+ */
+class UploadMetadataHeaderTests {
+
+    @Test
+    void decodesRequestedKey() {
+        String header = "filename " + encode("통화_녹음.wav") + ",filetype " + encode("audio/wav");
+
+        assertThat(UploadMetadataHeader.value(header, "filename")).isEqualTo("통화_녹음.wav");
+        assertThat(UploadMetadataHeader.value(header, "filetype")).isEqualTo("audio/wav");
+        assertThat(UploadMetadataHeader.value(header, "missing")).isNull();
+    }
+
+    @Test
+    void matchesKeyIgnoringCaseAndSurroundingSpaces() {
+        String header = "  FileType   " + encode("audio/wav") + "  , filename " + encode("a.wav");
+
+        assertThat(UploadMetadataHeader.value(header, "filetype")).isEqualTo("audio/wav");
+        assertThat(UploadMetadataHeader.value(header, "FILENAME")).isEqualTo("a.wav");
+    }
+
+    @Test
+    void doesNotMatchKeyPrefix() {
+        String header = "filetypes " + encode("x") + ",file " + encode("y");
+
+        assertThat(UploadMetadataHeader.value(header, "filetype")).isNull();
+    }
+
+    @Test
+    void emptyHeaderOrValueIsNull() {
+        assertThat(UploadMetadataHeader.value(null, "filetype")).isNull();
+        assertThat(UploadMetadataHeader.value("", "filetype")).isNull();
+        assertThat(UploadMetadataHeader.value(",,", "filetype")).isNull();
+        assertThat(UploadMetadataHeader.value("filetype", "filetype")).isNull();
+        assertThat(UploadMetadataHeader.value("filetype   ,filename " + encode("a.wav"), "filetype")).isNull();
+        assertThat(UploadMetadataHeader.value("filetype   ,filename " + encode("a.wav"), "filename")).isEqualTo("a.wav");
+    }
+
+    @Test
+    void firstDuplicateKeyWins() {
+        String header = "filetype " + encode("audio/wav") + ",FILETYPE " + encode("text/plain");
+
+        assertThat(UploadMetadataHeader.value(header, "filetype")).isEqualTo("audio/wav");
+    }
+
+    @Test
+    void malformedBase64IsRejected() {
+        assertThatThrownBy(() -> UploadMetadataHeader.value("filetype not*base64", "filetype"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UploadMetadataHeader.value("filetype YWJj=", "filetype"))
+                .isInstanceOf(IllegalArgumentException.class);
+        // 다른 키의 잘못된 값은 찾는 키에 영향을 주지 않는다.
+        assertThat(UploadMetadataHeader.value("filename not*base64,filetype " + encode("audio/wav"), "filetype"))
+                .isEqualTo("audio/wav");
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,134 @@
+package com.furence.tus.demo.file.storage;
+
+import com.furence.tus.demo.global.config.ContentSniffer;
+import me.desair.tus.server.exception.TusException;
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadType;
+import me.desair.tus.server.upload.UuidUploadIdFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 첫 PATCH 앞부분 검사와 거절 시 415 / 업로드 삭제
+ */
+class ContentSniffingUploadStorageServiceTests {
+
+    private static final int HEAD_BYTES = 16;
+
+    @TempDir
+    Path tempDir;
+
+    private NioUploadStorageService nioStorage;
+    private ContentSniffingUploadStorageService storage;
+    private final List<String> inspectedHeads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        nioStorage = new NioUploadStorageService(tempDir.toString(),
+                new IndexFileUploadInfoStore(tempDir.resolve("upload-info.idx")), FsyncPolicy.COMPLETION, 1024);
+        UploadIdFactory idFactory = new UuidUploadIdFactory();
+        idFactory.setUploadUri("/api/tus/file/upload");
+        nioStorage.setIdFactory(idFactory);
+        storage = new ContentSniffingUploadStorageService(nioStorage, tempDir.resolve("uploads"), HEAD_BYTES,
+                (upload, head, length) -> {
+                    inspectedHeads.add(new String(head, 0, length, StandardCharsets.ISO_8859_1));
+                    if (ContentSniffer.sniff(head, length) == ContentSniffer.SniffedType.EXECUTABLE) {
+                        throw new UploadContentRejectedException("실행 파일은 업로드할 수 없습니다.");
+                    }
+                });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        nioStorage.close();
+    }
+
+    @Test
+    void executableHeadIsRejectedWith415AndUploadIsTerminated() throws Exception {
+        UploadInfo info = create(4096);
+        CountingBody body = new CountingBody(("MZ" + "x".repeat(4094)).getBytes(StandardCharsets.ISO_8859_1));
+
+        assertThatThrownBy(() -> storage.append(info, body))
+                .isInstanceOfSatisfying(TusException.class, e -> assertThat(e.getStatus()).isEqualTo(415));
+
+        assertThat(storage.getUploadInfo(info.getId())).isNull();
+        assertThat(NioUploadStorageService.dataPath(tempDir.resolve("uploads"), info.getId())).doesNotExist();
+        // 나머지 본문은 읽지 않는다.
+        assertThat(body.consumed()).isLessThan(4096);
+    }
+
+    @Test
+    void acceptedHeadIsInspectedOnceAndStored() throws Exception {
+        byte[] content = ("RIFF\0\0\0\0WAVEfmt " + "d".repeat(100)).getBytes(StandardCharsets.ISO_8859_1);
+        UploadInfo info = create(content.length);
+
+        storage.append(info, new ByteArrayInputStream(content, 0, 50));
+        storage.append(info, new ByteArrayInputStream(content, 50, content.length - 50));
+
+        assertThat(inspectedHeads).containsExactly("RIFF\0\0\0\0WAVEfmt ");
+        assertThat(info.getOffset()).isEqualTo(content.length);
+        try (InputStream in = storage.getUploadedBytes(info.getId())) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void resumedFirstPatchInspectsStoredHeadTogether() throws Exception {
+        UploadInfo info = create(100);
+
+        // 첫 PATCH 가 1 바이트에서 끊기면 그 1 바이트만으로는 판별되지 않는다.
+        storage.append(info, new ByteArrayInputStream("M".getBytes(StandardCharsets.ISO_8859_1)));
+        assertThatThrownBy(() -> storage.append(info,
+                new ByteArrayInputStream(("Z" + "x".repeat(98)).getBytes(StandardCharsets.ISO_8859_1))))
+                .isInstanceOf(UploadContentRejectedException.class);
+
+        assertThat(inspectedHeads).containsExactly("M", "MZ" + "x".repeat(HEAD_BYTES - 2));
+        assertThat(storage.getUploadInfo(info.getId())).isNull();
+    }
+
+    @Test
+    void partialUploadsAreNotInspected() throws Exception {
+        UploadInfo info = new UploadInfo();
+        info.setLength(10L);
+        info.setUploadType(UploadType.PARTIAL);
+        info = storage.create(info, null);
+
+        storage.append(info, new ByteArrayInputStream("MZxxxxxxxx".getBytes(StandardCharsets.ISO_8859_1)));
+
+        assertThat(inspectedHeads).isEmpty();
+        assertThat(info.getOffset()).isEqualTo(10);
+    }
+
+    private UploadInfo create(long length) throws Exception {
+        UploadInfo info = new UploadInfo();
+        info.setLength(length);
+        return storage.create(info, null);
+    }
+
+    /**
+     * 읽힌 바이트 수를 알 수 있는 본문
+     */
+    private static class CountingBody extends ByteArrayInputStream {
+
+        CountingBody(byte[] content) {
+            super(content);
+        }
+
+        int consumed() {
+            return pos;
+        }
+    }
+}
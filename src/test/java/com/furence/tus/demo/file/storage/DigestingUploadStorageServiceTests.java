@@ -0,0 +1,98 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UuidUploadIdFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PATCH 중 전체 파일 다이제스트 계산 / 마지막 청크 되돌리기
+ */
+class DigestingUploadStorageServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private NioUploadStorageService storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new NioUploadStorageService(tempDir.toString(),
+                new IndexFileUploadInfoStore(tempDir.resolve("upload-info.idx")), FsyncPolicy.NONE, 8192);
+        UploadIdFactory idFactory = new UuidUploadIdFactory();
+        idFactory.setUploadUri("/api/tus/file/upload");
+        storage.setIdFactory(idFactory);
+    }
+
+    @Test
+    void digestCoversAllChunks() throws Exception {
+        DigestingUploadStorageService digesting = digesting();
+        UploadInfo info = create(digesting, 10);
+
+        digesting.append(info, bytes("hello"));
+        assertThat(info.getMetadata()).doesNotContainKey(DigestingUploadStorageService.DIGEST_METADATA_KEY);
+        digesting.append(info, bytes("world"));
+
+        assertThat(info.getMetadata()).containsEntry(DigestingUploadStorageService.DIGEST_METADATA_KEY, sha256("helloworld"));
+    }
+
+    @Test
+    void removedLastChunkRollsBackDigest() throws Exception {
+        DigestingUploadStorageService digesting = digesting();
+        UploadInfo info = create(digesting, 10);
+
+        digesting.append(info, bytes("hello"));
+        digesting.append(info, bytes("WRONG"));
+        // 청크 체크섬 불일치로 마지막 청크를 잘라낸 경우
+        digesting.removeLastNumberOfBytes(info, 5);
+        assertThat(info.getOffset()).isEqualTo(5);
+        assertThat(info.getMetadata()).doesNotContainKey(DigestingUploadStorageService.DIGEST_METADATA_KEY);
+        // data 파일을 다시 읽지 않고 보관한 상태로 되돌리는지 확인하기 위해 앞부분을 바꿔 둔다.
+        Files.writeString(NioUploadStorageService.dataPath(NioUploadStorageService.uploadDirectory(tempDir.toString()),
+                info.getId()), "xxxxx", StandardCharsets.UTF_8);
+
+        digesting.append(info, bytes("world"));
+        assertThat(info.getMetadata()).containsEntry(DigestingUploadStorageService.DIGEST_METADATA_KEY, sha256("helloworld"));
+    }
+
+    @Test
+    void missingStateIsRebuiltFromStoredBytes() throws Exception {
+        UploadInfo info = create(digesting(), 10);
+        digesting().append(info, bytes("hello"));
+
+        // 재기동 등으로 메모리 상태가 없는 경우
+        DigestingUploadStorageService restarted = digesting();
+        restarted.append(info, bytes("world"));
+
+        assertThat(info.getMetadata()).containsEntry(DigestingUploadStorageService.DIGEST_METADATA_KEY, sha256("helloworld"));
+    }
+
+    private DigestingUploadStorageService digesting() {
+        return new DigestingUploadStorageService(storage, NioUploadStorageService.uploadDirectory(tempDir.toString()));
+    }
+
+    private static UploadInfo create(DigestingUploadStorageService digesting, long length) throws Exception {
+        UploadInfo info = new UploadInfo();
+        info.setLength(length);
+        return digesting.create(info, null);
+    }
+
+    private static ByteArrayInputStream bytes(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
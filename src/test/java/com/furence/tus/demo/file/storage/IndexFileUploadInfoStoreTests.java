@@ -0,0 +1,116 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadId;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인덱스 저장소 조회 사본 / 재기동 후 복원 / fsync 공유
+ */
+class IndexFileUploadInfoStoreTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void getReturnsIndependentCopies() throws Exception {
+        try (IndexFileUploadInfoStore store = open()) {
+            UploadInfo info = info();
+            store.put(info, false);
+            // 저장 후 호출 측이 바꿔도 저장본은 그대로
+            info.setOffset(99L);
+
+            UploadInfo first = store.get(info.getId().toString());
+            assertThat(first.getOffset()).isEqualTo(10L);
+            assertThat(first.getMetadata()).containsEntry("filename", "a.wav");
+            assertThat(first.getConcatenationPartIds()).containsExactly("p1", "p2");
+            assertThat(first.getCreationTimestamp()).isEqualTo(info.getCreationTimestamp());
+            assertThat(first.getExpirationTimestamp()).isEqualTo(info.getExpirationTimestamp());
+
+            first.setOffset(20L);
+            first.getConcatenationPartIds().add("p3");
+            UploadInfo second = store.get(info.getId().toString());
+            assertThat(second).isNotSameAs(first);
+            assertThat(second.getOffset()).isEqualTo(10L);
+            assertThat(second.getConcatenationPartIds()).containsExactly("p1", "p2");
+        }
+    }
+
+    @Test
+    void reopenedStoreRestoresLatestInfo() throws Exception {
+        UploadInfo info = info();
+        try (IndexFileUploadInfoStore store = open()) {
+            store.put(info, false);
+            info.setOffset(30L);
+            store.put(info, true);
+            UploadInfo removed = info();
+            store.put(removed, false);
+            store.remove(removed.getId().toString());
+        }
+
+        try (IndexFileUploadInfoStore reopened = open()) {
+            assertThat(reopened.keys()).containsExactly(info.getId().toString());
+            UploadInfo restored = reopened.get(info.getId().toString());
+            assertThat(restored).isEqualTo(info);
+            assertThat(restored.getOffset()).isEqualTo(30L);
+            assertThat(restored.getUploadType()).isEqualTo(UploadType.CONCATENATED);
+        }
+    }
+
+    @Test
+    void concurrentSyncedPutsShareForcesWithoutLosingRecords() throws Exception {
+        List<UploadInfo> infos = new ArrayList<>();
+        try (IndexFileUploadInfoStore store = open();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                UploadInfo info = info();
+                info.setOffset((long) i);
+                infos.add(info);
+                futures.add(executor.submit(() -> {
+                    store.put(info, true);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        try (IndexFileUploadInfoStore reopened = open()) {
+            assertThat(reopened.keys()).hasSize(infos.size());
+            for (UploadInfo info : infos) {
+                assertThat(reopened.get(info.getId().toString()).getOffset()).isEqualTo(info.getOffset());
+            }
+        }
+    }
+
+    private IndexFileUploadInfoStore open() throws Exception {
+        return new IndexFileUploadInfoStore(tempDir.resolve("upload-info.idx"));
+    }
+
+    private static UploadInfo info() {
+        UploadInfo info = new UploadInfo();
+        info.setId(new UploadId(UUID.randomUUID()));
+        info.setLength(100L);
+        info.setOffset(10L);
+        info.setEncodedMetadata("filename YS53YXY=");
+        info.setUploadType(UploadType.CONCATENATED);
+        info.setConcatenationPartIds(new ArrayList<>(List.of("p1", "p2")));
+        info.updateExpiration(60_000L);
+        return info;
+    }
+}
@@ -0,0 +1,145 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.exception.UploadAlreadyLockedException;
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadLock;
+import me.desair.tus.server.upload.UuidUploadIdFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * lease 만료 후 다른 노드가 락을 가져간 경우 PATCH 가 멈추고 offset 을 덮어쓰지 않는지
+ * (DB 는 흉내만 낸다: 다른 노드가 가져간 뒤에는 이 노드의 연장이 0 건)
+ */
+class JdbcLeaseUploadLockingServiceTests {
+
+    private static final String UPLOAD_URI = "/api/tus/file/upload";
+
+    @TempDir
+    Path tempDir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AtomicBoolean takenOver = new AtomicBoolean();
+    private IndexFileUploadInfoStore infoStore;
+    private JdbcLeaseUploadLockingService lockingService;
+    private NioUploadStorageService storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.startsWith("update tus_upload_lock")) {
+                return takenOver.get() ? 0 : 1;
+            }
+            return 1;
+        });
+        UploadIdFactory idFactory = new UuidUploadIdFactory();
+        idFactory.setUploadUri(UPLOAD_URI);
+
+        // lease 300ms, 100ms 마다 연장
+        lockingService = new JdbcLeaseUploadLockingService(jdbcTemplate, "node1", 300, Thread.ofPlatform().factory());
+        lockingService.setIdFactory(idFactory);
+        infoStore = new IndexFileUploadInfoStore(tempDir.resolve("upload-info.idx"));
+        storage = new NioUploadStorageService(tempDir.toString(), infoStore, FsyncPolicy.NONE, 4, true, lockingService);
+        storage.setIdFactory(idFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        lockingService.close();
+        storage.close();
+    }
+
+    @Test
+    void renewalFailureStopsWritingAndKeepsStoredOffset() throws Exception {
+        UploadInfo info = create(100);
+        UploadLock lock = lockingService.lockUploadByUri(UPLOAD_URI + "/" + info.getId());
+        assertThat(lockingService.isHeld(info.getId())).isTrue();
+
+        // 첫 4 바이트를 쓴 뒤 다른 노드가 가져가고, 다음 읽기는 연장 실패가 반영될 때까지 기다린다.
+        InputStream body = new InputStream() {
+            private int reads;
+
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (reads++ == 1) {
+                    takenOver.set(true);
+                    long deadline = System.currentTimeMillis() + 5000;
+                    while (lockingService.isHeld(info.getId()) && System.currentTimeMillis() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                }
+                b[off] = 'x';
+                return 1;
+            }
+        };
+
+        assertThatThrownBy(() -> storage.append(info, body)).isInstanceOf(UploadAlreadyLockedException.class);
+        assertThat(lockingService.isHeld(info.getId())).isFalse();
+        // 새 주인의 정보를 덮어쓰지 않는다.
+        assertThat(infoStore.get(info.getId().toString()).getOffset()).isZero();
+        lock.release();
+    }
+
+    @Test
+    void takeoverBeforeFinalUpdateFailsAppend() throws Exception {
+        UploadInfo info = create(10);
+        lockingService.lockUploadByUri(UPLOAD_URI + "/" + info.getId());
+
+        InputStream body = new ByteArrayInputStream("0123456789".getBytes()) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                int read = super.read(b, off, len);
+                if (available() == 0) {
+                    // 마지막 기록 직후, 연장 주기가 돌기 전에 lease 를 잃은 경우
+                    takenOver.set(true);
+                }
+                return read;
+            }
+        };
+
+        assertThatThrownBy(() -> storage.append(info, body)).isInstanceOf(UploadAlreadyLockedException.class);
+        assertThat(infoStore.get(info.getId().toString()).getOffset()).isZero();
+        assertThat(Files.size(NioUploadStorageService.dataPath(tempDir.resolve("uploads"), info.getId()))).isEqualTo(10);
+    }
+
+    @Test
+    void heldLeaseUpdatesOffset() throws Exception {
+        UploadInfo info = create(10);
+        UploadLock lock = lockingService.lockUploadByUri(UPLOAD_URI + "/" + info.getId());
+
+        storage.append(info, new ByteArrayInputStream("0123456789".getBytes()));
+
+        assertThat(infoStore.get(info.getId().toString()).getOffset()).isEqualTo(10);
+        lock.release();
+        assertThat(lockingService.isHeld(info.getId())).isFalse();
+    }
+
+    private UploadInfo create(long length) throws Exception {
+        UploadInfo info = new UploadInfo();
+        info.setLength(length);
+        return storage.create(info, null);
+    }
+}
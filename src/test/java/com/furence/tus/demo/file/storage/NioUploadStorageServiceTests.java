@@ -0,0 +1,110 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UuidUploadIdFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PATCH 기록 (InputStream / 채널 본문)
+ */
+class NioUploadStorageServiceTests {
+
+    private static final int BUFFER_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private NioUploadStorageService storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new NioUploadStorageService(tempDir.toString(),
+                new IndexFileUploadInfoStore(tempDir.resolve("upload-info.idx")), FsyncPolicy.COMPLETION, BUFFER_SIZE);
+        UploadIdFactory idFactory = new UuidUploadIdFactory();
+        idFactory.setUploadUri("/api/tus/file/upload");
+        storage.setIdFactory(idFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        storage.close();
+    }
+
+    @Test
+    void appendsStreamAndChannelBodiesAlike() throws Exception {
+        byte[] content = new byte[5 * BUFFER_SIZE + 17];
+        new Random(1).nextBytes(content);
+        int half = content.length / 2;
+
+        UploadInfo info = create(content.length);
+        storage.append(info, new ByteArrayInputStream(content, 0, half));
+        ChannelBody channelBody = new ChannelBody(content, half);
+        storage.append(info, channelBody);
+
+        assertThat(channelBody.channelReads).isPositive();
+        assertThat(info.getOffset()).isEqualTo(content.length);
+        assertThat(storage.getUploadInfo(info.getId()).getOffset()).isEqualTo(content.length);
+        try (InputStream in = storage.getUploadedBytes(info.getId())) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void stopsAtUploadLength() throws Exception {
+        UploadInfo info = create(10);
+
+        storage.append(info, new ChannelBody("0123456789extra".getBytes(), 0));
+
+        assertThat(info.getOffset()).isEqualTo(10);
+        assertThat(Files.size(NioUploadStorageService.dataPath(tempDir.resolve("uploads"), info.getId()))).isEqualTo(10);
+    }
+
+    private UploadInfo create(long length) throws Exception {
+        UploadInfo info = new UploadInfo();
+        info.setLength(length);
+        return storage.create(info, null);
+    }
+
+    /**
+     * 채널로도 읽을 수 있는 본문 (채널 읽기 횟수 기록)
+     */
+    private static class ChannelBody extends ByteArrayInputStream implements ReadableByteChannel {
+
+        int channelReads;
+
+        ChannelBody(byte[] content, int offset) {
+            super(content, offset, content.length - offset);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            int n = Math.min(dst.remaining(), available());
+            if (n == 0) {
+                return dst.hasRemaining() ? -1 : 0;
+            }
+            dst.put(buf, pos, n);
+            pos += n;
+            channelReads++;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.furence.tus.demo.file.storage;
+
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UploadStorageService;
+import me.desair.tus.server.upload.UuidUploadIdFactory;
+import me.desair.tus.server.upload.disk.DiskStorageService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PATCH 처리량 비교 (기본 DiskStorageService vs NioUploadStorageService)
+ * 실행: ./gradlew benchmark -Dbenchmark.storage.uploads=20 -Dbenchmark.storage.chunk.kb=1024
+ */
+@Tag("benchmark")
+class UploadStorageBenchmarkTests {
+
+    private static final int UPLOADS = Integer.getInteger("benchmark.storage.uploads", 20);
+    private static final int CHUNKS_PER_UPLOAD = Integer.getInteger("benchmark.storage.chunks", 16);
+    private static final int CHUNK_KB = Integer.getInteger("benchmark.storage.chunk.kb", 1024);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compareAppendThroughput() throws Exception {
+        byte[] chunk = new byte[CHUNK_KB * 1024];
+        ThreadLocalRandom.current().nextBytes(chunk);
+
+        // JIT 워밍업
+        run(new DiskStorageService(tempDir.resolve("warmup-disk").toString()), chunk);
+        run(nio("warmup-nio", FsyncPolicy.COMPLETION), chunk);
+
+        double disk = run(new DiskStorageService(tempDir.resolve("disk").toString()), chunk);
+        double nioChunk = run(nio("nio-chunk", FsyncPolicy.CHUNK), chunk);
+        double nioCompletion = run(nio("nio-completion", FsyncPolicy.COMPLETION), chunk);
+
+        System.out.printf("append %d uploads x %d chunks x %d KB: disk=%.1f MB/s, nio(fsync=chunk)=%.1f MB/s, nio(fsync=completion)=%.1f MB/s%n",
+                UPLOADS, CHUNKS_PER_UPLOAD, CHUNK_KB, disk, nioChunk, nioCompletion);
+    }
+
+    private NioUploadStorageService nio(String name, FsyncPolicy fsyncPolicy) throws Exception {
+        Path storage = tempDir.resolve(name);
+        return new NioUploadStorageService(storage.toString(),
+                new IndexFileUploadInfoStore(storage.resolve("upload-info.idx")), fsyncPolicy, 256 * 1024);
+    }
+
+    /**
+     * 업로드 생성 + 청크 append + 정보 조회를 반복하고 MB/s 를 반환
+     */
+    private double run(UploadStorageService storage, byte[] chunk) throws Exception {
+        UploadIdFactory idFactory = new UuidUploadIdFactory();
+        idFactory.setUploadUri("/api/tus/file/upload");
+        storage.setIdFactory(idFactory);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < UPLOADS; i++) {
+            UploadInfo info = new UploadInfo();
+            info.setLength((long) chunk.length * CHUNKS_PER_UPLOAD);
+            info = storage.create(info, null);
+
+            for (int c = 0; c < CHUNKS_PER_UPLOAD; c++) {
+                // tus 요청 처리처럼 매 PATCH 마다 정보를 다시 읽는다.
+                info = storage.getUploadInfo(info.getId());
+                storage.append(info, new ByteArrayInputStream(chunk));
+            }
+
+            UploadInfo stored = storage.getUploadInfo(info.getId());
+            assertThat(stored.getOffset()).isEqualTo(stored.getLength());
+            assertThat(Files.size(tempDataPath(stored))).isEqualTo(stored.getLength());
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        if (storage instanceof NioUploadStorageService nio) {
+            nio.close();
+        }
+        return (double) UPLOADS * CHUNKS_PER_UPLOAD * chunk.length / (1024 * 1024) / seconds;
+    }
+
+    private Path tempDataPath(UploadInfo info) throws Exception {
+        try (var paths = Files.find(tempDir, 4, (path, attrs) -> path.endsWith(info.getId().toString() + "/data"))) {
+            return paths.findFirst().orElseThrow();
+        }
+    }
+}
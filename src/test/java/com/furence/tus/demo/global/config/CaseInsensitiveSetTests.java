@@ -0,0 +1,82 @@
+package com.furence.tus.demo.global.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대소문자 무시 조회 / 구간 조회 / 해시 충돌 시 탐사
+ */
+class CaseInsensitiveSetTests {
+
+    @Test
+    void foldsCaseOnBothSides() {
+        CaseInsensitiveSet set = CaseInsensitiveSet.of(List.of("WAV", " Mp3 ", "audio/X-WAV"));
+
+        assertThat(set.contains("wav")).isTrue();
+        assertThat(set.contains("WaV")).isTrue();
+        assertThat(set.contains("MP3")).isTrue();
+        assertThat(set.contains("AUDIO/x-wav")).isTrue();
+        assertThat(set.contains("wav ")).isFalse();
+        assertThat(set.contains("ogg")).isFalse();
+        assertThat(set.contains(null)).isFalse();
+        assertThat(set.values()).containsExactly("wav", "mp3", "audio/x-wav");
+    }
+
+    @Test
+    void looksUpSubRange() {
+        CaseInsensitiveSet set = CaseInsensitiveSet.of(List.of("wav"));
+        String fileName = "call.20240101.WAV";
+        int dot = fileName.lastIndexOf('.');
+
+        assertThat(set.contains(fileName, dot + 1, fileName.length())).isTrue();
+        assertThat(set.contains(fileName, dot, fileName.length())).isFalse();
+        assertThat(set.contains(fileName, dot + 1, fileName.length() - 1)).isFalse();
+    }
+
+    @Test
+    void skipsBlankAndDuplicateValues() {
+        CaseInsensitiveSet set = CaseInsensitiveSet.of(Arrays.asList("wav", "WAV", " ", null, ""));
+
+        assertThat(set.values()).containsExactly("wav");
+        assertThat(set.contains("")).isFalse();
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        assertThat(CaseInsensitiveSet.of(null).contains("wav")).isFalse();
+        assertThat(CaseInsensitiveSet.of(List.of()).contains("")).isFalse();
+        assertThat(CaseInsensitiveSet.of(List.of()).values()).isEmpty();
+    }
+
+    @Test
+    void probesPastCollidingEntries() {
+        // "a~", "b_", "c@" 는 31 * c1 + c2 가 같아 해시가 완전히 겹친다.
+        assertThat("b_".hashCode()).isEqualTo("a~".hashCode());
+        assertThat("c@".hashCode()).isEqualTo("a~".hashCode());
+        CaseInsensitiveSet set = CaseInsensitiveSet.of(List.of("a~", "b_"));
+
+        assertThat(set.contains("A~")).isTrue();
+        assertThat(set.contains("B_")).isTrue();
+        // 같은 슬롯에서 시작해 두 항목을 모두 지나친 뒤 빈 슬롯에서 끝나야 한다.
+        assertThat(set.contains("C@")).isFalse();
+    }
+
+    @Test
+    void findsEveryEntryInCrowdedTable() {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            values.add("Ext" + i);
+        }
+        CaseInsensitiveSet set = CaseInsensitiveSet.of(values);
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(set.contains("eXT" + i)).as("ext%d", i).isTrue();
+            assertThat(set.contains("ext" + (i + 500))).as("ext%d", i + 500).isFalse();
+        }
+    }
+}
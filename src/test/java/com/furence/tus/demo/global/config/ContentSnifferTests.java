@@ -0,0 +1,87 @@
+package com.furence.tus.demo.global.config;
+
+import com.furence.tus.demo.global.config.ContentSniffer.SniffedType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 매직 넘버 판별 (음성 형식, 실행 파일, 판별 불가)
+ */
+class ContentSnifferTests {
+
+    @Test
+    void detectsAudioFormats() {
+        assertThat(sniff(concat(ascii("RIFF"), new byte[4], ascii("WAVEfmt ")))).isEqualTo(SniffedType.WAV);
+        assertThat(sniff(concat(new byte[]{0, 0, 0, 0x20}, ascii("ftypM4A ")))).isEqualTo(SniffedType.MP4);
+        assertThat(sniff(concat(ascii("ID3"), new byte[]{4, 0, 0}))).isEqualTo(SniffedType.MP3);
+        assertThat(sniff(bytes(0xFF, 0xFB, 0x90, 0x64))).isEqualTo(SniffedType.MP3);
+        assertThat(sniff(bytes(0xFF, 0xF1, 0x50, 0x80))).isEqualTo(SniffedType.AAC);
+        assertThat(sniff(concat(ascii("OggS"), new byte[]{0, 2}))).isEqualTo(SniffedType.OGG);
+        assertThat(sniff(concat(ascii("fLaC"), new byte[]{0, 0, 0, 0x22}))).isEqualTo(SniffedType.FLAC);
+    }
+
+    @Test
+    void detectsExecutables() {
+        assertThat(sniff(concat(ascii("MZ"), new byte[]{(byte) 0x90, 0}))).isEqualTo(SniffedType.EXECUTABLE);
+        assertThat(sniff(concat(bytes(0x7F), ascii("ELF"), new byte[]{2, 1}))).isEqualTo(SniffedType.EXECUTABLE);
+        assertThat(sniff(ascii("#!/bin/sh\n"))).isEqualTo(SniffedType.EXECUTABLE);
+        assertThat(sniff(ascii("<?php echo 1;"))).isEqualTo(SniffedType.EXECUTABLE);
+        assertThat(sniff(bytes(0xFE, 0xED, 0xFA, 0xCF))).isEqualTo(SniffedType.EXECUTABLE);
+        assertThat(sniff(bytes(0xCF, 0xFA, 0xED, 0xFE))).isEqualTo(SniffedType.EXECUTABLE);
+        assertThat(sniff(bytes(0xCA, 0xFE, 0xBA, 0xBE))).isEqualTo(SniffedType.EXECUTABLE);
+        assertThat(SniffedType.EXECUTABLE.isAudio()).isFalse();
+    }
+
+    @Test
+    void shortOrUnrecognizedHeadIsUnknown() {
+        assertThat(sniff(new byte[0])).isEqualTo(SniffedType.UNKNOWN);
+        assertThat(sniff(ascii("RIF"))).isEqualTo(SniffedType.UNKNOWN);
+        assertThat(sniff(ascii("RIFF\0\0\0\0AVI "))).isEqualTo(SniffedType.UNKNOWN);
+        assertThat(sniff(bytes(0xFF))).isEqualTo(SniffedType.UNKNOWN);
+        assertThat(sniff(bytes(0x50, 0x4B, 0x03, 0x04))).isEqualTo(SniffedType.UNKNOWN);
+        assertThat(sniff(ascii("plain text"))).isEqualTo(SniffedType.UNKNOWN);
+        assertThat(SniffedType.UNKNOWN.isAudio()).isFalse();
+    }
+
+    @Test
+    void readsOnlyGivenLength() {
+        byte[] buffer = Arrays.copyOf(ascii("MZ"), 4096);
+
+        assertThat(ContentSniffer.sniff(buffer, 1)).isEqualTo(SniffedType.UNKNOWN);
+        assertThat(ContentSniffer.sniff(buffer, 2)).isEqualTo(SniffedType.EXECUTABLE);
+    }
+
+    private static SniffedType sniff(byte[] head) {
+        return ContentSniffer.sniff(head, head.length);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] joined = new byte[length];
+        int position = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, joined, position, part.length);
+            position += part.length;
+        }
+        return joined;
+    }
+}
@@ -0,0 +1,180 @@
+package com.furence.tus.demo.global.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furence.tus.demo.file.domain.UploadCompletionStatus;
+import com.furence.tus.demo.file.domain.UploadCompletionStep;
+import com.furence.tus.demo.file.domain.dto.UploadCompletionTask;
+import com.furence.tus.demo.file.service.UploadCompletionJournal;
+import com.furence.tus.demo.file.service.UploadCompletionQueue;
+import com.furence.tus.demo.file.service.UploadCompletionService;
+import com.furence.tus.demo.file.storage.DigestingUploadStorageService;
+import com.furence.tus.demo.file.storage.FsyncPolicy;
+import com.furence.tus.demo.file.storage.IndexFileUploadInfoStore;
+import com.furence.tus.demo.file.storage.NioUploadStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import me.desair.tus.server.upload.UploadIdFactory;
+import me.desair.tus.server.upload.UploadInfo;
+import me.desair.tus.server.upload.UuidUploadIdFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 가상 스레드에서 PATCH 저장 / 완료 저널 / 후처리 큐가 carrier 를 고정(pinning)하지 않는지
+ * JFR jdk.VirtualThreadPinned 이벤트(임계값 0)를 기록해 우리 코드가 스택에 있는 이벤트가 없음을 확인한다.
+ */
+class VirtualThreadPinningTests {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int UPLOADS = 64;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void patchAndCompletionDoNotPinCarriers() throws Exception {
+        List<RecordedEvent> pinned;
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            runPatches();
+            runCompletions();
+
+            recording.stop();
+            Path dump = tempDir.resolve("pinning.jfr");
+            recording.dump(dump);
+            pinned = RecordingFile.readAllEvents(dump).stream()
+                    .filter(event -> PINNED_EVENT.equals(event.getEventType().getName()))
+                    .filter(VirtualThreadPinningTests::inOurCode)
+                    .toList();
+        }
+
+        assertThat(pinned).extracting(VirtualThreadPinningTests::describe).isEmpty();
+    }
+
+    @Test
+    void lockingOnIoPathsDoesNotUseMonitors() {
+        for (Class<?> type : List.of(NioUploadStorageService.class, IndexFileUploadInfoStore.class,
+                DigestingUploadStorageService.class, UploadCompletionJournal.class, UploadCompletionQueue.class)) {
+            List<String> synchronizedMethods = Arrays.stream(type.getDeclaredMethods())
+                    .filter(method -> Modifier.isSynchronized(method.getModifiers()))
+                    .map(Method::getName)
+                    .toList();
+            assertThat(synchronizedMethods).as(type.getSimpleName()).isEmpty();
+        }
+    }
+
+    /**
+     * 여러 업로드의 생성 / PATCH (청크마다 인덱스 fsync, 다이제스트 계산)
+     */
+    private void runPatches() throws Exception {
+        NioUploadStorageService nio = new NioUploadStorageService(tempDir.resolve("tus").toString(),
+                new IndexFileUploadInfoStore(tempDir.resolve("upload-info.idx")), FsyncPolicy.CHUNK, 4096);
+        UploadIdFactory idFactory = new UuidUploadIdFactory();
+        idFactory.setUploadUri("/api/tus/file/upload");
+        nio.setIdFactory(idFactory);
+        DigestingUploadStorageService storage = new DigestingUploadStorageService(nio,
+                NioUploadStorageService.uploadDirectory(tempDir.resolve("tus").toString()));
+
+        byte[] chunk = new byte[16 * 1024];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < UPLOADS; i++) {
+                futures.add(executor.submit(() -> {
+                    UploadInfo info = new UploadInfo();
+                    info.setLength(4L * chunk.length);
+                    info = storage.create(info, null);
+                    for (int c = 0; c < 4; c++) {
+                        storage.append(info, new ByteArrayInputStream(chunk));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            nio.close();
+        }
+    }
+
+    /**
+     * 가상 스레드 작업자의 후처리 (저널 기록 / fsync 공유)
+     */
+    private void runCompletions() throws Exception {
+        FileUploadProperties properties = new FileUploadProperties();
+        properties.getCompletion().setSpoolPath(tempDir.resolve("completions").toString());
+        properties.getCompletion().setJournalCompactBytes(8 * 1024);
+        ObjectMapper objectMapper = new ObjectMapper();
+        UploadCompletionJournal journal = new UploadCompletionJournal(properties, objectMapper, null);
+        journal.open();
+
+        CountDownLatch completed = new CountDownLatch(UPLOADS);
+        UploadCompletionService completionService = mock(UploadCompletionService.class);
+        doAnswer(invocation -> {
+            UploadCompletionTask task = invocation.getArgument(0);
+            journal.record(task.getUploadId(), UploadCompletionStep.PLACED);
+            journal.record(task.getUploadId(), UploadCompletionStep.SAVED);
+            completed.countDown();
+            return null;
+        }).when(completionService).complete(any());
+
+        UploadCompletionQueue queue = new UploadCompletionQueue(completionService, journal, properties, objectMapper,
+                new UploadThreadFactory(new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true")),
+                new SimpleMeterRegistry());
+        queue.start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < UPLOADS; i++) {
+                String uploadId = "u" + i;
+                executor.submit(() -> queue.submit(UploadCompletionTask.builder()
+                        .uploadId(uploadId)
+                        .uploadUri("/api/tus/file/upload/" + uploadId)
+                        .serverFileName(uploadId + ".wav")
+                        .build()));
+            }
+        }
+        assertThat(completed.await(60, TimeUnit.SECONDS)).isTrue();
+        queue.stop();
+        for (int i = 0; i < UPLOADS; i++) {
+            assertThat(queue.getStatus("u" + i)).isNotEqualTo(UploadCompletionStatus.FAILED);
+        }
+        journal.close();
+    }
+
+    private static boolean inOurCode(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .anyMatch(frame -> frame.getMethod().getType().getName().startsWith("com.furence."));
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining(" <- "));
+    }
+}